@@ -0,0 +1,44 @@
+package com.expenses_tracker.anomaly;
+
+/**
+ * Count, mean and (population) variance of a stream of values, updated in
+ * O(1) per value.
+ *
+ * For the first window values this is Welford's algorithm: exact, and
+ * reversible with minus. After that each new value gets weight 1/window, so
+ * mean and variance become exponentially weighted averages that follow a
+ * change of habits instead of freezing on years of history.
+ */
+public record RunningStats(long count, double mean, double variance) {
+
+    public static final RunningStats EMPTY = new RunningStats(0, 0, 0);
+
+    public RunningStats plus(double value, int window) {
+        long n = count + 1;
+        double weight = 1.0 / Math.min(n, window);
+        double delta = value - mean;
+        return new RunningStats(n, mean + weight * delta, (1 - weight) * (variance + weight * delta * delta));
+    }
+
+    /**
+     * Takes back a value added earlier. Exact while count is within the
+     * window; past it the weighted averages cannot be unwound, so only the
+     * count goes back until the next rebuild.
+     */
+    public RunningStats minus(double value, int window) {
+        if (count <= 1) {
+            return EMPTY;
+        }
+        long n = count - 1;
+        if (count > window) {
+            return new RunningStats(n, mean, variance);
+        }
+        double previousMean = (count * mean - value) / n;
+        double sumOfSquares = count * variance - (value - previousMean) * (value - mean);
+        return new RunningStats(n, previousMean, Math.max(0, sumOfSquares / n));
+    }
+
+    public double standardDeviation() {
+        return Math.sqrt(variance);
+    }
+}
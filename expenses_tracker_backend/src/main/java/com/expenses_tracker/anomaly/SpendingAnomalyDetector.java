@@ -0,0 +1,362 @@
+package com.expenses_tracker.anomaly;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.expenses_tracker.entity.Expense;
+import com.expenses_tracker.service.AllDataClearedEvent;
+import com.expenses_tracker.service.NotificationService;
+import com.expenses_tracker.service.UserDeletedEvent;
+import com.expenses_tracker.sync.SyncClock;
+import com.expenses_tracker.util.Money;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Notices expenses far larger than what the user usually spends in that
+ * category, without any budget set.
+ *
+ * Each (user, category) keeps a RunningStats of the log of its amounts in
+ * the user's preferred currency; spending is right-skewed, and on the log
+ * scale "three deviations above" means a multiple of the usual amount rather
+ * than a fixed sum. A new expense is scored against its category's stats
+ * before being added to them, so every write reads and updates one small
+ * row. Edits and deletes take the old amount back out; bulk changes rebuild
+ * the user's rows.
+ *
+ * The rebuild is a single pass over expense in (user, date) order, a chunk
+ * of users at a time, replacing their rows. It runs weekly to fold in
+ * expenses written outside ExpenseService, such as posted recurring bills.
+ * Each chunk locks its users' rows, which every incremental update also
+ * locks, before reading their expenses, and stamps the rows it writes with
+ * the sync high-water mark it read them at. An incremental update for a
+ * change at or below that version is already counted and is skipped.
+ */
+@Service
+public class SpendingAnomalyDetector {
+
+    private static final String LOCK_USER = "SELECT id FROM users WHERE id = ? FOR UPDATE";
+
+    private static final String LOCK_USER_RANGE = "SELECT id FROM users WHERE id > ? AND id <= ? FOR UPDATE";
+
+    private static final String SELECT_STATS_FOR_UPDATE =
+        "SELECT sample_count, mean_log, variance_log, rebuilt_version FROM spending_stats " +
+        "WHERE user_id = ? AND category = ? FOR UPDATE";
+
+    private static final String SELECT_USER_STATS =
+        "SELECT category, sample_count, mean_log, variance_log FROM spending_stats WHERE user_id = ? ORDER BY category";
+
+    private static final String INSERT_STATS =
+        "INSERT INTO spending_stats (user_id, category, sample_count, mean_log, variance_log, rebuilt_version, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_STATS =
+        "UPDATE spending_stats SET sample_count = ?, mean_log = ?, variance_log = ?, updated_at = ? " +
+        "WHERE user_id = ? AND category = ?";
+
+    private static final String DELETE_STATS =
+        "DELETE FROM spending_stats WHERE user_id = ? AND category = ?";
+
+    private static final String SELECT_USERS =
+        "SELECT DISTINCT user_id FROM expense WHERE user_id > ? ORDER BY user_id LIMIT ?";
+
+    private static final String SELECT_EXPENSES =
+        "SELECT user_id, category, amount, base_amount FROM expense " +
+        "WHERE user_id BETWEEN ? AND ? ORDER BY user_id, date, id";
+
+    // Half-open range, so users left without expenses lose their rows too
+    private static final String DELETE_USER_RANGE =
+        "DELETE FROM spending_stats WHERE user_id > ? AND user_id <= ?";
+
+    /** Users and expenses read by a rebuild, and (user, category) rows written */
+    public record RebuildResult(int usersScanned, long expensesRead, int statsWritten) {
+    }
+
+    /** One category's statistics, as the amounts they describe */
+    public record CategoryStats(String category, long count, BigDecimal typicalAmount, BigDecimal unusualAbove) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private SyncClock syncClock;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Counter detected;
+
+    @Value("${expenses.anomalies.enabled:true}")
+    private boolean enabled;
+
+    @Value("${expenses.anomalies.window:100}")
+    private int window;
+
+    @Value("${expenses.anomalies.min-samples:10}")
+    private int minSamples;
+
+    @Value("${expenses.anomalies.threshold:3.0}")
+    private double threshold;
+
+    @Value("${expenses.anomalies.min-spread:0.25}")
+    private double minSpread;
+
+    @Value("${expenses.anomalies.rebuild.chunk-size:100}")
+    private int chunkSize;
+
+    public SpendingAnomalyDetector(PlatformTransactionManager transactionManager, MeterRegistry registry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.detected = Counter.builder("expenses.anomalies.detected")
+            .description("Expenses far above the user's usual spending in their category")
+            .register(registry);
+    }
+
+    @Scheduled(cron = "${expenses.anomalies.rebuild.cron:0 0 4 * * SUN}")
+    public void rebuildAllUsers() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Scores a newly added expense against its category, notifying the user
+     * when it is an outlier, then adds it to the statistics; returns true if
+     * it was an outlier
+     */
+    public boolean onAdded(Expense expense) {
+        String category = key(expense.getCategory());
+        double value = observation(expense.getBaseAmount(), expense.getAmount());
+        if (!enabled || expense.getUser() == null || category == null || Double.isNaN(value)) {
+            return false;
+        }
+        Long userId = expense.getUser().getId();
+        long version = changeVersion(expense);
+        RunningStats before = inTransaction(() -> update(userId, category, version, s -> s.plus(value, window)));
+        if (before.count() < minSamples) {
+            return false;
+        }
+        double spread = Math.max(before.standardDeviation(), minSpread);
+        if ((value - before.mean()) / spread < threshold) {
+            return false;
+        }
+        detected.increment();
+        String currency = expense.getBaseCurrency() != null ? expense.getBaseCurrency() : expense.getCurrency();
+        String title = expense.getTitle() != null && !expense.getTitle().isBlank() ? expense.getTitle() : "an expense";
+        notificationService.createNotification(userId, String.format(
+            "📈 Spending Alert: %s for %s is far above your usual %s spending of about %s",
+            Money.format(amount(value), currency), title, expense.getCategory().trim(),
+            Money.format(amount(before.mean()), currency)));
+        return true;
+    }
+
+    /**
+     * Moves an edited expense from its old category and amount to its new ones
+     */
+    public void onUpdated(Expense expense, String oldCategory, BigDecimal oldBaseAmount, BigDecimal oldAmount) {
+        if (!enabled || expense.getUser() == null) {
+            return;
+        }
+        Long userId = expense.getUser().getId();
+        String fromCategory = key(oldCategory);
+        double fromValue = observation(oldBaseAmount, oldAmount);
+        String toCategory = key(expense.getCategory());
+        double toValue = observation(expense.getBaseAmount(), expense.getAmount());
+        if (Objects.equals(fromCategory, toCategory) && Double.compare(fromValue, toValue) == 0) {
+            return;
+        }
+        long version = changeVersion(expense);
+        inTransaction(() -> {
+            if (fromCategory != null && !Double.isNaN(fromValue)) {
+                update(userId, fromCategory, version, s -> s.minus(fromValue, window));
+            }
+            if (toCategory != null && !Double.isNaN(toValue)) {
+                update(userId, toCategory, version, s -> s.plus(toValue, window));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Takes a deleted expense back out; deletedVersion is the change version
+     * of the deleting transaction
+     */
+    public void onDeleted(Expense expense, long deletedVersion) {
+        String category = key(expense.getCategory());
+        double value = observation(expense.getBaseAmount(), expense.getAmount());
+        if (!enabled || expense.getUser() == null || category == null || Double.isNaN(value)) {
+            return;
+        }
+        inTransaction(() -> update(expense.getUser().getId(), category, deletedVersion, s -> s.minus(value, window)));
+    }
+
+    /**
+     * The user's categories with their typical amount (geometric mean) and
+     * the amount above which an expense is reported
+     */
+    public List<CategoryStats> statsFor(Long userId) {
+        return jdbcTemplate.query(SELECT_USER_STATS, (rs, rowNum) -> {
+            RunningStats stats = new RunningStats(rs.getLong("sample_count"), rs.getDouble("mean_log"),
+                rs.getDouble("variance_log"));
+            return new CategoryStats(rs.getString("category"), stats.count(), amount(stats.mean()),
+                amount(stats.mean() + threshold * Math.max(stats.standardDeviation(), minSpread)));
+        }, userId);
+    }
+
+    /**
+     * Recomputes every user's statistics from their expenses
+     */
+    public RebuildResult rebuild() {
+        long started = System.currentTimeMillis();
+        int users = 0;
+        long expenses = 0;
+        int written = 0;
+        long lastUserId = 0;
+        while (true) {
+            List<Long> userIds = jdbcTemplate.queryForList(SELECT_USERS, Long.class, lastUserId, chunkSize);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            long previousUserId = lastUserId;
+            lastUserId = userIds.get(userIds.size() - 1);
+            RebuildResult chunk = rebuildRange(previousUserId, lastUserId);
+            users += userIds.size();
+            expenses += chunk.expensesRead();
+            written += chunk.statsWritten();
+        }
+        // Users after the last one with expenses, including any whose first expense arrived during the rebuild
+        expenses += rebuildRange(lastUserId, Long.MAX_VALUE).expensesRead();
+        System.out.println("Spending stats rebuild: " + written + " categories from " + expenses
+            + " expenses of " + users + " users in " + (System.currentTimeMillis() - started) + " ms");
+        return new RebuildResult(users, expenses, written);
+    }
+
+    /**
+     * Recomputes one user's statistics, after changes too broad to apply one
+     * expense at a time
+     */
+    public RebuildResult rebuildUser(Long userId) {
+        return enabled ? rebuildRange(userId - 1, userId) : new RebuildResult(0, 0, 0);
+    }
+
+    // After the commit the deleting transaction is finished, so writes need one of their own
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onUserDeleted(UserDeletedEvent event) {
+        jdbcTemplate.update(DELETE_USER_RANGE, event.userId() - 1, event.userId());
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onAllDataCleared(AllDataClearedEvent event) {
+        jdbcTemplate.update("DELETE FROM spending_stats");
+    }
+
+    // Users in (afterUserId, lastUserId]: locked, then one streaming read and their rows replaced in one transaction
+    private RebuildResult rebuildRange(long afterUserId, long lastUserId) {
+        return inTransaction(() -> {
+            jdbcTemplate.queryForList(LOCK_USER_RANGE, Long.class, afterUserId, lastUserId);
+            long version = syncClock.highWaterMark();
+            Map<StatsKey, RunningStats> stats = new LinkedHashMap<>();
+            long[] read = {0};
+            jdbcTemplate.query(SELECT_EXPENSES, rs -> {
+                read[0]++;
+                String category = key(rs.getString("category"));
+                double value = observation(rs.getBigDecimal("base_amount"), rs.getBigDecimal("amount"));
+                if (category != null && !Double.isNaN(value)) {
+                    stats.merge(new StatsKey(rs.getLong("user_id"), category), RunningStats.EMPTY.plus(value, window),
+                        (current, ignored) -> current.plus(value, window));
+                }
+            }, afterUserId + 1, lastUserId);
+
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            List<Object[]> inserts = new ArrayList<>(stats.size());
+            stats.forEach((key, s) -> inserts.add(new Object[]{key.userId(), key.category(), s.count(), s.mean(),
+                s.variance(), version, now}));
+            jdbcTemplate.update(DELETE_USER_RANGE, afterUserId, lastUserId);
+            jdbcTemplate.batchUpdate(INSERT_STATS, inserts);
+            return new RebuildResult((int) stats.keySet().stream().mapToLong(StatsKey::userId).distinct().count(),
+                read[0], inserts.size());
+        });
+    }
+
+    // Applies a change made at the given version to one row, with the user locked for the rest of the
+    // transaction; returns the stats before it
+    private RunningStats update(Long userId, String category, long version, UnaryOperator<RunningStats> change) {
+        jdbcTemplate.queryForList(LOCK_USER, Long.class, userId);
+        List<StoredStats> rows = jdbcTemplate.query(SELECT_STATS_FOR_UPDATE, (rs, rowNum) -> new StoredStats(
+            new RunningStats(rs.getLong(1), rs.getDouble(2), rs.getDouble(3)), rs.getLong(4)), userId, category);
+        RunningStats before = rows.isEmpty() ? RunningStats.EMPTY : rows.get(0).stats();
+        if (!rows.isEmpty() && version <= rows.get(0).rebuiltVersion()) {
+            // The rebuild that wrote this row already read the change
+            return before;
+        }
+        RunningStats after = change.apply(before);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        if (after.count() == 0) {
+            jdbcTemplate.update(DELETE_STATS, userId, category);
+        } else if (rows.isEmpty()) {
+            jdbcTemplate.update(INSERT_STATS, userId, category, after.count(), after.mean(), after.variance(), 0L, now);
+        } else {
+            jdbcTemplate.update(UPDATE_STATS, after.count(), after.mean(), after.variance(), now, userId, category);
+        }
+        return before;
+    }
+
+    // A concurrent first write to the same category loses the insert race; the retry finds its row
+    private <T> T inTransaction(Supplier<T> work) {
+        try {
+            return transactionTemplate.execute(status -> work.get());
+        } catch (DuplicateKeyException e) {
+            return transactionTemplate.execute(status -> work.get());
+        }
+    }
+
+    // Expenses saved outside a transaction that stamps them are always applied
+    private static long changeVersion(Expense expense) {
+        return expense.getChangeVersion() != null ? expense.getChangeVersion() : Long.MAX_VALUE;
+    }
+
+    private static String key(String category) {
+        return category == null || category.isBlank() ? null : category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Log of the amount in the user's currency; NaN when there is nothing to measure
+    private static double observation(BigDecimal baseAmount, BigDecimal amount) {
+        BigDecimal value = baseAmount != null ? baseAmount : amount;
+        return value == null || value.signum() <= 0 ? Double.NaN : Math.log(value.doubleValue());
+    }
+
+    private static BigDecimal amount(double logValue) {
+        return BigDecimal.valueOf(Math.exp(logValue)).setScale(Money.MINOR_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private record StatsKey(long userId, String category) {
+    }
+
+    private record StoredStats(RunningStats stats, long rebuiltVersion) {
+    }
+}
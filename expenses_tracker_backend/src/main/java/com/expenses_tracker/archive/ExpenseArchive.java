@@ -0,0 +1,320 @@
+package com.expenses_tracker.archive;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.expenses_tracker.cache.ExpenseColumnStore;
+import com.expenses_tracker.entity.ArchiveSegment;
+import com.expenses_tracker.entity.Expense;
+import com.expenses_tracker.entity.User;
+import com.expenses_tracker.repository.ArchiveSegmentRepository;
+import com.expenses_tracker.repository.ExpenseRepository;
+import com.expenses_tracker.repository.UserRepository;
+import com.expenses_tracker.service.AllDataClearedEvent;
+import com.expenses_tracker.service.ExchangeRateService;
+import com.expenses_tracker.service.UserDeletedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Cold storage for expenses older than the archive horizon.
+ *
+ * Each user's archived expenses live in one GZIP segment file per calendar
+ * year under the archive directory, indexed by the archive_segment table.
+ * Archived rows are read-only; reads merge them with the hot table and
+ * convert their base amounts if the user's preferred currency has changed
+ * since they were archived.
+ *
+ * A user is archived one year at a time, so only that year's rows are in
+ * memory. Each year's merged segment is written to a new file, then the
+ * index is pointed at it and the hot rows deleted in one transaction, then
+ * the replaced file is removed. A crash before the commit leaves the index
+ * on the old file and the rows hot, so nothing is lost or counted twice.
+ *
+ * Since a file is never rewritten in place, decompressed segments are cached
+ * by file name.
+ */
+@Service
+public class ExpenseArchive {
+
+    private static final int DELETE_BATCH = 1000;
+
+    @Autowired
+    private ArchiveSegmentRepository segmentRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExpenseColumnStore columnStore;
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Path directory;
+    private final boolean enabled;
+    private final int horizonMonths;
+    private final Cache<String, byte[]> inflated;
+
+    // Lets reads skip the index lookup entirely until something has been archived
+    private volatile boolean hasSegments = true;
+
+    public ExpenseArchive(PlatformTransactionManager transactionManager,
+                          @Value("${expenses.archive.directory:archive}") String directory,
+                          @Value("${expenses.archive.enabled:false}") boolean enabled,
+                          @Value("${expenses.archive.horizon-months:24}") int horizonMonths,
+                          @Value("${expenses.archive.cache-max-bytes:33554432}") long cacheMaxBytes) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.directory = Paths.get(directory);
+        this.enabled = enabled;
+        this.horizonMonths = horizonMonths;
+        this.inflated = Caffeine.newBuilder()
+            .maximumWeight(cacheMaxBytes)
+            .weigher((String fileName, byte[] bytes) -> bytes.length)
+            .build();
+    }
+
+    @PostConstruct
+    void detectSegments() {
+        hasSegments = segmentRepository.count() > 0;
+    }
+
+    @Scheduled(cron = "${expenses.archive.cron:0 0 3 * * *}")
+    public void archiveOldExpenses() {
+        if (enabled) {
+            archiveBefore(LocalDate.now().minusMonths(horizonMonths).withDayOfMonth(1));
+        }
+    }
+
+    /**
+     * Moves every expense dated before the cutoff into archive segments; returns rows moved
+     */
+    public int archiveBefore(LocalDate cutoff) {
+        List<Long> userIds = expenseRepository.findUserIdsWithExpensesBefore(cutoff);
+        int moved = 0;
+        for (Long userId : userIds) {
+            moved += archiveUser(userId, cutoff);
+        }
+        System.out.println("Archived " + moved + " expenses for " + userIds.size() + " users older than " + cutoff);
+        return moved;
+    }
+
+    private int archiveUser(Long userId, LocalDate cutoff) {
+        LocalDate earliest = expenseRepository.findEarliestDateBefore(userId, cutoff);
+        if (earliest == null) {
+            return 0;
+        }
+        int moved = 0;
+        for (int year = earliest.getYear(); year <= cutoff.minusDays(1).getYear(); year++) {
+            LocalDate from = LocalDate.of(year, 1, 1);
+            LocalDate until = from.plusYears(1).isBefore(cutoff) ? from.plusYears(1) : cutoff;
+            moved += archiveYear(userId, year, expenseRepository.findByUserIdAndDateFromUntil(userId, from, until));
+        }
+        if (moved > 0) {
+            columnStore.invalidate(userId);
+        }
+        return moved;
+    }
+
+    private int archiveYear(Long userId, int year, List<Expense> old) {
+        if (old.isEmpty()) {
+            return 0;
+        }
+
+        ArchiveSegment segment = segmentRepository.findByUserIdAndSegmentYear(userId, year)
+            .orElseGet(ArchiveSegment::new);
+        String previous = segment.getFileName();
+        List<Long> ids = old.stream().map(Expense::getId).collect(Collectors.toList());
+        try {
+            writeSegment(segment, userId, year, old);
+            transactionTemplate.executeWithoutResult(status -> {
+                segmentRepository.save(segment);
+                for (int i = 0; i < ids.size(); i += DELETE_BATCH) {
+                    expenseRepository.deleteAllByIdInBatch(ids.subList(i, Math.min(ids.size(), i + DELETE_BATCH)));
+                }
+            });
+        } catch (RuntimeException e) {
+            // The index still names the previous file, so the new one is unreferenced
+            if (segment.getFileName() != null && !segment.getFileName().equals(previous)) {
+                deleteFile(segment.getFileName());
+            }
+            throw e;
+        }
+        hasSegments = true;
+        if (previous != null) {
+            deleteFile(previous);
+        }
+        return ids.size();
+    }
+
+    // Writes the merged rows to a new file and updates the (unsaved) index entry to match
+    private void writeSegment(ArchiveSegment segment, Long userId, int year, List<Expense> additions) {
+        // Merge with what is already archived; hot rows win on id collisions
+        Map<Long, Expense> merged = new LinkedHashMap<>();
+        if (segment.getId() != null) {
+            for (Expense existing : readFile(segment)) {
+                merged.put(existing.getId(), existing);
+            }
+        }
+        for (Expense expense : additions) {
+            merged.put(expense.getId(), expense);
+        }
+        List<Expense> rows = new ArrayList<>(merged.values());
+        rows.sort(Comparator.comparing(Expense::getDate).thenComparing(Expense::getId));
+
+        String fileName = userId + "/" + year + "-" + System.currentTimeMillis() + ".seg.gz";
+        Path target = directory.resolve(fileName);
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), year + "-", ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                ExpenseSegmentCodec.write(rows, out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write archive segment " + target, e);
+        }
+
+        segment.setUserId(userId);
+        segment.setSegmentYear(year);
+        segment.setFileName(fileName);
+        segment.setRowCount(rows.size());
+        segment.setMinDate(rows.get(0).getDate());
+        segment.setMaxDate(rows.get(rows.size() - 1).getDate());
+        segment.setUpdatedAt(new Timestamp(System.currentTimeMillis()));
+    }
+
+    /**
+     * Archived expenses of one user dated within the range; null bounds are open
+     */
+    public List<Expense> read(Long userId, LocalDate startDate, LocalDate endDate) {
+        if (!hasSegments) {
+            return new ArrayList<>();
+        }
+        return readSegments(segmentRepository.findOverlapping(userId, startDate, endDate), startDate, endDate);
+    }
+
+    /**
+     * Archived expenses of every user dated within the range
+     */
+    public List<Expense> readAllUsers(LocalDate startDate, LocalDate endDate) {
+        if (!hasSegments) {
+            return new ArrayList<>();
+        }
+        return readSegments(segmentRepository.findOverlappingAllUsers(startDate, endDate), startDate, endDate);
+    }
+
+    /**
+     * Removes a user's archive files and index entries
+     */
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onUserDeleted(UserDeletedEvent event) {
+        segmentRepository.findByUserId(event.userId()).forEach(this::deleteSegment);
+    }
+
+    /**
+     * Removes every archive file and index entry
+     */
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onAllDataCleared(AllDataClearedEvent event) {
+        segmentRepository.findAll().forEach(this::deleteSegment);
+        hasSegments = false;
+    }
+
+    private void deleteSegment(ArchiveSegment segment) {
+        deleteFile(segment.getFileName());
+        segmentRepository.delete(segment);
+    }
+
+    private void deleteFile(String fileName) {
+        inflated.invalidate(fileName);
+        try {
+            Files.deleteIfExists(directory.resolve(fileName));
+        } catch (IOException e) {
+            System.err.println("Could not delete archive segment " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    private List<Expense> readSegments(List<ArchiveSegment> segments, LocalDate startDate, LocalDate endDate) {
+        List<Expense> result = new ArrayList<>();
+        Map<Long, String> baseCurrencies = new HashMap<>();
+        for (ArchiveSegment segment : segments) {
+            String baseCurrency = baseCurrencies.computeIfAbsent(segment.getUserId(), this::preferredCurrency);
+            for (Expense expense : readFile(segment)) {
+                LocalDate date = expense.getDate();
+                if ((startDate == null || !date.isBefore(startDate)) && (endDate == null || !date.isAfter(endDate))) {
+                    rebase(expense, baseCurrency);
+                    result.add(expense);
+                }
+            }
+        }
+        return result;
+    }
+
+    private String preferredCurrency(Long userId) {
+        return userRepository.findById(userId).map(User::getPreferredCurrency).orElse(null);
+    }
+
+    // Segments keep the base amounts from when they were written, so totals stay in one currency
+    private void rebase(Expense expense, String baseCurrency) {
+        if (baseCurrency == null || expense.getBaseCurrency() == null
+                || baseCurrency.equalsIgnoreCase(expense.getBaseCurrency())) {
+            return;
+        }
+        String currency = expense.getCurrency() != null ? expense.getCurrency() : expense.getBaseCurrency();
+        expense.setCurrency(currency);
+        expense.setBaseCurrency(baseCurrency);
+        expense.setBaseAmount(exchangeRateService.convert(expense.getAmount(), currency, baseCurrency, expense.getDate()));
+    }
+
+    private List<Expense> readFile(ArchiveSegment segment) {
+        Path file = directory.resolve(segment.getFileName());
+        try {
+            byte[] bytes = inflated.getIfPresent(segment.getFileName());
+            if (bytes == null) {
+                try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+                    bytes = ExpenseSegmentCodec.inflate(in);
+                }
+                inflated.put(segment.getFileName(), bytes);
+            }
+            return ExpenseSegmentCodec.decode(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archive segment " + file, e);
+        }
+    }
+}
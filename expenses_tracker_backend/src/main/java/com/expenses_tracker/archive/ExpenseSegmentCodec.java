@@ -0,0 +1,114 @@
+package com.expenses_tracker.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.expenses_tracker.entity.Expense;
+import com.expenses_tracker.util.Money;
+
+/**
+ * GZIP-compressed binary encoding of an archive segment: a small header
+ * followed by one fixed-order record per expense. Amounts are stored as
+ * minor units and dates as epoch days.
+ */
+final class ExpenseSegmentCodec {
+
+    private static final int MAGIC = 0x45585031; // "EXP1"
+    private static final int VERSION = 1;
+
+    private ExpenseSegmentCodec() {
+    }
+
+    static void write(List<Expense> expenses, OutputStream target) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(target, 64 * 1024);
+        DataOutputStream out = new DataOutputStream(gzip);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(expenses.size());
+        for (Expense e : expenses) {
+            out.writeLong(e.getId());
+            writeString(out, e.getTitle());
+            writeString(out, e.getDescription());
+            out.writeLong(Money.toMinorUnits(e.getAmount()));
+            writeString(out, e.getCurrency());
+            out.writeLong(Money.toMinorUnits(e.getBaseAmount() != null ? e.getBaseAmount() : e.getAmount()));
+            writeString(out, e.getBaseCurrency());
+            out.writeLong(e.getDate().toEpochDay());
+            writeString(out, e.getPaymentMethod());
+            out.writeBoolean(e.isPinned());
+            writeString(out, e.getExpenseType());
+            writeString(out, e.getCategory());
+            out.writeLong(e.getRecurringBillId() != null ? e.getRecurringBillId() : -1L);
+            out.writeLong(e.getBillCycleDate() != null ? e.getBillCycleDate().toEpochDay() : Long.MIN_VALUE);
+        }
+        out.flush();
+        gzip.finish();
+    }
+
+    /**
+     * Decompresses a segment without decoding it, so the bytes can be cached
+     */
+    static byte[] inflate(InputStream source) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(source, 64 * 1024)) {
+            return gzip.readAllBytes();
+        }
+    }
+
+    /**
+     * Decodes the output of inflate into fresh Expense instances
+     */
+    static List<Expense> decode(byte[] inflated) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(inflated));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an expense archive segment");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported archive segment version " + version);
+        }
+        int count = in.readInt();
+        List<Expense> expenses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Expense e = new Expense();
+            e.setId(in.readLong());
+            e.setTitle(readString(in));
+            e.setDescription(readString(in));
+            e.setAmount(Money.fromMinorUnits(in.readLong()));
+            e.setCurrency(readString(in));
+            e.setBaseAmount(Money.fromMinorUnits(in.readLong()));
+            e.setBaseCurrency(readString(in));
+            e.setDate(LocalDate.ofEpochDay(in.readLong()));
+            e.setPaymentMethod(readString(in));
+            e.setPinned(in.readBoolean());
+            e.setExpenseType(readString(in));
+            e.setCategory(readString(in));
+            long billId = in.readLong();
+            e.setRecurringBillId(billId >= 0 ? billId : null);
+            long cycle = in.readLong();
+            e.setBillCycleDate(cycle != Long.MIN_VALUE ? LocalDate.ofEpochDay(cycle) : null);
+            e.setArchived(true);
+            expenses.add(e);
+        }
+        return expenses;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,116 @@
+package com.expenses_tracker.cache;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.expenses_tracker.entity.Budget;
+import com.expenses_tracker.repository.BudgetRepository;
+import com.expenses_tracker.service.AllDataClearedEvent;
+import com.expenses_tracker.service.PreferredCurrencyChangedEvent;
+import com.expenses_tracker.service.UserDeletedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * In-memory index of active budgets: one BudgetIntervalTree per (user,
+ * category), answering "which budgets cover this date" without a query.
+ * Categories are matched trimmed and case-insensitively, as the database
+ * compares them.
+ *
+ * A user's budgets are loaded on first lookup and kept in step by
+ * BudgetController on create, update and delete. Entries expire after a
+ * while so changes made through another instance are picked up.
+ */
+@Component
+public class BudgetIndex {
+
+    private final BudgetRepository budgetRepository;
+    private final Cache<Long, Map<String, BudgetIntervalTree>> users;
+
+    public BudgetIndex(BudgetRepository budgetRepository,
+                       @Value("${expenses.budget-index.max-users:100000}") long maxUsers,
+                       @Value("${expenses.budget-index.ttl-seconds:600}") long ttlSeconds) {
+        this.budgetRepository = budgetRepository;
+        this.users = Caffeine.newBuilder()
+            .maximumSize(maxUsers)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .build();
+    }
+
+    /**
+     * Every budget of the user in the category whose range includes the date
+     */
+    public List<Budget> covering(Long userId, String category, LocalDate date) {
+        if (userId == null || category == null || date == null) {
+            return List.of();
+        }
+        BudgetIntervalTree tree = users.get(userId, this::load).get(key(category));
+        return tree == null ? List.of() : tree.covering(date);
+    }
+
+    private Map<String, BudgetIntervalTree> load(Long userId) {
+        return budgetRepository.findByUserId(userId).stream()
+            .filter(b -> b.getCategory() != null)
+            .collect(Collectors.groupingBy(b -> key(b.getCategory()),
+                Collectors.collectingAndThen(Collectors.toList(), BudgetIntervalTree::of)));
+    }
+
+    /**
+     * Records a created or updated budget; a category change moves it between trees
+     */
+    public void put(Budget budget) {
+        Long userId = budget.getUser().getId();
+        users.asMap().computeIfPresent(userId, (id, byCategory) -> {
+            Map<String, BudgetIntervalTree> next = without(byCategory, budget.getId());
+            if (budget.getCategory() != null) {
+                String category = key(budget.getCategory());
+                next.put(category, next.getOrDefault(category, BudgetIntervalTree.EMPTY).with(budget));
+            }
+            return next;
+        });
+    }
+
+    public void remove(Budget budget) {
+        users.asMap().computeIfPresent(budget.getUser().getId(), (id, byCategory) -> without(byCategory, budget.getId()));
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        users.invalidate(event.userId());
+    }
+
+    // Limits were converted in place; reload them on the next lookup
+    @TransactionalEventListener
+    public void onPreferredCurrencyChanged(PreferredCurrencyChangedEvent event) {
+        users.invalidate(event.userId());
+    }
+
+    @TransactionalEventListener
+    public void onAllDataCleared(AllDataClearedEvent event) {
+        users.invalidateAll();
+    }
+
+    private static String key(String category) {
+        return category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, BudgetIntervalTree> without(Map<String, BudgetIntervalTree> byCategory, Long budgetId) {
+        Map<String, BudgetIntervalTree> next = new HashMap<>();
+        byCategory.forEach((category, tree) -> {
+            BudgetIntervalTree remaining = tree.without(budgetId);
+            if (!remaining.isEmpty()) {
+                next.put(category, remaining);
+            }
+        });
+        return next;
+    }
+}
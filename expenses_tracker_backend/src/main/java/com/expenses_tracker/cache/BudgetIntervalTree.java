@@ -0,0 +1,122 @@
+package com.expenses_tracker.cache;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import com.expenses_tracker.entity.Budget;
+
+/**
+ * Immutable interval tree over the date ranges of one user's budgets in one
+ * category.
+ *
+ * Budgets are sorted by start date and the tree is implicit in that array:
+ * the node for a slice is its middle element, and each node stores the
+ * latest end date in its subtree. A point query skips every subtree ending
+ * before the date and every right subtree starting after it, so it costs
+ * O(log n + k) for k matches. Changes build a new tree (copy-on-write), so
+ * readers never need a lock.
+ */
+final class BudgetIntervalTree {
+
+    static final BudgetIntervalTree EMPTY = new BudgetIntervalTree(new Budget[0]);
+
+    private final Budget[] budgets;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnd;
+
+    private BudgetIntervalTree(Budget[] sorted) {
+        this.budgets = sorted;
+        this.starts = new long[sorted.length];
+        this.ends = new long[sorted.length];
+        this.maxEnd = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            starts[i] = sorted[i].getStartDate().toEpochDay();
+            ends[i] = sorted[i].getEndDate().toEpochDay();
+        }
+        buildMaxEnd(0, sorted.length - 1);
+    }
+
+    static BudgetIntervalTree of(Collection<Budget> budgets) {
+        Budget[] sorted = budgets.stream()
+            .filter(b -> b.getStartDate() != null && b.getEndDate() != null)
+            .sorted(Comparator.comparing(Budget::getStartDate).thenComparing(Budget::getId))
+            .toArray(Budget[]::new);
+        return sorted.length == 0 ? EMPTY : new BudgetIntervalTree(sorted);
+    }
+
+    private long buildMaxEnd(int lo, int hi) {
+        if (lo > hi) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (lo + hi) >>> 1;
+        maxEnd[mid] = Math.max(ends[mid], Math.max(buildMaxEnd(lo, mid - 1), buildMaxEnd(mid + 1, hi)));
+        return maxEnd[mid];
+    }
+
+    /**
+     * Every budget whose range includes the date, in start date order
+     */
+    List<Budget> covering(LocalDate date) {
+        List<Budget> result = new ArrayList<>(2);
+        collect(0, budgets.length - 1, date.toEpochDay(), result);
+        return result;
+    }
+
+    private void collect(int lo, int hi, long day, List<Budget> result) {
+        if (lo > hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (maxEnd[mid] < day) {
+            return;
+        }
+        collect(lo, mid - 1, day, result);
+        if (starts[mid] > day) {
+            return; // this node and everything to its right starts later
+        }
+        if (ends[mid] >= day) {
+            result.add(budgets[mid]);
+        }
+        collect(mid + 1, hi, day, result);
+    }
+
+    /**
+     * A tree with the budget added, replacing any budget with the same id
+     */
+    BudgetIntervalTree with(Budget budget) {
+        List<Budget> next = new ArrayList<>(budgets.length + 1);
+        for (Budget existing : budgets) {
+            if (!Objects.equals(existing.getId(), budget.getId())) {
+                next.add(existing);
+            }
+        }
+        next.add(budget);
+        return of(next);
+    }
+
+    /**
+     * A tree without the budget with this id
+     */
+    BudgetIntervalTree without(Long budgetId) {
+        if (Arrays.stream(budgets).noneMatch(b -> Objects.equals(b.getId(), budgetId))) {
+            return this;
+        }
+        List<Budget> next = new ArrayList<>(budgets.length);
+        for (Budget existing : budgets) {
+            if (!Objects.equals(existing.getId(), budgetId)) {
+                next.add(existing);
+            }
+        }
+        return of(next);
+    }
+
+    boolean isEmpty() {
+        return budgets.length == 0;
+    }
+}
@@ -0,0 +1,61 @@
+package com.expenses_tracker.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-user dictionary that maps a low-cardinality string column (category,
+ * payment method, expense type) to a short code. Lookups are case-insensitive
+ * to match the IgnoreCase repository filters; code 0 is reserved for null.
+ */
+final class ColumnDictionary {
+
+    static final short NULL_CODE = 0;
+    static final short MISSING_CODE = -1;
+
+    private final Map<String, Short> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    ColumnDictionary() {
+        values.add(null);
+    }
+
+    /**
+     * Returns the code for a value, adding it to the dictionary if needed
+     */
+    short encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        String key = value.toLowerCase(Locale.ROOT);
+        Short code = codes.get(key);
+        if (code == null) {
+            if (values.size() > Short.MAX_VALUE) {
+                throw new IllegalStateException("Dictionary is full");
+            }
+            code = (short) values.size();
+            codes.put(key, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    /**
+     * Returns the code for a value without adding it, or MISSING_CODE when
+     * no row can match
+     */
+    short lookup(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Short code = codes.get(value.toLowerCase(Locale.ROOT));
+        return code != null ? code : MISSING_CODE;
+    }
+
+    int size() {
+        return values.size();
+    }
+}
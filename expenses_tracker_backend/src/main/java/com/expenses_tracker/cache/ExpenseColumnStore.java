@@ -0,0 +1,222 @@
+package com.expenses_tracker.cache;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.expenses_tracker.dto.ExpenseFilter;
+import com.expenses_tracker.entity.Expense;
+import com.expenses_tracker.service.AllDataClearedEvent;
+import com.expenses_tracker.service.UserDeletedEvent;
+import com.expenses_tracker.util.Money;
+
+/**
+ * Optional in-process columnar cache of expenses for recently active users.
+ *
+ * A user's segment is loaded on first access and kept in step by the
+ * ExpenseService write path. Changes made inside a transaction are applied
+ * once it commits, so a segment never holds rows that are rolled back.
+ * Segments are evicted least-recently-used first once the configured memory
+ * budget is exceeded.
+ */
+@Component
+public class ExpenseColumnStore {
+
+    // Striped write stamps used to detect a write racing with a segment load
+    private static final int STRIPES = 64;
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final LinkedHashMap<Long, ExpenseColumns> segments = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLongArray writeStamps = new AtomicLongArray(STRIPES);
+    private long usedBytes;
+
+    public ExpenseColumnStore(@Value("${expenses.column-store.enabled:false}") boolean enabled,
+                              @Value("${expenses.column-store.max-bytes:67108864}") long maxBytes) {
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * List a user's expenses matching the filter, newest first
+     */
+    public List<Expense> select(Long userId, ExpenseFilter filter, Supplier<List<Expense>> loader) {
+        return segment(userId, loader).select(filter);
+    }
+
+    /**
+     * Sum a user's expense amounts matching the filter
+     */
+    public BigDecimal sum(Long userId, ExpenseFilter filter, Supplier<List<Expense>> loader) {
+        return Money.fromMinorUnits(segment(userId, loader).sumMinorUnits(filter));
+    }
+
+    /**
+     * Apply a created or updated expense to its user's segment, if loaded
+     */
+    public void onSaved(Expense expense) {
+        if (!enabled || expense.getUser() == null) {
+            return;
+        }
+        afterCommit(() -> applySaved(expense));
+    }
+
+    private void applySaved(Expense expense) {
+        Long userId = expense.getUser().getId();
+        touch(userId);
+        ExpenseColumns columns = loaded(userId);
+        if (columns != null) {
+            long before = columns.estimatedBytes();
+            columns.upsert(expense);
+            resized(userId, columns, columns.estimatedBytes() - before);
+        }
+    }
+
+    /**
+     * Remove a deleted expense from its user's segment, if loaded
+     */
+    public void onDeleted(Expense expense) {
+        if (!enabled || expense.getUser() == null) {
+            return;
+        }
+        afterCommit(() -> applyDeleted(expense));
+    }
+
+    private void applyDeleted(Expense expense) {
+        Long userId = expense.getUser().getId();
+        touch(userId);
+        ExpenseColumns columns = loaded(userId);
+        if (columns != null) {
+            long before = columns.estimatedBytes();
+            columns.remove(expense.getId());
+            resized(userId, columns, columns.estimatedBytes() - before);
+        }
+    }
+
+    /**
+     * Drop a user's segment after a change that bypassed the write path
+     */
+    public void invalidate(Long userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        afterCommit(() -> drop(userId));
+    }
+
+    private void drop(Long userId) {
+        touch(userId);
+        synchronized (this) {
+            ExpenseColumns removed = segments.remove(userId);
+            if (removed != null) {
+                usedBytes -= removed.estimatedBytes();
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        if (enabled) {
+            drop(event.userId());
+        }
+    }
+
+    /**
+     * Drop every segment
+     */
+    @TransactionalEventListener
+    public void onAllDataCleared(AllDataClearedEvent event) {
+        for (int i = 0; i < STRIPES; i++) {
+            writeStamps.incrementAndGet(i);
+        }
+        synchronized (this) {
+            segments.clear();
+            usedBytes = 0;
+        }
+    }
+
+    // A load racing with the transaction either finishes before this runs, and is dropped or patched,
+    // or sees the write stamp move and is not cached
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private ExpenseColumns segment(Long userId, Supplier<List<Expense>> loader) {
+        ExpenseColumns columns = loaded(userId);
+        if (columns != null) {
+            return columns;
+        }
+
+        // Load outside the lock; only cache the result if no write raced with it
+        long stamp = writeStamps.get(stripe(userId));
+        columns = new ExpenseColumns(loader.get());
+        if (writeStamps.get(stripe(userId)) != stamp) {
+            return columns;
+        }
+
+        synchronized (this) {
+            ExpenseColumns existing = segments.get(userId);
+            if (existing != null) {
+                return existing;
+            }
+            segments.put(userId, columns);
+            usedBytes += columns.estimatedBytes();
+            evictOverBudget(userId);
+        }
+        return columns;
+    }
+
+    private synchronized ExpenseColumns loaded(Long userId) {
+        return segments.get(userId);
+    }
+
+    private synchronized void resized(Long userId, ExpenseColumns columns, long delta) {
+        // The segment may have been evicted while it was being updated
+        if (segments.get(userId) == columns) {
+            usedBytes += delta;
+            evictOverBudget(userId);
+        }
+    }
+
+    private void evictOverBudget(Long keep) {
+        Iterator<Map.Entry<Long, ExpenseColumns>> eldest = segments.entrySet().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Long, ExpenseColumns> entry = eldest.next();
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            usedBytes -= entry.getValue().estimatedBytes();
+            eldest.remove();
+        }
+    }
+
+    private void touch(Long userId) {
+        writeStamps.incrementAndGet(stripe(userId));
+    }
+
+    private static int stripe(Long userId) {
+        return (int) (userId & (STRIPES - 1));
+    }
+}
@@ -0,0 +1,233 @@
+package com.expenses_tracker.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.expenses_tracker.dto.ExpenseFilter;
+import com.expenses_tracker.entity.Expense;
+import com.expenses_tracker.util.Money;
+
+/**
+ * Column-oriented copy of one user's expenses.
+ *
+ * Numeric and dictionary-encoded columns live in direct (off-heap) buffers so
+ * filter and sum scans are tight primitive loops. The detached Expense rows are
+ * kept alongside, on heap, only to materialize list results.
+ */
+final class ExpenseColumns {
+
+    // Off-heap bytes per row: id + epoch day + amount + three dictionary codes
+    static final int COLUMN_BYTES_PER_ROW = Long.BYTES + Integer.BYTES + Long.BYTES + 3 * Short.BYTES;
+
+    // Rough heap cost of a detached Expense row plus its index entry
+    static final int ROW_HEAP_ESTIMATE = 320;
+
+    private static final int MIN_CAPACITY = 16;
+    private static final short ANY = Short.MIN_VALUE;
+
+    private final ColumnDictionary categoryDictionary = new ColumnDictionary();
+    private final ColumnDictionary paymentMethodDictionary = new ColumnDictionary();
+    private final ColumnDictionary typeDictionary = new ColumnDictionary();
+    private final Map<Long, Integer> rowById = new HashMap<>();
+
+    private LongBuffer ids;
+    private IntBuffer epochDays;
+    private LongBuffer amounts;
+    private ShortBuffer categories;
+    private ShortBuffer paymentMethods;
+    private ShortBuffer types;
+    private Expense[] rows;
+    private int capacity;
+    private int size;
+
+    ExpenseColumns(List<Expense> expenses) {
+        allocate(Math.max(MIN_CAPACITY, expenses.size()));
+        for (Expense expense : expenses) {
+            upsert(expense);
+        }
+    }
+
+    /**
+     * Inserts a new row or overwrites the existing row with the same id
+     */
+    synchronized void upsert(Expense expense) {
+        Integer existing = rowById.get(expense.getId());
+        int row;
+        if (existing != null) {
+            row = existing;
+        } else {
+            if (size == capacity) {
+                grow();
+            }
+            row = size++;
+            rowById.put(expense.getId(), row);
+        }
+        write(row, expense);
+    }
+
+    /**
+     * Removes a row by moving the last row into its slot
+     */
+    synchronized void remove(Long expenseId) {
+        Integer row = rowById.remove(expenseId);
+        if (row == null) {
+            return;
+        }
+        int last = --size;
+        if (row != last) {
+            ids.put(row, ids.get(last));
+            epochDays.put(row, epochDays.get(last));
+            amounts.put(row, amounts.get(last));
+            categories.put(row, categories.get(last));
+            paymentMethods.put(row, paymentMethods.get(last));
+            types.put(row, types.get(last));
+            rows[row] = rows[last];
+            rowById.put(ids.get(row), row);
+        }
+        rows[last] = null;
+    }
+
+    /**
+     * Returns matching rows ordered by date, newest first
+     */
+    synchronized List<Expense> select(ExpenseFilter filter) {
+        short category = code(categoryDictionary, filter.getCategory());
+        short paymentMethod = code(paymentMethodDictionary, filter.getPaymentMethod());
+        short type = code(typeDictionary, filter.getExpenseType());
+        if (category == ColumnDictionary.MISSING_CODE || paymentMethod == ColumnDictionary.MISSING_CODE
+                || type == ColumnDictionary.MISSING_CODE) {
+            return new ArrayList<>();
+        }
+        int fromDay = fromDay(filter);
+        int toDay = toDay(filter);
+
+        // Branch-free selection: always store the index, only advance on a match
+        int n = size;
+        int[] hits = new int[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int day = epochDays.get(i);
+            boolean match = day >= fromDay & day <= toDay
+                    & (category == ANY | categories.get(i) == category)
+                    & (paymentMethod == ANY | paymentMethods.get(i) == paymentMethod)
+                    & (type == ANY | types.get(i) == type);
+            hits[count] = i;
+            count += match ? 1 : 0;
+        }
+
+        // Sort by (day, row) packed into one long, then walk backwards for newest first
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = ((long) epochDays.get(hits[i]) << 32) | hits[i];
+        }
+        Arrays.sort(keys);
+
+        List<Expense> result = new ArrayList<>(count);
+        for (int i = count - 1; i >= 0; i--) {
+            result.add(rows[(int) keys[i]]);
+        }
+        return result;
+    }
+
+    /**
+     * Sums the base-currency amount column, in minor units, over matching rows
+     */
+    synchronized long sumMinorUnits(ExpenseFilter filter) {
+        short category = code(categoryDictionary, filter.getCategory());
+        short paymentMethod = code(paymentMethodDictionary, filter.getPaymentMethod());
+        short type = code(typeDictionary, filter.getExpenseType());
+        if (category == ColumnDictionary.MISSING_CODE || paymentMethod == ColumnDictionary.MISSING_CODE
+                || type == ColumnDictionary.MISSING_CODE) {
+            return 0L;
+        }
+        int fromDay = fromDay(filter);
+        int toDay = toDay(filter);
+
+        int n = size;
+        long total = 0L;
+        for (int i = 0; i < n; i++) {
+            int day = epochDays.get(i);
+            boolean match = day >= fromDay & day <= toDay
+                    & (category == ANY | categories.get(i) == category)
+                    & (paymentMethod == ANY | paymentMethods.get(i) == paymentMethod)
+                    & (type == ANY | types.get(i) == type);
+            total += match ? amounts.get(i) : 0L;
+        }
+        return total;
+    }
+
+    synchronized long estimatedBytes() {
+        return (long) capacity * COLUMN_BYTES_PER_ROW + (long) size * ROW_HEAP_ESTIMATE;
+    }
+
+    private void write(int row, Expense expense) {
+        LocalDate date = expense.getDate();
+        ids.put(row, expense.getId());
+        epochDays.put(row, date != null ? (int) date.toEpochDay() : Integer.MIN_VALUE);
+        amounts.put(row, Money.toMinorUnits(expense.getBaseAmount()));
+        categories.put(row, categoryDictionary.encode(expense.getCategory()));
+        paymentMethods.put(row, paymentMethodDictionary.encode(expense.getPaymentMethod()));
+        types.put(row, typeDictionary.encode(expense.getExpenseType()));
+        rows[row] = expense;
+    }
+
+    private void allocate(int newCapacity) {
+        LongBuffer newIds = direct(newCapacity * Long.BYTES).asLongBuffer();
+        IntBuffer newDays = direct(newCapacity * Integer.BYTES).asIntBuffer();
+        LongBuffer newAmounts = direct(newCapacity * Long.BYTES).asLongBuffer();
+        ShortBuffer newCategories = direct(newCapacity * Short.BYTES).asShortBuffer();
+        ShortBuffer newPaymentMethods = direct(newCapacity * Short.BYTES).asShortBuffer();
+        ShortBuffer newTypes = direct(newCapacity * Short.BYTES).asShortBuffer();
+        Expense[] newRows = new Expense[newCapacity];
+
+        for (int i = 0; i < size; i++) {
+            newIds.put(i, ids.get(i));
+            newDays.put(i, epochDays.get(i));
+            newAmounts.put(i, amounts.get(i));
+            newCategories.put(i, categories.get(i));
+            newPaymentMethods.put(i, paymentMethods.get(i));
+            newTypes.put(i, types.get(i));
+        }
+        if (rows != null) {
+            System.arraycopy(rows, 0, newRows, 0, size);
+        }
+
+        ids = newIds;
+        epochDays = newDays;
+        amounts = newAmounts;
+        categories = newCategories;
+        paymentMethods = newPaymentMethods;
+        types = newTypes;
+        rows = newRows;
+        capacity = newCapacity;
+    }
+
+    private void grow() {
+        allocate(capacity + (capacity >> 1));
+    }
+
+    private static ByteBuffer direct(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    private static short code(ColumnDictionary dictionary, String value) {
+        return value == null || value.isBlank() ? ANY : dictionary.lookup(value);
+    }
+
+    private static int fromDay(ExpenseFilter filter) {
+        return filter.getStartDate() != null ? (int) filter.getStartDate().toEpochDay() : Integer.MIN_VALUE;
+    }
+
+    private static int toDay(ExpenseFilter filter) {
+        return filter.getEndDate() != null ? (int) filter.getEndDate().toEpochDay() : Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,171 @@
+package com.expenses_tracker.categorizer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.expenses_tracker.entity.Expense;
+import com.expenses_tracker.service.AllDataClearedEvent;
+import com.expenses_tracker.service.UserDeletedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Suggests a category for an expense from the words of its title and
+ * description, using a naive-Bayes model of the user's own history.
+ *
+ * A user's model is built from their categorized expenses on first use and
+ * then trained by the ExpenseService write path as expenses are added,
+ * edited and deleted; bulk changes evict it instead. Models are weighed by
+ * their size, so the cache holds at most max-bytes in total, and each model
+ * is capped at max-features (word, category) counts. Idle models expire,
+ * which also picks up expenses written by another instance.
+ */
+@Component
+public class CategoryClassifier {
+
+    private static final String SELECT_EXAMPLES =
+        "SELECT title, description, category FROM expense WHERE user_id = ? AND category IS NOT NULL";
+
+    private static final int SUGGESTIONS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final double autoFillConfidence;
+    private final int minExamples;
+    private final int maxFeatures;
+    private final Cache<Long, CategoryModel> users;
+    private final Timer suggestTimer;
+
+    public CategoryClassifier(JdbcTemplate jdbcTemplate,
+                              @Value("${expenses.categorizer.enabled:true}") boolean enabled,
+                              @Value("${expenses.categorizer.auto-fill-confidence:0.6}") double autoFillConfidence,
+                              @Value("${expenses.categorizer.min-examples:5}") int minExamples,
+                              @Value("${expenses.categorizer.max-features:2000}") int maxFeatures,
+                              @Value("${expenses.categorizer.max-bytes:67108864}") long maxBytes,
+                              @Value("${expenses.categorizer.idle-seconds:3600}") long idleSeconds,
+                              MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.autoFillConfidence = autoFillConfidence;
+        this.minExamples = minExamples;
+        this.maxFeatures = maxFeatures;
+        this.users = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((Long userId, CategoryModel model) -> model.weigh())
+            .expireAfterAccess(Duration.ofSeconds(idleSeconds))
+            .build();
+        this.suggestTimer = Timer.builder("expenses.categorizer.suggest")
+            .description("Time to suggest a category for an expense")
+            .publishPercentiles(0.5, 0.99)
+            .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Up to three likely categories for an expense of the user, best first
+     */
+    public List<CategorySuggestion> suggest(Long userId, String title, String description) {
+        if (!enabled || userId == null) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        List<CategorySuggestion> suggestions = users.get(userId, this::load).predict(title, description, SUGGESTIONS);
+        suggestTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return suggestions;
+    }
+
+    /**
+     * The category to fill in for an uncategorized expense, or null unless
+     * the user has min-examples categorized expenses and the best suggestion
+     * reaches auto-fill-confidence
+     */
+    public String autoCategory(Long userId, String title, String description) {
+        if (!enabled || userId == null || users.get(userId, this::load).documents() < minExamples) {
+            return null;
+        }
+        List<CategorySuggestion> suggestions = suggest(userId, title, description);
+        return !suggestions.isEmpty() && suggestions.get(0).probability() >= autoFillConfidence
+            ? suggestions.get(0).category()
+            : null;
+    }
+
+    public void onAdded(Expense expense) {
+        if (expense.getUser() != null) {
+            train(expense.getUser().getId(), expense.getTitle(), expense.getDescription(), expense.getCategory());
+        }
+    }
+
+    /**
+     * Moves an edited expense's words from its old category to its new one
+     */
+    public void onUpdated(Expense expense, String oldTitle, String oldDescription, String oldCategory) {
+        if (expense.getUser() == null) {
+            return;
+        }
+        Long userId = expense.getUser().getId();
+        CategoryModel model = users.getIfPresent(userId);
+        if (model != null) {
+            model.untrain(oldTitle, oldDescription, oldCategory);
+            train(userId, expense.getTitle(), expense.getDescription(), expense.getCategory());
+        }
+    }
+
+    public void onDeleted(Expense expense) {
+        if (expense.getUser() == null) {
+            return;
+        }
+        CategoryModel model = users.getIfPresent(expense.getUser().getId());
+        if (model != null) {
+            model.untrain(expense.getTitle(), expense.getDescription(), expense.getCategory());
+        }
+    }
+
+    public void evict(Long userId) {
+        if (userId != null) {
+            users.invalidate(userId);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        evict(event.userId());
+    }
+
+    @TransactionalEventListener
+    public void onAllDataCleared(AllDataClearedEvent event) {
+        users.invalidateAll();
+    }
+
+    // Trains the user's model if loaded; an unloaded one reads this expense when it is built
+    private void train(Long userId, String title, String description, String category) {
+        CategoryModel model = enabled ? users.getIfPresent(userId) : null;
+        if (model == null) {
+            return;
+        }
+        model.train(title, description, category);
+        if (model.outgrewWeight()) {
+            // Re-weighed on replace, so the byte bound tracks growing models
+            users.asMap().replace(userId, model, model);
+        }
+    }
+
+    private CategoryModel load(Long userId) {
+        CategoryModel model = new CategoryModel(maxFeatures);
+        jdbcTemplate.query(SELECT_EXAMPLES,
+            rs -> { model.train(rs.getString("title"), rs.getString("description"), rs.getString("category")); },
+            userId);
+        return model;
+    }
+}
@@ -0,0 +1,245 @@
+package com.expenses_tracker.categorizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * One user's multinomial naive-Bayes model from title and description words
+ * to category, trained one expense at a time.
+ *
+ * Words are hashed to 64 bits and counted per category in primitive maps,
+ * so training and prediction allocate next to nothing. Prediction is
+ * O(categories x words) with Laplace smoothing; words the user has never
+ * used are ignored. When the (word, category) counts outgrow maxFeatures,
+ * every word count is halved, which drops the rarest and lets recent habits
+ * outweigh old ones. Each use of a word counts UNIT, so one seen in the
+ * latest expense survives the next two halvings.
+ */
+final class CategoryModel {
+
+    private static final Pattern NOT_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_TOKENS = 32;
+    private static final int UNIT = 4;
+
+    private final int maxFeatures;
+    // Categories in first-seen order, matched case-insensitively
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> index = new HashMap<>();
+    private int[] docCounts = new int[4];
+    private long[] tokenTotals = new long[4];
+    private LongIntHashMap[] tokenCounts = new LongIntHashMap[4];
+    // Word to the number of categories it has been counted under
+    private LongIntHashMap vocabulary = new LongIntHashMap();
+    private int documents;
+    private int features;
+    private long weighedBytes;
+
+    CategoryModel(int maxFeatures) {
+        this.maxFeatures = maxFeatures;
+    }
+
+    synchronized void train(String title, String description, String category) {
+        int c = categoryIndex(category, true);
+        if (c < 0) {
+            return;
+        }
+        docCounts[c]++;
+        documents++;
+        for (long token : tokens(title, description)) {
+            if (tokenCounts[c].addTo(token, UNIT) == UNIT) {
+                vocabulary.addTo(token, 1);
+                features++;
+            }
+            tokenTotals[c] += UNIT;
+        }
+        if (features > maxFeatures) {
+            decay();
+        }
+    }
+
+    synchronized void untrain(String title, String description, String category) {
+        int c = categoryIndex(category, false);
+        if (c < 0 || docCounts[c] == 0) {
+            return;
+        }
+        docCounts[c]--;
+        documents--;
+        for (long token : tokens(title, description)) {
+            // Counts halved by decay may be smaller than UNIT, or gone
+            int count = tokenCounts[c].get(token);
+            if (count == 0) {
+                continue;
+            }
+            if (tokenCounts[c].addTo(token, -UNIT) == 0) {
+                vocabulary.addTo(token, -1);
+                features--;
+            }
+            tokenTotals[c] -= Math.min(count, UNIT);
+        }
+    }
+
+    /**
+     * The most probable categories, best first, or none when no word of the
+     * expense has been seen before
+     */
+    synchronized List<CategorySuggestion> predict(String title, String description, int limit) {
+        long[] tokens = tokens(title, description);
+        int known = 0;
+        for (long token : tokens) {
+            if (vocabulary.get(token) > 0) {
+                tokens[known++] = token;
+            }
+        }
+        if (known == 0 || documents == 0) {
+            return List.of();
+        }
+
+        int categories = names.size();
+        double[] scores = new double[categories];
+        double best = Double.NEGATIVE_INFINITY;
+        double smoothing = UNIT * (vocabulary.size() + 1.0);
+        for (int c = 0; c < categories; c++) {
+            if (docCounts[c] == 0) {
+                scores[c] = Double.NEGATIVE_INFINITY;
+                continue;
+            }
+            double score = Math.log(docCounts[c]) - known * Math.log(tokenTotals[c] + smoothing);
+            for (int i = 0; i < known; i++) {
+                score += Math.log(tokenCounts[c].get(tokens[i]) + UNIT);
+            }
+            scores[c] = score;
+            best = Math.max(best, score);
+        }
+
+        // Softmax, shifted by the best score so exp cannot overflow
+        double total = 0;
+        for (int c = 0; c < categories; c++) {
+            scores[c] = Math.exp(scores[c] - best);
+            total += scores[c];
+        }
+        Integer[] order = new Integer[categories];
+        for (int c = 0; c < categories; c++) {
+            order[c] = c;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+
+        List<CategorySuggestion> suggestions = new ArrayList<>(limit);
+        for (int i = 0; i < Math.min(limit, categories) && docCounts[order[i]] > 0; i++) {
+            suggestions.add(new CategorySuggestion(names.get(order[i]), scores[order[i]] / total));
+        }
+        return suggestions;
+    }
+
+    synchronized int documents() {
+        return documents;
+    }
+
+    synchronized long estimatedBytes() {
+        long bytes = vocabulary.estimatedBytes() + 64L * names.size() + 128;
+        for (int c = 0; c < names.size(); c++) {
+            bytes += tokenCounts[c].estimatedBytes() + Integer.BYTES + Long.BYTES;
+        }
+        return bytes;
+    }
+
+    /** Size for the cache weigher, remembered so growth can be re-weighed */
+    synchronized int weigh() {
+        weighedBytes = estimatedBytes();
+        return (int) Math.min(Integer.MAX_VALUE, weighedBytes);
+    }
+
+    /** True once the model has doubled in size since it was last weighed */
+    synchronized boolean outgrewWeight() {
+        return estimatedBytes() > 2 * weighedBytes;
+    }
+
+    // Halves word counts until well under the feature cap; category priors are kept
+    private void decay() {
+        while (features > maxFeatures * 3 / 4) {
+            features = 0;
+            for (int c = 0; c < names.size(); c++) {
+                tokenCounts[c].halve();
+                tokenTotals[c] = tokenCounts[c].sum();
+                features += tokenCounts[c].size();
+            }
+        }
+        LongIntHashMap rebuilt = new LongIntHashMap();
+        for (int c = 0; c < names.size(); c++) {
+            tokenCounts[c].forEachKey(token -> rebuilt.addTo(token, 1));
+        }
+        vocabulary = rebuilt;
+    }
+
+    private int categoryIndex(String category, boolean create) {
+        if (category == null || category.isBlank()) {
+            return -1;
+        }
+        String key = category.trim().toLowerCase(Locale.ROOT);
+        Integer c = index.get(key);
+        if (c != null || !create) {
+            return c != null ? c : -1;
+        }
+        c = names.size();
+        if (c == docCounts.length) {
+            docCounts = Arrays.copyOf(docCounts, c * 2);
+            tokenTotals = Arrays.copyOf(tokenTotals, c * 2);
+            tokenCounts = Arrays.copyOf(tokenCounts, c * 2);
+        }
+        names.add(category.trim());
+        index.put(key, c);
+        tokenCounts[c] = new LongIntHashMap();
+        return c;
+    }
+
+    /**
+     * Hashes of the lower-cased words of title and description, skipping
+     * single characters and bare numbers, at most MAX_TOKENS
+     */
+    static long[] tokens(String title, String description) {
+        long[] tokens = new long[MAX_TOKENS];
+        int count = 0;
+        for (String text : new String[]{title, description}) {
+            if (text == null || text.isBlank()) {
+                continue;
+            }
+            for (String word : NOT_WORD.split(text.toLowerCase(Locale.ROOT))) {
+                if (count == MAX_TOKENS) {
+                    break;
+                }
+                if (word.length() > 1 && !isNumber(word)) {
+                    tokens[count++] = hash(word);
+                }
+            }
+        }
+        return Arrays.copyOf(tokens, count);
+    }
+
+    private static boolean isNumber(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (!Character.isDigit(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a, then a murmur finalizer to spread the bits
+    private static long hash(String word) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < word.length(); i++) {
+            h ^= word.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,8 @@
+package com.expenses_tracker.categorizer;
+
+/**
+ * A category the user's model predicts for an expense, with its posterior
+ * probability
+ */
+public record CategorySuggestion(String category, double probability) {
+}
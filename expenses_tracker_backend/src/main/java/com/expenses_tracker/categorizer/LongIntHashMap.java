@@ -0,0 +1,171 @@
+package com.expenses_tracker.categorizer;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Open-addressing map from long keys to int counts, with no boxing: one
+ * long[] of keys and one int[] of values, probed linearly. A count that
+ * falls to zero or below removes its key.
+ *
+ * Key 0 marks an empty slot, so it is stored as 1 instead; callers use
+ * 64-bit hashes, where the collision this adds is negligible. Not
+ * thread-safe; callers synchronize.
+ */
+final class LongIntHashMap {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIntHashMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    int get(long key) {
+        key = nonZero(key);
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            if (keys[i] == 0) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Adds delta to the key's count and returns the new count; the key is
+     * removed once its count is no longer positive
+     */
+    int addTo(long key, int delta) {
+        key = nonZero(key);
+        int i = slot(key);
+        while (keys[i] != 0 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == 0) {
+            if (delta <= 0) {
+                return 0;
+            }
+            keys[i] = key;
+            values[i] = delta;
+            if (++size > (mask + 1) * 3 / 4) {
+                rehash((mask + 1) * 2);
+            }
+            return delta;
+        }
+        int value = values[i] + delta;
+        if (value > 0) {
+            values[i] = value;
+        } else {
+            removeAt(i);
+        }
+        return Math.max(value, 0);
+    }
+
+    /**
+     * Halves every count, dropping the keys left at zero
+     */
+    void halve() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 / 4 < size) {
+            capacity *= 2;
+        }
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0 && oldValues[i] > 1) {
+                insert(oldKeys[i], oldValues[i] >>> 1);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long sum() {
+        long sum = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                sum += values[i];
+            }
+        }
+        return sum;
+    }
+
+    /** Calls action with every key, as stored */
+    void forEachKey(LongConsumer action) {
+        for (long key : keys) {
+            if (key != 0) {
+                action.accept(key);
+            }
+        }
+    }
+
+    long estimatedBytes() {
+        return (long) keys.length * (Long.BYTES + Integer.BYTES) + 48;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    private void removeAt(int hole) {
+        size--;
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            if (keys[i] == 0) {
+                break;
+            }
+            int home = slot(keys[i]);
+            // Move the entry back unless its home lies cyclically in (hole, i]
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        keys[hole] = 0;
+        values[hole] = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void insert(long key, int value) {
+        int i = slot(key);
+        while (keys[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static long nonZero(long key) {
+        return key == 0 ? 1 : key;
+    }
+}
@@ -0,0 +1,196 @@
+package com.expenses_tracker.config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+import com.expenses_tracker.entity.Expense;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes lists of expenses column by column instead of row by row:
+ * <pre>
+ * {"count":2,"columns":{"id":[1,2],"title":["Lunch","Taxi"],...,
+ *   "category":{"codes":[0,0],"dictionary":["Food"]},...}}
+ * </pre>
+ * Field names appear once rather than once per row, and the low-cardinality
+ * string columns are sent as small integer codes into a dictionary that
+ * follows them. Output is streamed with a JsonGenerator, one pass per column.
+ *
+ * Only used when a client asks for it with Accept: application/vnd.expenses.columnar.
+ * The type deliberately has no +json suffix: the Jackson JSON converter
+ * claims every application/*+json type and sits ahead of this one.
+ */
+public class ColumnarExpenseHttpMessageConverter extends AbstractGenericHttpMessageConverter<Collection<Expense>> {
+
+    public static final MediaType COLUMNAR_JSON = MediaType.parseMediaType("application/vnd.expenses.columnar");
+
+    private final JsonFactory jsonFactory;
+
+    public ColumnarExpenseHttpMessageConverter(JsonFactory jsonFactory) {
+        super(COLUMNAR_JSON);
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(@Nullable MediaType mediaType) {
+        return false;
+    }
+
+    // Collections of anything other than expenses fall through to the other converters
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return super.canWrite(type, clazz, mediaType) && type instanceof ParameterizedType parameterized
+            && parameterized.getActualTypeArguments().length == 1
+            && parameterized.getActualTypeArguments()[0] == Expense.class;
+    }
+
+    @Override
+    protected void writeInternal(Collection<Expense> expenses, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        write(expenses, outputMessage.getBody());
+    }
+
+    @Override
+    public Collection<Expense> read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar expense lists are write-only", inputMessage);
+    }
+
+    @Override
+    protected Collection<Expense> readInternal(Class<? extends Collection<Expense>> clazz,
+                                               HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar expense lists are write-only", inputMessage);
+    }
+
+    /**
+     * Streams the columnar layout of the given expenses to the output
+     */
+    public void write(Collection<Expense> expenses, OutputStream out) throws IOException {
+        List<Expense> rows = expenses instanceof List<Expense> list ? list : new ArrayList<>(expenses);
+        try (JsonGenerator json = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeNumberField("count", rows.size());
+            json.writeObjectFieldStart("columns");
+            longColumn(json, "id", rows, Expense::getId);
+            stringColumn(json, "title", rows, Expense::getTitle);
+            stringColumn(json, "description", rows, Expense::getDescription);
+            decimalColumn(json, "amount", rows, Expense::getAmount);
+            dictionaryColumn(json, "currency", rows, Expense::getCurrency);
+            decimalColumn(json, "baseAmount", rows, Expense::getBaseAmount);
+            dictionaryColumn(json, "baseCurrency", rows, Expense::getBaseCurrency);
+            dateColumn(json, "date", rows, Expense::getDate);
+            dictionaryColumn(json, "paymentMethod", rows, Expense::getPaymentMethod);
+            dictionaryColumn(json, "category", rows, Expense::getCategory);
+            dictionaryColumn(json, "expenseType", rows, Expense::getExpenseType);
+            json.writeArrayFieldStart("pinned");
+            for (Expense expense : rows) {
+                json.writeBoolean(expense.isPinned());
+            }
+            json.writeEndArray();
+            longColumn(json, "recurringBillId", rows, Expense::getRecurringBillId);
+            dateColumn(json, "billCycleDate", rows, Expense::getBillCycleDate);
+            longColumn(json, "changeVersion", rows, Expense::getChangeVersion);
+            json.writeArrayFieldStart("archived");
+            for (Expense expense : rows) {
+                json.writeBoolean(expense.isArchived());
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+    }
+
+    private static void longColumn(JsonGenerator json, String name, List<Expense> rows,
+                                   Function<Expense, Long> getter) throws IOException {
+        json.writeArrayFieldStart(name);
+        for (Expense expense : rows) {
+            Long value = getter.apply(expense);
+            if (value == null) {
+                json.writeNull();
+            } else {
+                json.writeNumber(value);
+            }
+        }
+        json.writeEndArray();
+    }
+
+    private static void decimalColumn(JsonGenerator json, String name, List<Expense> rows,
+                                      Function<Expense, BigDecimal> getter) throws IOException {
+        json.writeArrayFieldStart(name);
+        for (Expense expense : rows) {
+            BigDecimal value = getter.apply(expense);
+            if (value == null) {
+                json.writeNull();
+            } else {
+                json.writeNumber(value);
+            }
+        }
+        json.writeEndArray();
+    }
+
+    private static void stringColumn(JsonGenerator json, String name, List<Expense> rows,
+                                     Function<Expense, String> getter) throws IOException {
+        json.writeArrayFieldStart(name);
+        for (Expense expense : rows) {
+            json.writeString(getter.apply(expense));
+        }
+        json.writeEndArray();
+    }
+
+    private static void dateColumn(JsonGenerator json, String name, List<Expense> rows,
+                                   Function<Expense, LocalDate> getter) throws IOException {
+        json.writeArrayFieldStart(name);
+        for (Expense expense : rows) {
+            LocalDate value = getter.apply(expense);
+            json.writeString(value != null ? value.toString() : null);
+        }
+        json.writeEndArray();
+    }
+
+    // Codes are written as the dictionary is built, so a single pass suffices; -1 stands for null
+    private static void dictionaryColumn(JsonGenerator json, String name, List<Expense> rows,
+                                         Function<Expense, String> getter) throws IOException {
+        Map<String, Integer> codes = new LinkedHashMap<>();
+        json.writeObjectFieldStart(name);
+        json.writeArrayFieldStart("codes");
+        for (Expense expense : rows) {
+            String value = getter.apply(expense);
+            json.writeNumber(value == null ? -1 : codes.computeIfAbsent(value, v -> codes.size()));
+        }
+        json.writeEndArray();
+        json.writeArrayFieldStart("dictionary");
+        for (String value : codes.keySet()) {
+            json.writeString(value);
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+}
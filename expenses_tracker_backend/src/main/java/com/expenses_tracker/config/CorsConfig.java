@@ -27,10 +27,10 @@ public class CorsConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH", "HEAD")); // Added HEAD
 
         // Allow necessary headers (safer than "*")
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Cache-Control", "Content-Type", "Origin", "Accept", "X-Requested-With"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Cache-Control", "Content-Type", "Origin", "Accept", "X-Requested-With", "If-None-Match"));
 
         // Expose headers that frontend can read (if needed, e.g., for JWT in headers)
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "Set-Cookie")); // Keep if you use Set-Cookie
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Set-Cookie", "ETag")); // Keep if you use Set-Cookie
 
         // How long the browser can cache preflight responses
         configuration.setMaxAge(3600L); // 1 hour
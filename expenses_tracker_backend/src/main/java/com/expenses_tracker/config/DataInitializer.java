@@ -11,6 +11,7 @@ import com.expenses_tracker.entity.Role;
 import com.expenses_tracker.entity.User;
 import com.expenses_tracker.repository.RoleRepository;
 import com.expenses_tracker.repository.UserRepository;
+import com.expenses_tracker.service.ReferenceDataService;
 
 @Component
 public class DataInitializer implements CommandLineRunner {
@@ -18,13 +19,16 @@ public class DataInitializer implements CommandLineRunner {
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ReferenceDataService referenceDataService;
 
     public DataInitializer(RoleRepository roleRepository,
                            UserRepository userRepository,
-                           PasswordEncoder passwordEncoder) {
+                           PasswordEncoder passwordEncoder,
+                           ReferenceDataService referenceDataService) {
         this.roleRepository = roleRepository;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.referenceDataService = referenceDataService;
     }
 
     @Override
@@ -39,7 +43,8 @@ public class DataInitializer implements CommandLineRunner {
     }
 
     private void addRoleIfNotExists(ERole roleName) {
-        if (roleRepository.findByName(roleName).isEmpty()) {
+        // Goes through the cache so a role that already exists is cached for registrations
+        if (referenceDataService.findRole(roleName) == null) {
             Role newRole = new Role();
             newRole.setName(roleName);
             roleRepository.save(newRole);
@@ -57,8 +62,10 @@ public class DataInitializer implements CommandLineRunner {
             // ✅ Always encode the password
             admin.setPassword(passwordEncoder.encode("admin123"));
             
-            Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
-                    .orElseThrow(() -> new RuntimeException("Admin role not found"));
+            Role adminRole = referenceDataService.findRole(ERole.ROLE_ADMIN);
+            if (adminRole == null) {
+                throw new RuntimeException("Admin role not found");
+            }
             admin.getRoles().add(adminRole);
 
             // Optional: set defaults for rupee currency, dark mode, etc.
@@ -0,0 +1,42 @@
+package com.expenses_tracker.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Wraps the application DataSource in a ConcurrencyLimitingDataSource when
+ * expenses.db-limiter.enabled is set (on by default in the "virtual" profile).
+ */
+@Configuration
+@ConditionalOnProperty(name = "expenses.db-limiter.enabled", havingValue = "true")
+public class DataSourceLimiterConfig {
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(Environment environment,
+                                                                              ObjectProvider<MeterRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Only the application-facing DataSource, not pools behind a router
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource)
+                        || bean instanceof ConcurrencyLimitingDataSource) {
+                    return bean;
+                }
+                int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                int maxConcurrency = environment.getProperty("expenses.db-limiter.max-concurrency", Integer.class, poolSize);
+                long timeout = environment.getProperty("expenses.db-limiter.acquire-timeout-ms", Long.class, 120000L);
+                System.out.println("Limiting database access to " + maxConcurrency + " concurrent connections");
+                return new ConcurrencyLimitingDataSource((DataSource) bean, maxConcurrency, timeout,
+                    registry.getObject());
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package com.expenses_tracker.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Measures replication lag by writing a heartbeat timestamp to the primary
+ * and reading it back from the replica. The replica is only used while the
+ * last successful check found it within maxLagMillis.
+ */
+public class ReplicationLagMonitor {
+
+    private static final String UPDATE_BEAT = "UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1";
+    private static final String INSERT_BEAT = "INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)";
+    private static final String READ_BEAT = "SELECT beat_at FROM replica_heartbeat WHERE id = 1";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+
+    // Start on the primary until the first check proves the replica is current
+    private volatile boolean replicaUsable;
+    private volatile long lastLagMillis = -1;
+    private volatile long lastWritten;
+
+    public ReplicationLagMonitor(DataSource primary, DataSource replica, long maxLagMillis) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public long getLastLagMillis() {
+        return lastLagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.heartbeat-interval-ms:1000}")
+    public void check() {
+        // Read the replica before writing the next beat: if it already has the
+        // last beat we wrote it is caught up, otherwise it is at least as far
+        // behind as that beat's age
+        try {
+            Long beat = replica.query(READ_BEAT, rs -> rs.next() ? rs.getLong(1) : null);
+            if (beat == null) {
+                markUnusable(-1, "no heartbeat on replica yet");
+            } else if (lastWritten == 0) {
+                // Nothing written by this instance yet, so the beat's age proves nothing
+                markUnusable(-1, "waiting for first heartbeat");
+            } else {
+                long lag = beat >= lastWritten ? 0 : Math.max(0, System.currentTimeMillis() - beat);
+                if (lag > maxLagMillis) {
+                    markUnusable(lag, "replica is " + lag + " ms behind");
+                } else {
+                    lastLagMillis = lag;
+                    replicaUsable = true;
+                }
+            }
+        } catch (Exception e) {
+            markUnusable(-1, "replica unreachable: " + e.getMessage());
+        }
+
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update(UPDATE_BEAT, now) == 0) {
+                primary.update(INSERT_BEAT, now);
+            }
+            lastWritten = now;
+        } catch (Exception e) {
+            System.err.println("Could not write replica heartbeat: " + e.getMessage());
+        }
+    }
+
+    private void markUnusable(long lag, String reason) {
+        if (replicaUsable) {
+            System.out.println("Routing reads to primary: " + reason);
+        }
+        lastLagMillis = lag;
+        replicaUsable = false;
+    }
+}
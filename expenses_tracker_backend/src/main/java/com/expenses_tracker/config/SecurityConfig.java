@@ -1,7 +1,9 @@
 package com.expenses_tracker.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -11,10 +13,15 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import com.expenses_tracker.security.RehashingBCryptPasswordEncoder;
+import com.expenses_tracker.security.TokenAuthenticationFilter;
+import com.expenses_tracker.security.TokenService;
 
 import jakarta.servlet.http.HttpServletResponse; // <-- NEW IMPORT
 
@@ -23,9 +30,14 @@ import jakarta.servlet.http.HttpServletResponse; // <-- NEW IMPORT
 public class SecurityConfig {
 
     private final UserDetailsService userDetailsService;
+    private final TokenService tokenService;
+    private final int bcryptStrength;
 
-    public SecurityConfig(UserDetailsService userDetailsService) {
+    public SecurityConfig(UserDetailsService userDetailsService, TokenService tokenService,
+                          @Value("${expenses.auth.bcrypt-strength:10}") int bcryptStrength) {
         this.userDetailsService = userDetailsService;
+        this.tokenService = tokenService;
+        this.bcryptStrength = bcryptStrength;
     }
 
     @Bean
@@ -48,6 +60,11 @@ public class SecurityConfig {
                     "/js/**",
                     "/static/**" // Might be needed for React's static assets
                 ).permitAll()
+                // Health is public for container checks; other actuator endpoints are admin-only
+                .requestMatchers("/actuator/health").permitAll()
+                // Photos are addressed by the SHA-256 of their content, so URLs cannot be guessed
+                .requestMatchers(HttpMethod.GET, "/api/photos/**").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 // Example role-based restrictions (adjust as needed)
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .requestMatchers("/api/user/**").hasRole("USER")
@@ -60,11 +77,6 @@ public class SecurityConfig {
                     res.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Unauthorized")
                 )
             )
-            // Configure session management (IF_REQUIRED is okay for session cookies)
-            .sessionManagement(session -> session
-                .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED)
-                .maximumSessions(1) // Prevent concurrent logins
-            )
             // Disable default form login
             .formLogin(AbstractHttpConfigurer::disable)
             // Configure logout behavior
@@ -75,6 +87,19 @@ public class SecurityConfig {
                 .deleteCookies("JSESSIONID") // Delete session cookie
             );
 
+        if (tokenService.isStateless()) {
+            // Signed bearer tokens: no session, so any node can serve any request
+            http
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(new TokenAuthenticationFilter(tokenService), UsernamePasswordAuthenticationFilter.class);
+        } else {
+            // Configure session management (IF_REQUIRED is okay for session cookies)
+            http.sessionManagement(session -> session
+                .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED)
+                .maximumSessions(1) // Prevent concurrent logins
+            );
+        }
+
         return http.build();
     }
     // --- BEAN TO CONFIGURE CORS ---
@@ -86,6 +111,9 @@ public class SecurityConfig {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService); // Service to load user details
         provider.setPasswordEncoder(passwordEncoder()); // Password encoder
+        if (userDetailsService instanceof UserDetailsPasswordService passwordService) {
+            provider.setUserDetailsPasswordService(passwordService); // Rehash on login when the cost factor changes
+        }
         return provider;
     }
 
@@ -98,6 +126,6 @@ public class SecurityConfig {
     // --- Password Encoder Bean ---
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(); // Use BCrypt for strong password hashing
+        return new RehashingBCryptPasswordEncoder(bcryptStrength); // Use BCrypt for strong password hashing
     }
 }
\ No newline at end of file
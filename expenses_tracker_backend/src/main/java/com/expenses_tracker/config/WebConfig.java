@@ -1,11 +1,18 @@
 package com.expenses_tracker.config;
 
+import java.util.List;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.expenses_tracker.ratelimit.RateLimitInterceptor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 @Configuration
 public class WebConfig {
 
@@ -18,15 +25,38 @@ public class WebConfig {
                         .allowedOrigins("http://localhost:3000") // Allow your frontend
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS") // Allow all methods
                         .allowedHeaders("*") // Allow all headers
+                        .exposedHeaders("ETag") // Let the client revalidate cached lists
                         .allowCredentials(true); // THIS IS THE KEY
             }
             
             @Override
             public void addResourceHandlers(ResourceHandlerRegistry registry) {
-                // Serve uploaded profile photos
+                // Profile photos uploaded before content-addressed storage (see PhotoController)
                 registry.addResourceHandler("/uploads/**")
                         .addResourceLocations("file:uploads/");
             }
         };
     }
+
+    @Bean
+    public WebMvcConfigurer responseEncodingConfigurer(ObjectMapper objectMapper) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                // Last, so plain JSON stays the default; CBOR and Smile are registered by Spring MVC
+                converters.add(new ColumnarExpenseHttpMessageConverter(objectMapper.getFactory()));
+            }
+        };
+    }
+
+    @Bean
+    public WebMvcConfigurer rateLimitConfigurer(RateLimitInterceptor rateLimitInterceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                // Only handlers annotated with @RateLimited are charged
+                registry.addInterceptor(rateLimitInterceptor).addPathPatterns("/api/**");
+            }
+        };
+    }
 }
@@ -4,9 +4,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -26,8 +24,13 @@ import com.expenses_tracker.dto.RegisterRequest;
 import com.expenses_tracker.entity.ERole;
 import com.expenses_tracker.entity.Role;
 import com.expenses_tracker.entity.User;
-import com.expenses_tracker.repository.RoleRepository;
 import com.expenses_tracker.repository.UserRepository;
+import com.expenses_tracker.security.CustomUserDetails;
+import com.expenses_tracker.security.LoginAdmissionService;
+import com.expenses_tracker.security.LoginRejectedException;
+import com.expenses_tracker.security.TokenService;
+import com.expenses_tracker.service.ReferenceDataService;
+import com.expenses_tracker.service.UserAccountService;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
@@ -38,20 +41,26 @@ import jakarta.servlet.http.HttpSession;
 public class AuthController {
 
     // --- These are your class fields, they must be declared here ---
-    private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ReferenceDataService referenceDataService;
+    private final UserAccountService userAccountService;
+    private final TokenService tokenService;
+    private final LoginAdmissionService loginAdmission;
 
     // --- This is your constructor ---
-    public AuthController(AuthenticationManager authenticationManager,
-                          UserRepository userRepository,
-                          RoleRepository roleRepository,
-                          PasswordEncoder passwordEncoder) {
-        this.authenticationManager = authenticationManager;
+    public AuthController(UserRepository userRepository,
+                          PasswordEncoder passwordEncoder,
+                          ReferenceDataService referenceDataService,
+                          UserAccountService userAccountService,
+                          TokenService tokenService,
+                          LoginAdmissionService loginAdmission) {
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.referenceDataService = referenceDataService;
+        this.userAccountService = userAccountService;
+        this.tokenService = tokenService;
+        this.loginAdmission = loginAdmission;
     }
 
     // --- This is your helper method ---
@@ -88,16 +97,17 @@ public class AuthController {
      */
     @DeleteMapping("/me") // <-- THIS ANNOTATION WAS MISSING
     public ResponseEntity<?> deleteCurrentUser(@AuthenticationPrincipal UserDetails currentUser) {
+        User user;
         try {
-            User user = getCurrentUser(currentUser);
-            
-            userRepository.delete(user);
-            SecurityContextHolder.clearContext();
-            
-            return ResponseEntity.ok(Map.of("message", "User account deleted successfully."));
+            user = getCurrentUser(currentUser);
         } catch (RuntimeException e) {
             return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
         }
+
+        userAccountService.deleteUser(user);
+        SecurityContextHolder.clearContext();
+
+        return ResponseEntity.ok(Map.of("message", "User account deleted successfully."));
     }
 
     // --- This is your register method ---
@@ -117,8 +127,10 @@ public class AuthController {
             ? ERole.ROLE_ADMIN 
             : ERole.ROLE_USER;
 
-        Role userRole = roleRepository.findByName(roleName)
-                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
+        Role userRole = referenceDataService.findRole(roleName);
+        if (userRole == null) {
+            throw new RuntimeException("Error: Role is not found.");
+        }
         user.getRoles().add(userRole);
 
         userRepository.save(user);
@@ -132,11 +144,27 @@ public class AuthController {
         try {
             System.out.println("Login attempt for user: " + request.getUsername());
             
-            Authentication auth = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-            );
+            Authentication auth = loginAdmission.authenticate(request.getUsername(), request.getPassword(), req);
 
             System.out.println("Authentication successful for: " + request.getUsername());
+
+            UserDetails principal = (UserDetails) auth.getPrincipal();
+
+            List<String> roles = principal.getAuthorities().stream()
+                .map(a -> a.getAuthority())
+                .toList();
+
+            if (tokenService.isStateless()) {
+                // Stateless mode: no session, the client sends the token back as a bearer header
+                String token = tokenService.issue(((CustomUserDetails) principal).getId(), principal.getUsername(), roles);
+                return ResponseEntity.ok(Map.of(
+                    "roles", roles,
+                    "username", request.getUsername(),
+                    "token", token,
+                    "tokenType", "Bearer",
+                    "expiresIn", tokenService.getExpirationMillis() / 1000
+                ));
+            }
             
             SecurityContextHolder.getContext().setAuthentication(auth);
             
@@ -145,16 +173,15 @@ public class AuthController {
             
             System.out.println("Session created with ID: " + session.getId());
 
-            UserDetails principal = (UserDetails) auth.getPrincipal();
-
-            List<String> roles = principal.getAuthorities().stream()
-                .map(a -> a.getAuthority())
-                .toList();
-
             return ResponseEntity.ok(Map.of(
                 "roles", roles,
                 "username", request.getUsername()
             ));
+        } catch (LoginRejectedException ex) {
+            System.err.println("Login rejected for user: " + request.getUsername() + " - " + ex.getMessage());
+            return ResponseEntity.status(ex.getStatus())
+                .header("Retry-After", String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("error", ex.getMessage()));
         } catch (BadCredentialsException ex) {
             System.err.println("Login failed for user: " + request.getUsername() + " - Bad credentials");
             return ResponseEntity.status(401).body(Map.of("error", "Invalid username or password"));
@@ -4,9 +4,9 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,13 +18,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.expenses_tracker.cache.BudgetIndex;
 import com.expenses_tracker.entity.Budget;
-import com.expenses_tracker.entity.Expense;
 import com.expenses_tracker.entity.User;
+import com.expenses_tracker.ratelimit.RateLimited;
 import com.expenses_tracker.repository.BudgetRepository;
-import com.expenses_tracker.repository.ExpenseRepository;
 import com.expenses_tracker.repository.UserRepository;
-import com.expenses_tracker.service.NotificationService;
+import com.expenses_tracker.service.BudgetSweepService;
 
 @RestController
 @RequestMapping("/api/budgets")
@@ -38,10 +38,10 @@ public class BudgetController {
     private UserRepository userRepository;
 
     @Autowired
-    private ExpenseRepository expenseRepository;
-    
+    private BudgetIndex budgetIndex;
+
     @Autowired
-    private NotificationService notificationService;
+    private BudgetSweepService budgetSweepService;
 
     /**
      * Create a new budget
@@ -66,13 +66,17 @@ public class BudgetController {
         budget.setEndDate(LocalDate.parse((String) budgetRequest.get("endDate")));
         budget.setUser(user);
         
-        return budgetRepository.save(budget);
+        Budget saved = budgetRepository.save(budget);
+        budgetIndex.put(saved);
+        return saved;
     }
 
     /**
      * Get all budgets for a specific user
      */
     @GetMapping("/user/{userId}")
+    @RateLimited(cost = 1)
+    @Transactional(readOnly = true)
     public List<Budget> getBudgetsByUserId(@PathVariable Long userId) {
         return budgetRepository.findByUserId(userId);
     }
@@ -81,6 +85,7 @@ public class BudgetController {
      * Get all budgets
      */
     @GetMapping
+    @Transactional(readOnly = true)
     public List<Budget> getAllBudgets() {
         return budgetRepository.findAll();
     }
@@ -89,6 +94,7 @@ public class BudgetController {
      * Get budget by ID
      */
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     public Budget getBudgetById(@PathVariable Long id) {
         return budgetRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Budget not found with id: " + id));
@@ -107,26 +113,23 @@ public class BudgetController {
         existingBudget.setStartDate(budgetDetails.getStartDate());
         existingBudget.setEndDate(budgetDetails.getEndDate());
 
-        return budgetRepository.save(existingBudget);
+        Budget saved = budgetRepository.save(existingBudget);
+        budgetIndex.put(saved);
+        return saved;
     }
 
     /**
      * Get actual spending for a specific budget
      */
     @GetMapping("/{id}/spending")
+    @Transactional(readOnly = true)
     public BigDecimal getBudgetSpending(@PathVariable Long id) {
         Budget budget = budgetRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Budget not found with id: " + id));
         
-        // Get all expenses for this category and date range
-        List<Expense> expenses = expenseRepository.findByUserId(budget.getUser().getId());
-        
-        return expenses.stream()
-            .filter(e -> e.getCategory().equals(budget.getCategory()))
-            .filter(e -> !e.getDate().isBefore(budget.getStartDate()))
-            .filter(e -> !e.getDate().isAfter(budget.getEndDate()))
-            .map(Expense::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Sum in the database with the same query the budget alerts use
+        return budgetRepository.calculateTotalSpendingByUserAndCategory(
+            budget.getUser().getId(), budget.getCategory(), budget.getStartDate(), budget.getEndDate());
     }
 
     /**
@@ -137,22 +140,23 @@ public class BudgetController {
         Budget budget = budgetRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Budget not found with id: " + id));
         budgetRepository.delete(budget);
+        budgetIndex.remove(budget);
     }
 
     /**
-     * Get active budget for a user and category
+     * Get every budget of a user and category covering today
      */
     @GetMapping("/active/user/{userId}/category/{category}")
-    public Optional<Budget> getActiveBudgetByUserAndCategory(@PathVariable Long userId, 
-                                                             @PathVariable String category) {
-        LocalDate today = LocalDate.now();
-        return budgetRepository.findActiveBudgetByUserAndCategory(userId, category, today);
+    public List<Budget> getActiveBudgetsByUserAndCategory(@PathVariable Long userId,
+                                                          @PathVariable String category) {
+        return budgetIndex.covering(userId, category, LocalDate.now());
     }
 
     /**
      * Calculate total spending for a user and category within a date range
      */
     @GetMapping("/spending/user/{userId}/category/{category}")
+    @Transactional(readOnly = true)
     public BigDecimal getTotalSpendingByUserAndCategory(@PathVariable Long userId, 
                                                         @PathVariable String category,
                                                         @RequestParam String startDate,
@@ -163,48 +167,16 @@ public class BudgetController {
     }
     
     /**
-     * Check all budgets for a user and create notifications for over-limit budgets
+     * Check a user's active budgets now and create notifications for over-limit budgets
      */
     @PostMapping("/check-alerts/user/{userId}")
+    @RateLimited(cost = 20)
     public Map<String, Object> checkBudgetAlerts(@PathVariable Long userId) {
-        List<Budget> userBudgets = budgetRepository.findByUserId(userId);
-        int alertsCreated = 0;
-        int budgetsChecked = 0;
-        
-        for (Budget budget : userBudgets) {
-            budgetsChecked++;
-            
-            // Calculate total spending for this budget
-            BigDecimal totalSpending = budgetRepository.calculateTotalSpendingByUserAndCategory(
-                userId, budget.getCategory(), budget.getStartDate(), budget.getEndDate());
-            
-            // Calculate remaining budget
-            BigDecimal remainingBudget = budget.getLimitAmount().subtract(totalSpending);
-            
-            // Check if budget exceeded (Over Limit - 100%+)
-            if (remainingBudget.compareTo(BigDecimal.ZERO) <= 0) {
-                String message = String.format("🚨 Budget Alert: You have exceeded your %s budget of ₹%.2f! Current spending: ₹%.2f", 
-                    budget.getCategory(), budget.getLimitAmount(), totalSpending);
-                
-                // Create notification for over limit
-                notificationService.createNotification(userId, message);
-                alertsCreated++;
-            }
-            // Check if spending exceeds 90% of budget limit (Approaching limit)
-            else {
-                BigDecimal threshold = budget.getLimitAmount().multiply(new BigDecimal("0.9"));
-                
-                if (totalSpending.compareTo(threshold) > 0) {
-                    String message = String.format("⚠️ Budget Alert: You have only ₹%.2f left in your %s budget!", 
-                        remainingBudget, budget.getCategory());
-                    
-                    // Create notification for approaching limit
-                    notificationService.createNotification(userId, message);
-                    alertsCreated++;
-                }
-            }
-        }
-        
+        // One grouped query for the user's active budgets; normally the scheduled sweep does this
+        BudgetSweepService.SweepResult result = budgetSweepService.sweepUser(userId, LocalDate.now());
+        int alertsCreated = result.alertsCreated();
+        int budgetsChecked = result.budgetsChecked();
+
         return Map.of(
             "budgetsChecked", budgetsChecked,
             "alertsCreated", alertsCreated,
@@ -1,9 +1,11 @@
 package com.expenses_tracker.controller;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,23 +17,36 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.expenses_tracker.dto.CategoryList;
 import com.expenses_tracker.entity.Category;
 import com.expenses_tracker.repository.CategoryRepository;
+import com.expenses_tracker.service.ReferenceDataService;
 
 @RestController
 @RequestMapping("/api/categories")
 @CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
 public class CategoryController {
 
+    // Clients may reuse the list briefly, then must revalidate with the ETag
+    private static final CacheControl CATEGORY_CACHE_CONTROL =
+        CacheControl.maxAge(Duration.ofSeconds(60)).cachePrivate().mustRevalidate();
+
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
     /**
-     * Get all categories
+     * Get all categories; Spring answers a matching If-None-Match with 304 and no body
      */
     @GetMapping
-    public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+    public ResponseEntity<List<Category>> getAllCategories() {
+        CategoryList snapshot = referenceDataService.getCategories();
+        return ResponseEntity.ok()
+            .eTag(snapshot.getEtag())
+            .cacheControl(CATEGORY_CACHE_CONTROL)
+            .body(snapshot.getCategories());
     }
 
     /**
@@ -56,7 +71,7 @@ public class CategoryController {
                     .body(Map.of("error", "Category with this name already exists"));
             }
 
-            Category savedCategory = categoryRepository.save(category);
+            Category savedCategory = referenceDataService.saveCategory(category);
             return ResponseEntity.status(201).body(savedCategory);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -84,7 +99,7 @@ public class CategoryController {
             existingCategory.setDescription(categoryDetails.getDescription());
             existingCategory.setIcon(categoryDetails.getIcon());
 
-            Category updatedCategory = categoryRepository.save(existingCategory);
+            Category updatedCategory = referenceDataService.saveCategory(existingCategory);
             return ResponseEntity.ok(updatedCategory);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -101,7 +116,7 @@ public class CategoryController {
             Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
             
-            categoryRepository.delete(category);
+            referenceDataService.deleteCategory(category);
             return ResponseEntity.ok(Map.of("message", "Category deleted successfully"));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
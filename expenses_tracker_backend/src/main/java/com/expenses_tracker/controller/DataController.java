@@ -15,6 +15,7 @@ import com.expenses_tracker.entity.Expense;
 import com.expenses_tracker.entity.User;
 import com.expenses_tracker.repository.ExpenseRepository;
 import com.expenses_tracker.repository.UserRepository;
+import com.expenses_tracker.service.UserAccountService;
 
 @RestController
 @RequestMapping("/api/data")
@@ -27,6 +28,9 @@ public class DataController {
     @Autowired
     private ExpenseRepository expenseRepository;
 
+    @Autowired
+    private UserAccountService userAccountService;
+
     // Initialize sample data for testing
     @PostMapping("/init")
     public String initializeSampleData() {
@@ -101,8 +105,7 @@ public class DataController {
     // Clear all data
     @DeleteMapping("/clear")
     public String clearAllData() {
-        expenseRepository.deleteAll();
-        userRepository.deleteAll();
+        userAccountService.clearAllData();
         return "All data cleared successfully!";
     }
 
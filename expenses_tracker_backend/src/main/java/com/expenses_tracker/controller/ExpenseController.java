@@ -1,15 +1,19 @@
 package com.expenses_tracker.controller;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -19,8 +23,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.expenses_tracker.anomaly.SpendingAnomalyDetector;
+import com.expenses_tracker.categorizer.CategoryClassifier;
+import com.expenses_tracker.categorizer.CategorySuggestion;
+import com.expenses_tracker.dto.BulkExpenseRequest;
+import com.expenses_tracker.dto.ExpenseFilter;
+import com.expenses_tracker.duplicates.DuplicateExpenseException;
+import com.expenses_tracker.duplicates.DuplicateScanService;
 import com.expenses_tracker.entity.Expense;
 import com.expenses_tracker.entity.User;
+import com.expenses_tracker.ratelimit.RateLimited;
 import com.expenses_tracker.repository.UserRepository;
 import com.expenses_tracker.service.ExpenseService;
 
@@ -35,18 +47,35 @@ public class ExpenseController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private DuplicateScanService duplicateScanService;
+
+    @Autowired
+    private CategoryClassifier categoryClassifier;
+
+    @Autowired
+    private SpendingAnomalyDetector spendingAnomalies;
+
+    /**
+     * A likely duplicate of an earlier expense is flagged through duplicateOfId,
+     * or refused with 409 when expenses.duplicates.mode=reject; resend with
+     * allowDuplicate=true to save it anyway
+     */
     @PostMapping
-    public Expense addExpense(@RequestBody Expense expense, @AuthenticationPrincipal UserDetails currentUser) {
+    public Expense addExpense(@RequestBody Expense expense,
+                              @RequestParam(defaultValue = "false") boolean allowDuplicate,
+                              @AuthenticationPrincipal UserDetails currentUser) {
         User user = getUserFromDetails(currentUser);
         System.out.println("DEBUG: Adding expense for user: " + user.getUsername() + " (ID: " + user.getId() + ")");
         System.out.println("DEBUG: Expense details - Title: " + expense.getTitle() + ", Amount: " + expense.getAmount());
         expense.setUser(user);
-        Expense saved = expenseService.addExpense(expense);
+        Expense saved = expenseService.addExpense(expense, allowDuplicate);
         System.out.println("DEBUG: Expense saved with ID: " + saved.getId());
         return saved;
     }
 
     @GetMapping
+    @RateLimited(cost = 1)
     public List<Expense> getAllExpenses(@AuthenticationPrincipal UserDetails currentUser) {
         User user = getUserFromDetails(currentUser);
         System.out.println("DEBUG: Fetching expenses for user: " + user.getUsername() + " (ID: " + user.getId() + ")");
@@ -82,22 +111,59 @@ public class ExpenseController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Move a set of the current user's expenses to another category
+     */
+    @PostMapping("/bulk/recategorize")
+    @RateLimited(cost = 5)
+    public Map<String, Integer> recategorizeExpenses(@RequestBody BulkExpenseRequest request,
+                                                     @AuthenticationPrincipal UserDetails currentUser) {
+        User user = getUserFromDetails(currentUser);
+        return Map.of("updated", expenseService.recategorizeExpenses(user.getId(), request.getIds(), request.getCategory()));
+    }
+
+    /**
+     * Delete a set of the current user's expenses
+     */
+    @PostMapping("/bulk/delete")
+    @RateLimited(cost = 5)
+    public Map<String, Integer> deleteExpenses(@RequestBody BulkExpenseRequest request,
+                                               @AuthenticationPrincipal UserDetails currentUser) {
+        User user = getUserFromDetails(currentUser);
+        return Map.of("deleted", expenseService.deleteExpenses(user.getId(), request.getIds()));
+    }
+
+    /**
+     * Pin (or with "pinned": false, unpin) a set of the current user's expenses
+     */
+    @PostMapping("/bulk/pin")
+    @RateLimited(cost = 5)
+    public Map<String, Integer> pinExpenses(@RequestBody BulkExpenseRequest request,
+                                            @AuthenticationPrincipal UserDetails currentUser) {
+        User user = getUserFromDetails(currentUser);
+        return Map.of("updated", expenseService.pinExpenses(user.getId(), request.getIds(), request.isPinned()));
+    }
+
     @GetMapping("/search")
+    @RateLimited(cost = 10)
     public List<Expense> searchExpenses(@RequestParam String keyword) {
         return expenseService.searchByKeyword(keyword);
     }
 
     @GetMapping("/filter/category")
+    @RateLimited(cost = 10)
     public List<Expense> filterByCategory(@RequestParam String category) {
         return expenseService.filterByCategory(category);
     }
 
     @GetMapping("/filter/payment-method")
+    @RateLimited(cost = 10)
     public List<Expense> filterByPaymentMethod(@RequestParam String paymentMethod) {
         return expenseService.filterByPaymentMethod(paymentMethod);
     }
 
     @GetMapping("/filter/date-range")
+    @RateLimited(cost = 10)
     public List<Expense> filterByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
@@ -105,10 +171,73 @@ public class ExpenseController {
     }
 
     @GetMapping("/filter/type-category")
+    @RateLimited(cost = 10)
     public List<Expense> filterByTypeAndCategory(@RequestParam String expenseType, @RequestParam String category) {
         return expenseService.filterByTypeAndCategory(expenseType, category);
     }
 
+    /**
+     * Filter the current user's expenses by any combination of category,
+     * payment method, type and date range
+     */
+    @GetMapping("/filter")
+    @RateLimited(cost = 2)
+    public List<Expense> filterUserExpenses(ExpenseFilter filter, @AuthenticationPrincipal UserDetails currentUser) {
+        User user = getUserFromDetails(currentUser);
+        return expenseService.filterUserExpenses(user.getId(), filter);
+    }
+
+    /**
+     * Total of the current user's expenses matching the same criteria as /filter
+     */
+    @GetMapping("/total")
+    @RateLimited(cost = 2)
+    public BigDecimal sumUserExpenses(ExpenseFilter filter, @AuthenticationPrincipal UserDetails currentUser) {
+        User user = getUserFromDetails(currentUser);
+        return expenseService.sumUserExpenses(user.getId(), filter);
+    }
+
+    /**
+     * Sets of the current user's expenses with the same amount and title
+     * entered a day apart or less, most recent first
+     */
+    @GetMapping("/duplicates")
+    @RateLimited(cost = 10)
+    public List<DuplicateScanService.DuplicateSet> findDuplicates(@AuthenticationPrincipal UserDetails currentUser) {
+        User user = getUserFromDetails(currentUser);
+        return duplicateScanService.scanUser(user.getId());
+    }
+
+    /**
+     * Likely categories for an expense with this title and description,
+     * learned from the current user's own expenses, best first
+     */
+    @GetMapping("/suggest-category")
+    @RateLimited(cost = 1)
+    public List<CategorySuggestion> suggestCategory(@RequestParam(required = false) String title,
+                                                    @RequestParam(required = false) String description,
+                                                    @AuthenticationPrincipal UserDetails currentUser) {
+        User user = getUserFromDetails(currentUser);
+        return categoryClassifier.suggest(user.getId(), title, description);
+    }
+
+    /**
+     * The current user's typical amount per category, and the amount above
+     * which a new expense in it is reported as unusual
+     */
+    @GetMapping("/spending-stats")
+    @RateLimited(cost = 1)
+    public List<SpendingAnomalyDetector.CategoryStats> getSpendingStats(@AuthenticationPrincipal UserDetails currentUser) {
+        User user = getUserFromDetails(currentUser);
+        return spendingAnomalies.statsFor(user.getId());
+    }
+
+    @ExceptionHandler(DuplicateExpenseException.class)
+    public ResponseEntity<Map<String, Object>> handleDuplicate(DuplicateExpenseException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", e.getMessage(), "duplicateOfId", e.getDuplicateOfId()));
+    }
+
     private User getUserFromDetails(UserDetails userDetails) {
         if (userDetails == null) {
             throw new RuntimeException("User not authenticated");
@@ -0,0 +1,165 @@
+package com.expenses_tracker.controller;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.expenses_tracker.dto.GroupExpenseRequest;
+import com.expenses_tracker.entity.ExpenseGroup;
+import com.expenses_tracker.entity.GroupExpense;
+import com.expenses_tracker.entity.GroupMember;
+import com.expenses_tracker.repository.UserRepository;
+import com.expenses_tracker.security.CustomUserDetails;
+import com.expenses_tracker.service.GroupService;
+import com.expenses_tracker.service.SettleUp;
+
+/**
+ * Groups of the current user. Every endpoint requires membership of the
+ * group; balances are positive when the group owes the member.
+ */
+@RestController
+@RequestMapping("/api/groups")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class GroupController {
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @GetMapping
+    public List<ExpenseGroup> getUserGroups(@AuthenticationPrincipal UserDetails currentUser) {
+        return groupService.getUserGroups(getUserIdFromDetails(currentUser));
+    }
+
+    /**
+     * Body: name, description. The creator becomes the first member.
+     */
+    @PostMapping
+    public ExpenseGroup createGroup(@RequestBody Map<String, String> request,
+                                    @AuthenticationPrincipal UserDetails currentUser) {
+        return groupService.createGroup(getUserIdFromDetails(currentUser),
+            request.get("name"), request.get("description"));
+    }
+
+    @GetMapping("/{groupId}")
+    public ExpenseGroup getGroup(@PathVariable Long groupId, @AuthenticationPrincipal UserDetails currentUser) {
+        return groupService.getGroup(groupId, getUserIdFromDetails(currentUser));
+    }
+
+    @DeleteMapping("/{groupId}")
+    public ResponseEntity<Void> deleteGroup(@PathVariable Long groupId, @AuthenticationPrincipal UserDetails currentUser) {
+        groupService.deleteGroup(groupId, getUserIdFromDetails(currentUser));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Body: array of user ids
+     */
+    @PostMapping("/{groupId}/members")
+    public ExpenseGroup addMembers(@PathVariable Long groupId, @RequestBody List<Long> userIds,
+                                   @AuthenticationPrincipal UserDetails currentUser) {
+        return groupService.addMembers(groupId, getUserIdFromDetails(currentUser), userIds);
+    }
+
+    @DeleteMapping("/{groupId}/members/{userId}")
+    public ResponseEntity<Void> removeMember(@PathVariable Long groupId, @PathVariable Long userId,
+                                             @AuthenticationPrincipal UserDetails currentUser) {
+        groupService.removeMember(groupId, getUserIdFromDetails(currentUser), userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{groupId}/expenses")
+    public GroupExpense addExpense(@PathVariable Long groupId, @RequestBody GroupExpenseRequest request,
+                                   @AuthenticationPrincipal UserDetails currentUser) {
+        return groupService.addExpense(groupId, getUserIdFromDetails(currentUser), request);
+    }
+
+    /**
+     * Newest first; pass the last id of a page as beforeId for the next one
+     */
+    @GetMapping("/{groupId}/expenses")
+    public List<GroupExpense> getExpenses(@PathVariable Long groupId,
+                                          @RequestParam(required = false) Long beforeId,
+                                          @RequestParam(required = false) Integer limit,
+                                          @AuthenticationPrincipal UserDetails currentUser) {
+        return groupService.getExpenses(groupId, getUserIdFromDetails(currentUser), beforeId, limit);
+    }
+
+    @DeleteMapping("/{groupId}/expenses/{expenseId}")
+    public ResponseEntity<Void> deleteExpense(@PathVariable Long groupId, @PathVariable Long expenseId,
+                                              @AuthenticationPrincipal UserDetails currentUser) {
+        groupService.deleteExpense(groupId, getUserIdFromDetails(currentUser), expenseId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{groupId}/balances")
+    public List<GroupMember> getBalances(@PathVariable Long groupId, @AuthenticationPrincipal UserDetails currentUser) {
+        return groupService.getBalances(groupId, getUserIdFromDetails(currentUser));
+    }
+
+    /**
+     * Suggested payments that clear every balance; nothing is recorded
+     */
+    @GetMapping("/{groupId}/settle-up")
+    public List<SettleUp.Transfer> getSettleUp(@PathVariable Long groupId, @AuthenticationPrincipal UserDetails currentUser) {
+        return groupService.getSettleUp(groupId, getUserIdFromDetails(currentUser));
+    }
+
+    /**
+     * Body: fromUserId, toUserId, amount
+     */
+    @PostMapping("/{groupId}/settlements")
+    public GroupExpense recordSettlement(@PathVariable Long groupId, @RequestBody Map<String, Object> request,
+                                         @AuthenticationPrincipal UserDetails currentUser) {
+        Object from = request.get("fromUserId");
+        Object to = request.get("toUserId");
+        Object amount = request.get("amount");
+        if (from == null || to == null || amount == null) {
+            throw new IllegalArgumentException("fromUserId, toUserId and amount are required");
+        }
+        return groupService.recordSettlement(groupId, getUserIdFromDetails(currentUser),
+            Long.valueOf(from.toString()), Long.valueOf(to.toString()), new BigDecimal(amount.toString()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    // Answered here: left to propagate, it would be dispatched to /error, which anonymous requests cannot reach
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<Map<String, String>> handleAccessDenied(AccessDeniedException e) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
+    }
+
+    private Long getUserIdFromDetails(UserDetails userDetails) {
+        if (userDetails == null) {
+            throw new RuntimeException("User not authenticated");
+        }
+        if (userDetails instanceof CustomUserDetails) {
+            return ((CustomUserDetails) userDetails).getId();
+        }
+        return userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("Authenticated user not found in database"))
+                .getId();
+    }
+}
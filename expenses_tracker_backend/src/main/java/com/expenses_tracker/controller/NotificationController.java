@@ -1,13 +1,16 @@
 package com.expenses_tracker.controller;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -26,6 +29,7 @@ public class NotificationController {
      * Get all notifications for a specific user
      */
     @GetMapping("/{userId}")
+    @Transactional(readOnly = true)
     public List<Notification> getNotificationsByUserId(@PathVariable Long userId) {
         return notificationService.getNotificationsByUserId(userId);
     }
@@ -34,10 +38,19 @@ public class NotificationController {
      * Get all unread notifications for a specific user
      */
     @GetMapping("/{userId}/unread")
+    @Transactional(readOnly = true)
     public List<Notification> getUnreadNotificationsByUserId(@PathVariable Long userId) {
         return notificationService.getUnreadNotificationsByUserId(userId);
     }
 
+    /**
+     * Number of unread notifications for a user, for the navbar badge
+     */
+    @GetMapping("/{userId}/unread-count")
+    public Map<String, Long> getUnreadCount(@PathVariable Long userId) {
+        return Map.of("count", notificationService.getUnreadCount(userId));
+    }
+
     /**
      * Mark a specific notification as read
      */
@@ -58,8 +71,16 @@ public class NotificationController {
      * Mark all notifications as read for a user
      */
     @PostMapping("/{userId}/mark-all-read")
-    public void markAllNotificationsAsRead(@PathVariable Long userId) {
-        notificationService.markAllNotificationsAsRead(userId);
+    public Map<String, Integer> markAllNotificationsAsRead(@PathVariable Long userId) {
+        return Map.of("updated", notificationService.markAllNotificationsAsRead(userId));
+    }
+
+    /**
+     * Mark a set of a user's notifications as read in one statement
+     */
+    @PostMapping("/user/{userId}/mark-read")
+    public Map<String, Integer> markNotificationsAsRead(@PathVariable Long userId, @RequestBody List<Long> notificationIds) {
+        return Map.of("updated", notificationService.markNotificationsAsRead(userId, notificationIds));
     }
 
     /**
@@ -74,7 +95,7 @@ public class NotificationController {
      * Delete all notifications for a user
      */
     @DeleteMapping("/user/{userId}/delete-all")
-    public void deleteAllNotifications(@PathVariable Long userId) {
-        notificationService.deleteAllNotifications(userId);
+    public Map<String, Integer> deleteAllNotifications(@PathVariable Long userId) {
+        return Map.of("deleted", notificationService.deleteAllNotifications(userId));
     }
 }
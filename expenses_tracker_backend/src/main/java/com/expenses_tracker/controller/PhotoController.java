@@ -0,0 +1,127 @@
+package com.expenses_tracker.controller;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.expenses_tracker.photo.PhotoStore;
+import com.expenses_tracker.photo.PhotoThumbnailer;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves stored photos by content hash. A given URL always returns the same
+ * bytes, so responses carry a strong ETag and may be cached for a year.
+ *
+ * The file is handed to Tomcat's sendfile (FileChannel.transferTo into the
+ * socket, no copy through the heap) when the connector supports it, and
+ * otherwise copied from a FileChannel into the response.
+ */
+@RestController
+@RequestMapping("/api/photos")
+public class PhotoController {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String IMMUTABLE =
+        CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable().getHeaderValue();
+
+    // Stand-in for a thumbnail not generated yet; the URL will later return the thumbnail
+    private static final String NOT_FINAL = CacheControl.noCache().getHeaderValue();
+
+    @Autowired
+    private PhotoStore photoStore;
+
+    @Autowired
+    private PhotoThumbnailer thumbnailer;
+
+    /**
+     * The original upload, or with ?size= one of its square thumbnails
+     */
+    @GetMapping("/{name}")
+    public void getPhoto(@PathVariable String name,
+                         @RequestParam(required = false) Integer size,
+                         @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        Path original = photoStore.original(name);
+        // Status only, no error dispatch: /error is not open to anonymous requests
+        if (original == null || !Files.isRegularFile(original)) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (size != null && !photoStore.getThumbnailSizes().contains(size)) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.setContentType("text/plain");
+            response.getWriter().write("size must be one of " + photoStore.getThumbnailSizes());
+            return;
+        }
+
+        String hash = name.substring(0, name.indexOf('.'));
+        Path file = original;
+        String etag = "\"" + hash + "\"";
+        String cacheControl = IMMUTABLE;
+        if (size != null) {
+            Path thumbnail = photoStore.thumbnail(name, size);
+            if (Files.isRegularFile(thumbnail)) {
+                file = thumbnail;
+                etag = "\"" + hash + "-" + size + "\"";
+            } else if (Files.exists(photoStore.thumbnailFailure(name))) {
+                // No thumbnail can be made (WebP, say), so the original is the final answer
+            } else {
+                // Still being generated, or lost: regenerate, and serve the original meanwhile
+                thumbnailer.generate(name);
+                cacheControl = NOT_FINAL;
+            }
+        }
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (ifNoneMatch != null && (ifNoneMatch.equals(etag) || ifNoneMatch.equals("W/" + etag))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setContentType(PhotoStore.contentType(file));
+        transfer(file, request, response);
+    }
+
+    private static void transfer(Path file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long length = Files.size(file);
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < length) {
+                position += channel.transferTo(position, length - position, out);
+            }
+        }
+    }
+}
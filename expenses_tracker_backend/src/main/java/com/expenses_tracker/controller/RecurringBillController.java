@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,6 +22,7 @@ import com.expenses_tracker.entity.User;
 import com.expenses_tracker.repository.RecurringBillRepository;
 import com.expenses_tracker.repository.UserRepository;
 import com.expenses_tracker.service.NotificationService;
+import com.expenses_tracker.util.Money;
 
 @RestController
 @RequestMapping("/api/recurring-bills")
@@ -85,6 +87,7 @@ public class RecurringBillController {
      * Get all recurring bills for a specific user
      */
     @GetMapping("/user/{userId}")
+    @Transactional(readOnly = true)
     public List<RecurringBill> getRecurringBillsByUserId(@PathVariable Long userId) {
         return recurringBillRepository.findByUserId(userId);
     }
@@ -93,6 +96,7 @@ public class RecurringBillController {
      * Get all recurring bills
      */
     @GetMapping
+    @Transactional(readOnly = true)
     public List<RecurringBill> getAllRecurringBills() {
         return recurringBillRepository.findAll();
     }
@@ -101,6 +105,7 @@ public class RecurringBillController {
      * Get recurring bill by ID
      */
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     public RecurringBill getRecurringBillById(@PathVariable Long id) {
         return recurringBillRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Recurring bill not found with id: " + id));
@@ -184,11 +189,11 @@ public class RecurringBillController {
             LocalDate today = LocalDate.now();
             long daysUntilDue = java.time.temporal.ChronoUnit.DAYS.between(today, dueDate);
             
-            String message = String.format("Bill Alert: %s is now due in %d days (Due: %s). Amount: ₹%.2f",
+            String message = String.format("Bill Alert: %s is now due in %d days (Due: %s). Amount: %s",
                 bill.getName() != null ? bill.getName() : "Bill",
                 daysUntilDue,
                 dueDate.toString(),
-                bill.getAmount());
+                Money.format(bill.getAmount(), bill.getUser().getPreferredCurrency()));
             
             notificationService.createNotification(bill.getUser().getId(), message);
         }
@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.expenses_tracker.ratelimit.RateLimited;
 import com.expenses_tracker.repository.UserRepository;
 import com.expenses_tracker.service.ReportService;
 
@@ -35,6 +36,7 @@ public class ReportController {
      * Generate user expense report in specified format
      */
     @GetMapping("/user/{userId}")
+    @RateLimited(cost = 50)
     public ResponseEntity<?> generateUserReport(@PathVariable Long userId,
                                               @RequestParam String format,
                                               @AuthenticationPrincipal UserDetails currentUser) {
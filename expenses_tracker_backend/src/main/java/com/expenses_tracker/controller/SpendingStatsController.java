@@ -0,0 +1,27 @@
+package com.expenses_tracker.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.expenses_tracker.anomaly.SpendingAnomalyDetector;
+
+@RestController
+@RequestMapping("/api/admin/spending-stats")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class SpendingStatsController {
+
+    @Autowired
+    private SpendingAnomalyDetector spendingAnomalies;
+
+    /**
+     * Recomputes every user's per-category spending statistics from their
+     * expenses, as the weekly job does
+     */
+    @PostMapping("/rebuild")
+    public SpendingAnomalyDetector.RebuildResult rebuild() {
+        return spendingAnomalies.rebuild();
+    }
+}
@@ -0,0 +1,52 @@
+package com.expenses_tracker.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.expenses_tracker.dto.SyncResponse;
+import com.expenses_tracker.ratelimit.RateLimited;
+import com.expenses_tracker.repository.UserRepository;
+import com.expenses_tracker.security.CustomUserDetails;
+import com.expenses_tracker.service.SyncService;
+
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * The current user's expenses, budgets, bills and notifications changed
+     * after version since, plus deletes. Pass the returned highWaterMark as
+     * since on the next call; since=0 returns everything.
+     */
+    @GetMapping
+    @RateLimited(cost = 5)
+    public SyncResponse sync(@RequestParam(defaultValue = "0") long since,
+                             @AuthenticationPrincipal UserDetails currentUser) {
+        return syncService.changesSince(getUserIdFromDetails(currentUser), since);
+    }
+
+    private Long getUserIdFromDetails(UserDetails userDetails) {
+        if (userDetails == null) {
+            throw new RuntimeException("User not authenticated");
+        }
+        if (userDetails instanceof CustomUserDetails) {
+            return ((CustomUserDetails) userDetails).getId();
+        }
+        return userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("Authenticated user not found in database"))
+                .getId();
+    }
+}
@@ -1,12 +1,7 @@
 package com.expenses_tracker.controller;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.List;
-import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -23,7 +18,12 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.expenses_tracker.entity.User;
+import com.expenses_tracker.photo.PhotoStore;
+import com.expenses_tracker.photo.PhotoThumbnailer;
 import com.expenses_tracker.repository.UserRepository;
+import com.expenses_tracker.service.ExpenseService;
+import com.expenses_tracker.service.ReferenceDataService;
+import com.expenses_tracker.service.UserAccountService;
 
 @RestController
 @RequestMapping("/api/users")
@@ -33,6 +33,21 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private PhotoStore photoStore;
+
+    @Autowired
+    private PhotoThumbnailer thumbnailer;
+
     // CREATE: Add a new user
     @PostMapping
     public User addUser(@RequestBody User user) {
@@ -84,6 +99,7 @@ public class UserController {
         existingUser.setDarkMode(userDetails.isDarkMode());
         
         // Update preferredCurrency if provided
+        String previousCurrency = existingUser.getPreferredCurrency();
         if (userDetails.getPreferredCurrency() != null) {
             existingUser.setPreferredCurrency(userDetails.getPreferredCurrency());
         }
@@ -96,7 +112,10 @@ public class UserController {
             existingUser.setProfilePhotoUrl(userDetails.getProfilePhotoUrl());
         }
         
-        return userRepository.save(existingUser);
+        // Stored expenses, budget limits and bill amounts are re-converted into a new currency in the same transaction
+        User savedUser = expenseService.saveUserWithCurrency(existingUser, previousCurrency);
+        referenceDataService.evictPreferences(savedUser.getId());
+        return savedUser;
     }
     
     // UPLOAD: Upload profile photo
@@ -114,29 +133,18 @@ public class UserController {
                 return ResponseEntity.badRequest().body("Only image files are allowed");
             }
             
-            // Create uploads directory if it doesn't exist
-            String uploadDir = "uploads/profile-photos/";
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
+            // Stored once per content hash; thumbnails follow in the background
+            String name = photoStore.store(file);
+            if (name == null) {
+                return ResponseEntity.badRequest().body("Only JPEG, PNG, GIF and WebP images are allowed");
             }
-            
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = originalFilename != null && originalFilename.contains(".") 
-                ? originalFilename.substring(originalFilename.lastIndexOf("."))
-                : ".jpg";
-            String filename = "user_" + id + "_" + UUID.randomUUID().toString() + fileExtension;
-            
-            // Save file
-            Path filePath = uploadPath.resolve(filename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            thumbnailer.generate(name);
             
             // Update user profile photo URL
             User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
             
-            String photoUrl = "/uploads/profile-photos/" + filename;
+            String photoUrl = "/api/photos/" + name;
             user.setProfilePhotoUrl(photoUrl);
             userRepository.save(user);
             
@@ -171,6 +179,6 @@ public class UserController {
     public void deleteUser(@PathVariable Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
-        userRepository.delete(user);
+        userAccountService.deleteUser(user);
     }
 }
@@ -16,6 +16,9 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.expenses_tracker.entity.User;
 import com.expenses_tracker.repository.UserRepository;
+import com.expenses_tracker.security.CustomUserDetails;
+import com.expenses_tracker.service.ExpenseService;
+import com.expenses_tracker.service.ReferenceDataService;
 
 @RestController
 @RequestMapping("/api/users")
@@ -25,6 +28,12 @@ public class UserPreferencesController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
     /**
      * Get user preferences
      */
@@ -32,24 +41,13 @@ public class UserPreferencesController {
     public ResponseEntity<?> getUserPreferences(@PathVariable Long id,
                                                @AuthenticationPrincipal UserDetails currentUser) {
         try {
-            User currentUserEntity = getUserFromDetails(currentUser);
-            
-            // Check if user is accessing their own preferences or is admin
-            if (!currentUserEntity.getId().equals(id) && 
-                !currentUserEntity.getRoles().stream().anyMatch(role -> role.getName().name().equals("ROLE_ADMIN"))) {
+            // Check if user is accessing their own preferences or is admin, using the
+            // authenticated principal rather than another database read
+            if (!getUserIdFromDetails(currentUser).equals(id) && !isAdmin(currentUser)) {
                 return ResponseEntity.status(403).body(Map.of("error", "Access denied"));
             }
             
-            User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            Map<String, Object> preferences = Map.of(
-                "darkMode", user.isDarkMode(),
-                "accessibilityMode", user.isAccessibilityMode(),
-                "preferredCurrency", user.getPreferredCurrency()
-            );
-            
-            return ResponseEntity.ok(preferences);
+            return ResponseEntity.ok(referenceDataService.getPreferences(id));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -83,6 +81,7 @@ public class UserPreferencesController {
                 user.setAccessibilityMode((Boolean) preferences.get("accessibilityMode"));
             }
             
+            String previousCurrency = user.getPreferredCurrency();
             if (preferences.containsKey("preferredCurrency")) {
                 String currency = (String) preferences.get("preferredCurrency");
                 if (currency != null && !currency.isEmpty()) {
@@ -90,7 +89,9 @@ public class UserPreferencesController {
                 }
             }
             
-            User updatedUser = userRepository.save(user);
+            // Stored expenses, budget limits and bill amounts are re-converted into a new currency in the same transaction
+            User updatedUser = expenseService.saveUserWithCurrency(user, previousCurrency);
+            referenceDataService.evictPreferences(updatedUser.getId());
             
             Map<String, Object> response = Map.of(
                 "message", "Preferences updated successfully",
@@ -105,6 +106,18 @@ public class UserPreferencesController {
         }
     }
 
+    private Long getUserIdFromDetails(UserDetails userDetails) {
+        if (userDetails instanceof CustomUserDetails) {
+            return ((CustomUserDetails) userDetails).getId();
+        }
+        return getUserFromDetails(userDetails).getId();
+    }
+
+    private static boolean isAdmin(UserDetails userDetails) {
+        return userDetails.getAuthorities().stream()
+            .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN"));
+    }
+
     private User getUserFromDetails(UserDetails userDetails) {
         if (userDetails == null) {
             throw new RuntimeException("User not authenticated");
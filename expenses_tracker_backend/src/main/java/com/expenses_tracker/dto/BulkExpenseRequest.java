@@ -0,0 +1,39 @@
+package com.expenses_tracker.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Body of the bulk expense endpoints. Only the fields the operation needs are read.
+ */
+public class BulkExpenseRequest {
+    private List<Long> ids = new ArrayList<>();
+    private String category;
+    private boolean pinned = true;
+
+    public BulkExpenseRequest() {}
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public boolean isPinned() {
+        return pinned;
+    }
+
+    public void setPinned(boolean pinned) {
+        this.pinned = pinned;
+    }
+}
@@ -0,0 +1,49 @@
+package com.expenses_tracker.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+import com.expenses_tracker.entity.Category;
+
+/**
+ * Immutable snapshot of all categories together with a content-derived ETag.
+ */
+public class CategoryList {
+    private final List<Category> categories;
+    private final String etag;
+
+    public CategoryList(List<Category> categories) {
+        this.categories = List.copyOf(categories);
+        this.etag = computeEtag(this.categories);
+    }
+
+    public List<Category> getCategories() {
+        return categories;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    private static String computeEtag(List<Category> categories) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Category category : categories) {
+                digest.update(String.valueOf(category.getId()).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(String.valueOf(category.getName()).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(String.valueOf(category.getDescription()).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(String.valueOf(category.getIcon()).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
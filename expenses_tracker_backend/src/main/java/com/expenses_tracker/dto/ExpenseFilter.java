@@ -0,0 +1,89 @@
+package com.expenses_tracker.dto;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.expenses_tracker.entity.Expense;
+
+/**
+ * Optional criteria for querying a single user's expenses.
+ * Null fields match every row.
+ */
+public class ExpenseFilter {
+    private String category;
+    private String paymentMethod;
+    private String expenseType;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startDate;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate endDate;
+
+    public ExpenseFilter() {}
+
+    public ExpenseFilter(String category, String paymentMethod, String expenseType,
+                         LocalDate startDate, LocalDate endDate) {
+        this.category = category;
+        this.paymentMethod = paymentMethod;
+        this.expenseType = expenseType;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(String paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public String getExpenseType() {
+        return expenseType;
+    }
+
+    public void setExpenseType(String expenseType) {
+        this.expenseType = expenseType;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    /**
+     * In-memory equivalent of the repository filter query
+     */
+    public boolean matches(Expense expense) {
+        return matchesText(category, expense.getCategory())
+            && matchesText(paymentMethod, expense.getPaymentMethod())
+            && matchesText(expenseType, expense.getExpenseType())
+            && (startDate == null || !expense.getDate().isBefore(startDate))
+            && (endDate == null || !expense.getDate().isAfter(endDate));
+    }
+
+    private static boolean matchesText(String wanted, String actual) {
+        return wanted == null || wanted.isBlank() || wanted.equalsIgnoreCase(actual);
+    }
+}
@@ -0,0 +1,83 @@
+package com.expenses_tracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.expenses_tracker.entity.SplitType;
+
+/**
+ * Body for posting a group expense. EQUAL splits among participants (every
+ * member when empty); PERCENTAGE and EXACT read splits, user id to percent
+ * or to amount. paidBy defaults to the caller and date to today.
+ */
+public class GroupExpenseRequest {
+    private String description;
+    private BigDecimal amount;
+    private Long paidBy;
+    private SplitType splitType = SplitType.EQUAL;
+    private LocalDate date;
+    private List<Long> participants = new ArrayList<>();
+    private Map<Long, BigDecimal> splits = new LinkedHashMap<>();
+
+    public GroupExpenseRequest() {}
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public Long getPaidBy() {
+        return paidBy;
+    }
+
+    public void setPaidBy(Long paidBy) {
+        this.paidBy = paidBy;
+    }
+
+    public SplitType getSplitType() {
+        return splitType;
+    }
+
+    public void setSplitType(SplitType splitType) {
+        this.splitType = splitType;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public List<Long> getParticipants() {
+        return participants;
+    }
+
+    public void setParticipants(List<Long> participants) {
+        this.participants = participants;
+    }
+
+    public Map<Long, BigDecimal> getSplits() {
+        return splits;
+    }
+
+    public void setSplits(Map<Long, BigDecimal> splits) {
+        this.splits = splits;
+    }
+}
@@ -0,0 +1,92 @@
+package com.expenses_tracker.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.expenses_tracker.entity.Budget;
+import com.expenses_tracker.entity.Expense;
+import com.expenses_tracker.entity.Notification;
+import com.expenses_tracker.entity.RecurringBill;
+import com.expenses_tracker.entity.SyncTombstone;
+
+/**
+ * Rows changed and deleted since a client's last sync. When fullResync is
+ * set the lists hold the user's complete state and the client should
+ * replace what it has rather than merge.
+ */
+public class SyncResponse {
+    private long since;
+    private long highWaterMark;
+    private boolean fullResync;
+    private List<Expense> expenses = new ArrayList<>();
+    private List<Budget> budgets = new ArrayList<>();
+    private List<RecurringBill> recurringBills = new ArrayList<>();
+    private List<Notification> notifications = new ArrayList<>();
+    private List<SyncTombstone> deleted = new ArrayList<>();
+
+    public SyncResponse() {}
+
+    public long getSince() {
+        return since;
+    }
+
+    public void setSince(long since) {
+        this.since = since;
+    }
+
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public void setHighWaterMark(long highWaterMark) {
+        this.highWaterMark = highWaterMark;
+    }
+
+    public boolean isFullResync() {
+        return fullResync;
+    }
+
+    public void setFullResync(boolean fullResync) {
+        this.fullResync = fullResync;
+    }
+
+    public List<Expense> getExpenses() {
+        return expenses;
+    }
+
+    public void setExpenses(List<Expense> expenses) {
+        this.expenses = expenses;
+    }
+
+    public List<Budget> getBudgets() {
+        return budgets;
+    }
+
+    public void setBudgets(List<Budget> budgets) {
+        this.budgets = budgets;
+    }
+
+    public List<RecurringBill> getRecurringBills() {
+        return recurringBills;
+    }
+
+    public void setRecurringBills(List<RecurringBill> recurringBills) {
+        this.recurringBills = recurringBills;
+    }
+
+    public List<Notification> getNotifications() {
+        return notifications;
+    }
+
+    public void setNotifications(List<Notification> notifications) {
+        this.notifications = notifications;
+    }
+
+    public List<SyncTombstone> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<SyncTombstone> deleted) {
+        this.deleted = deleted;
+    }
+}
@@ -0,0 +1,62 @@
+package com.expenses_tracker.duplicates;
+
+/**
+ * Fixed-size Bloom filter over 64-bit hashes. A negative answer is certain;
+ * a positive one is wrong with about the false-positive rate it was sized
+ * for, as long as no more than the expected number of items are added.
+ *
+ * The k bit positions come from the two halves of the hash (Kirsch and
+ * Mitzenmacher double hashing). Not thread-safe; callers synchronize.
+ */
+final class BloomFilter {
+
+    private final long[] bits;
+    private final long size;
+    private final int hashes;
+    private final int capacity;
+    private int count;
+
+    BloomFilter(int expectedItems, double falsePositiveRate) {
+        int n = Math.max(64, expectedItems);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new long[(int) ((m + 63) >>> 6)];
+        this.size = (long) bits.length << 6;
+        this.hashes = Math.max(1, (int) Math.round((double) size / n * Math.log(2)));
+        this.capacity = n;
+    }
+
+    void add(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, size);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        count++;
+    }
+
+    boolean mightContain(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, size);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** More items than it was sized for; the false-positive rate is climbing */
+    boolean isSaturated() {
+        return count > capacity;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long estimatedBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+}
@@ -0,0 +1,19 @@
+package com.expenses_tracker.duplicates;
+
+/**
+ * Thrown when a new expense matches an existing one and duplicates are
+ * rejected rather than flagged
+ */
+public class DuplicateExpenseException extends RuntimeException {
+
+    private final Long duplicateOfId;
+
+    public DuplicateExpenseException(Long duplicateOfId) {
+        super("This expense looks like a duplicate of expense " + duplicateOfId);
+        this.duplicateOfId = duplicateOfId;
+    }
+
+    public Long getDuplicateOfId() {
+        return duplicateOfId;
+    }
+}
@@ -0,0 +1,253 @@
+package com.expenses_tracker.duplicates;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.expenses_tracker.entity.Expense;
+import com.expenses_tracker.service.AllDataClearedEvent;
+import com.expenses_tracker.service.UserDeletedEvent;
+import com.expenses_tracker.util.Money;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Per-user index answering "has this user already recorded this expense",
+ * checked by ExpenseService before each insert.
+ *
+ * Each user gets a Bloom filter over the fingerprints of all their expenses,
+ * plus an exact map of the fingerprints dated within the last recent-days.
+ * A new expense probes the filter for its day and the days either side; the
+ * usual all-negative answer needs no query. A positive is confirmed in the
+ * exact map, or for older dates by one indexed query.
+ *
+ * A user's index is loaded on first check and kept in step by the
+ * ExpenseService write path; updates and deletes evict it, since a Bloom
+ * filter cannot forget. Entries expire so expenses written by another
+ * instance or by batch jobs are picked up.
+ */
+@Component
+public class DuplicateIndex {
+
+    /** What addExpense does with a likely duplicate */
+    public enum Mode { FLAG, REJECT, OFF }
+
+    private static final String SELECT_FINGERPRINTS =
+        "SELECT id, amount, date, title, description FROM expense WHERE user_id = ?";
+
+    private static final String SELECT_CANDIDATES =
+        "SELECT id, amount, date, title, description FROM expense " +
+        "WHERE user_id = ? AND date BETWEEN ? AND ? AND amount = ?";
+
+    // Serializes check-then-insert per user, so a double submit cannot pass the check twice.
+    // ReentrantLock rather than synchronized: the lock is held across JDBC calls, and a
+    // virtual thread blocked inside a monitor would pin its carrier thread.
+    private static final int STRIPES = 64;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Mode mode;
+    private final int recentDays;
+    private final double falsePositiveRate;
+    private final Cache<Long, UserIndex> users;
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final Timer clear;
+    private final Timer falsePositive;
+    private final Timer duplicate;
+
+    public DuplicateIndex(JdbcTemplate jdbcTemplate,
+                          @Value("${expenses.duplicates.mode:flag}") String mode,
+                          @Value("${expenses.duplicates.recent-days:90}") int recentDays,
+                          @Value("${expenses.duplicates.false-positive-rate:0.01}") double falsePositiveRate,
+                          @Value("${expenses.duplicates.max-users:100000}") long maxUsers,
+                          @Value("${expenses.duplicates.ttl-seconds:600}") long ttlSeconds,
+                          MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.recentDays = recentDays;
+        this.falsePositiveRate = falsePositiveRate;
+        this.users = Caffeine.newBuilder()
+            .maximumSize(maxUsers)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .build();
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.clear = timer(registry, "clear");
+        this.falsePositive = timer(registry, "false_positive");
+        this.duplicate = timer(registry, "duplicate");
+    }
+
+    private static Timer timer(MeterRegistry registry, String outcome) {
+        return Timer.builder("expenses.duplicates.checks").tag("outcome", outcome)
+            .description("Duplicate checks on insert, by outcome")
+            .publishPercentiles(0.5, 0.99)
+            .register(registry);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Runs work while holding the user's insert lock
+     */
+    public <T> T withUserLock(Long userId, Supplier<T> work) {
+        ReentrantLock lock = locks[Math.floorMod(userId.hashCode(), STRIPES)];
+        lock.lock();
+        try {
+            return work.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Id of an existing expense of the user with the same amount and
+     * normalized title dated within a day of date, or null. Call under the
+     * user's lock.
+     */
+    public Long findDuplicate(Long userId, BigDecimal amount, LocalDate date, String title, String description) {
+        if (amount == null || date == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        UserIndex index = users.get(userId, this::load);
+        ExpenseFingerprint fingerprint = ExpenseFingerprint.of(amount, date, title, description);
+
+        boolean maybe = false;
+        for (long day = fingerprint.epochDay() - 1; day <= fingerprint.epochDay() + 1 && !maybe; day++) {
+            maybe = index.filter.mightContain(fingerprint.onDay(day).hash64());
+        }
+        if (!maybe) {
+            clear.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return null;
+        }
+
+        Long match = fingerprint.epochDay() - 1 >= index.recentFrom
+            ? index.lookup(fingerprint)
+            : queryCandidates(userId, fingerprint);
+        (match == null ? falsePositive : duplicate).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return match;
+    }
+
+    /**
+     * Records a newly inserted expense in its user's index, if loaded. Call
+     * under the user's lock.
+     */
+    public void onAdded(Expense expense) {
+        if (mode == Mode.OFF || expense.getUser() == null || expense.getAmount() == null || expense.getDate() == null) {
+            return;
+        }
+        Long userId = expense.getUser().getId();
+        UserIndex index = users.getIfPresent(userId);
+        if (index != null) {
+            index.add(expense.getId(), ExpenseFingerprint.of(expense.getAmount(), expense.getDate(),
+                expense.getTitle(), expense.getDescription()));
+            if (index.filter.isSaturated()) {
+                // Reloaded at the next check, sized for the larger history
+                users.invalidate(userId);
+            }
+        }
+    }
+
+    public void evict(Long userId) {
+        if (userId != null) {
+            users.invalidate(userId);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        evict(event.userId());
+    }
+
+    @TransactionalEventListener
+    public void onAllDataCleared(AllDataClearedEvent event) {
+        users.invalidateAll();
+    }
+
+    private UserIndex load(Long userId) {
+        List<Long> ids = new ArrayList<>();
+        List<ExpenseFingerprint> fingerprints = new ArrayList<>();
+        jdbcTemplate.query(SELECT_FINGERPRINTS, rs -> {
+            BigDecimal amount = rs.getBigDecimal("amount");
+            Date date = rs.getDate("date");
+            if (amount != null && date != null) {
+                ids.add(rs.getLong("id"));
+                fingerprints.add(ExpenseFingerprint.of(amount, date.toLocalDate(),
+                    rs.getString("title"), rs.getString("description")));
+            }
+        }, userId);
+
+        // Room to double before the filter saturates and is rebuilt
+        UserIndex index = new UserIndex(new BloomFilter(Math.max(1024, 2 * ids.size()), falsePositiveRate),
+            LocalDate.now().minusDays(recentDays).toEpochDay());
+        for (int i = 0; i < ids.size(); i++) {
+            index.add(ids.get(i), fingerprints.get(i));
+        }
+        return index;
+    }
+
+    // Lowest matching id among the user's expenses within a day, read from the table
+    private Long queryCandidates(Long userId, ExpenseFingerprint fingerprint) {
+        Long[] match = {null};
+        jdbcTemplate.query(SELECT_CANDIDATES, rs -> {
+            ExpenseFingerprint candidate = ExpenseFingerprint.of(rs.getBigDecimal("amount"),
+                rs.getDate("date").toLocalDate(), rs.getString("title"), rs.getString("description"));
+            long id = rs.getLong("id");
+            if (candidate.title().equals(fingerprint.title()) && (match[0] == null || id < match[0])) {
+                match[0] = id;
+            }
+        }, userId, Date.valueOf(fingerprint.date().minusDays(1)), Date.valueOf(fingerprint.date().plusDays(1)),
+            Money.fromMinorUnits(fingerprint.amountMinor()));
+        return match[0];
+    }
+
+    /** One user's filter over every expense, and exact fingerprints of the recent ones */
+    private static final class UserIndex {
+        final BloomFilter filter;
+        final long recentFrom;
+        // Fingerprint to the lowest id recorded with it
+        final Map<ExpenseFingerprint, Long> recent = new HashMap<>();
+
+        UserIndex(BloomFilter filter, long recentFrom) {
+            this.filter = filter;
+            this.recentFrom = recentFrom;
+        }
+
+        void add(Long id, ExpenseFingerprint fingerprint) {
+            filter.add(fingerprint.hash64());
+            if (fingerprint.epochDay() >= recentFrom) {
+                recent.merge(fingerprint, id, Math::min);
+            }
+        }
+
+        Long lookup(ExpenseFingerprint fingerprint) {
+            Long match = null;
+            for (long day = fingerprint.epochDay() - 1; day <= fingerprint.epochDay() + 1; day++) {
+                Long id = recent.get(fingerprint.onDay(day));
+                if (id != null && (match == null || id < match)) {
+                    match = id;
+                }
+            }
+            return match;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.expenses_tracker.duplicates;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.expenses_tracker.service.UnreadNotificationCounter;
+import com.expenses_tracker.sync.SyncClock;
+import com.expenses_tracker.util.Money;
+
+/**
+ * Finds expenses already recorded twice: same amount and normalized title,
+ * dated no more than a day apart.
+ *
+ * A user's expenses are read once and bucketed by (amount, title) in a hash
+ * map, so only rows that agree on both are ever compared; each bucket is
+ * then sorted by date and split wherever two dates are more than a day
+ * apart. The nightly job walks users in ascending id order, a chunk at a
+ * time, and notifies each user whose count of duplicates changed.
+ */
+@Service
+public class DuplicateScanService {
+
+    private static final String SELECT_USERS =
+        "SELECT DISTINCT user_id FROM expense WHERE user_id > ? ORDER BY user_id LIMIT ?";
+
+    private static final String SELECT_EXPENSES =
+        "SELECT id, user_id, amount, date, title, description FROM expense " +
+        "WHERE user_id BETWEEN ? AND ? AND amount IS NOT NULL AND date IS NOT NULL";
+
+    private static final String SELECT_RECENT_NOTICES =
+        "SELECT user_id, message FROM notification WHERE user_id BETWEEN ? AND ? AND created_at >= ?";
+
+    private static final String INSERT_NOTIFICATION =
+        "INSERT INTO notification (message, is_read, created_at, user_id, change_version) VALUES (?, false, ?, ?, ?)";
+
+    // A repeated notice is skipped for this long
+    private static final long NOTICE_QUIET_MILLIS = 7L * 24 * 60 * 60 * 1000;
+
+    /** Expenses that look like one expense recorded more than once, oldest id first */
+    public record DuplicateSet(List<Long> expenseIds, BigDecimal amount, String title, LocalDate firstDate) {
+    }
+
+    /** Users scanned, duplicate sets found, and notifications written */
+    public record ScanResult(int usersScanned, int duplicateSets, int notificationsCreated) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SyncClock syncClock;
+
+    @Autowired
+    private UnreadNotificationCounter unreadCounter;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${expenses.duplicates.scan.enabled:true}")
+    private boolean enabled;
+
+    @Value("${expenses.duplicates.scan.chunk-size:100}")
+    private int chunkSize;
+
+    public DuplicateScanService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${expenses.duplicates.scan.cron:0 30 3 * * *}")
+    public void scanAllUsers() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    /**
+     * Duplicate sets in one user's expenses, most recent first
+     */
+    public List<DuplicateSet> scanUser(Long userId) {
+        List<DuplicateSet> sets = scanRange(userId, userId).getOrDefault(userId, new ArrayList<>());
+        sets.sort((a, b) -> b.firstDate().compareTo(a.firstDate()));
+        return sets;
+    }
+
+    /**
+     * Scans every user and notifies those with duplicates
+     */
+    public ScanResult run() {
+        long started = System.currentTimeMillis();
+        int users = 0;
+        int sets = 0;
+        int notices = 0;
+        long lastUserId = 0;
+        while (true) {
+            List<Long> userIds = jdbcTemplate.queryForList(SELECT_USERS, Long.class, lastUserId, chunkSize);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            lastUserId = userIds.get(userIds.size() - 1);
+            Map<Long, List<DuplicateSet>> found = scanRange(userIds.get(0), lastUserId);
+            users += userIds.size();
+            sets += found.values().stream().mapToInt(List::size).sum();
+            notices += notify(userIds.get(0), lastUserId, found);
+        }
+        System.out.println("Duplicate scan: " + sets + " duplicate sets for " + users + " users, "
+            + notices + " notifications in " + (System.currentTimeMillis() - started) + " ms");
+        return new ScanResult(users, sets, notices);
+    }
+
+    private Map<Long, List<DuplicateSet>> scanRange(long firstUserId, long lastUserId) {
+        // (user, amount, title) -> that bucket's rows
+        Map<Bucket, List<Row>> buckets = new HashMap<>();
+        jdbcTemplate.query(SELECT_EXPENSES, rs -> {
+            ExpenseFingerprint fingerprint = ExpenseFingerprint.of(rs.getBigDecimal("amount"),
+                rs.getDate("date").toLocalDate(), rs.getString("title"), rs.getString("description"));
+            buckets.computeIfAbsent(new Bucket(rs.getLong("user_id"), fingerprint.amountMinor(), fingerprint.title()),
+                    b -> new ArrayList<>(2))
+                .add(new Row(rs.getLong("id"), fingerprint.epochDay()));
+        }, firstUserId, lastUserId);
+
+        Map<Long, List<DuplicateSet>> found = new HashMap<>();
+        buckets.forEach((bucket, rows) -> {
+            if (rows.size() < 2) {
+                return;
+            }
+            rows.sort(Comparator.comparingLong(Row::epochDay).thenComparingLong(Row::id));
+            int start = 0;
+            for (int i = 1; i <= rows.size(); i++) {
+                if (i == rows.size() || rows.get(i).epochDay() - rows.get(i - 1).epochDay() > 1) {
+                    if (i - start > 1) {
+                        List<Long> ids = new ArrayList<>();
+                        rows.subList(start, i).forEach(r -> ids.add(r.id()));
+                        ids.sort(null);
+                        found.computeIfAbsent(bucket.userId(), u -> new ArrayList<>()).add(new DuplicateSet(ids,
+                            Money.fromMinorUnits(bucket.amountMinor()), bucket.title(),
+                            LocalDate.ofEpochDay(rows.get(start).epochDay())));
+                    }
+                    start = i;
+                }
+            }
+        });
+        return found;
+    }
+
+    private int notify(long firstUserId, long lastUserId, Map<Long, List<DuplicateSet>> found) {
+        if (found.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Integer> created = new HashMap<>();
+        Integer inserted = transactionTemplate.execute(status -> {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            Set<String> recent = new HashSet<>();
+            jdbcTemplate.query(SELECT_RECENT_NOTICES,
+                rs -> { recent.add(rs.getLong(1) + ":" + rs.getString(2)); },
+                firstUserId, lastUserId, new Timestamp(now.getTime() - NOTICE_QUIET_MILLIS));
+
+            // JDBC writes skip the entity listener, so stamp the change version here
+            long version = syncClock.currentTransactionVersion();
+            List<Object[]> inserts = new ArrayList<>();
+            found.forEach((userId, sets) -> {
+                int extra = sets.stream().mapToInt(s -> s.expenseIds().size() - 1).sum();
+                String message = "🔁 Duplicate Alert: " + extra + (extra == 1 ? " expense looks" : " expenses look")
+                    + " like a duplicate of another with the same amount and title, entered a day apart or less";
+                if (recent.add(userId + ":" + message)) {
+                    inserts.add(new Object[]{message, now, userId, version});
+                    created.merge(userId, 1, Integer::sum);
+                }
+            });
+            jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, inserts);
+            return inserts.size();
+        });
+        created.forEach(unreadCounter::adjust);
+        return inserted == null ? 0 : inserted;
+    }
+
+    private record Bucket(long userId, long amountMinor, String title) {
+    }
+
+    private record Row(long id, long epochDay) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.expenses_tracker.duplicates;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import com.expenses_tracker.util.Money;
+
+/**
+ * What two entries of the same expense have in common: the amount, the day
+ * and the title with case, punctuation and spacing removed. Expenses whose
+ * fingerprints differ only by a day either way are likely duplicates.
+ */
+public record ExpenseFingerprint(long amountMinor, long epochDay, String title) {
+
+    private static final Pattern NOT_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    public static ExpenseFingerprint of(BigDecimal amount, LocalDate date, String title, String description) {
+        return new ExpenseFingerprint(Money.toMinorUnits(amount), date.toEpochDay(),
+            normalize(title != null && !title.isBlank() ? title : description));
+    }
+
+    /** The same expense recorded on another day */
+    public ExpenseFingerprint onDay(long day) {
+        return new ExpenseFingerprint(amountMinor, day, title);
+    }
+
+    public LocalDate date() {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * Lower case, with runs of anything other than letters and digits reduced to one space
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return NOT_WORD.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * 64-bit hash for the Bloom filter, mixing all three fields (FNV-1a over
+     * the title, then a murmur finalizer)
+     */
+    public long hash64() {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < title.length(); i++) {
+            h ^= title.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= amountMinor * 0x9E3779B97F4A7C15L;
+        h ^= epochDay * 0xC2B2AE3D27D4EB4FL;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
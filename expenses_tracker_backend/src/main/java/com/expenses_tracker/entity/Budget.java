@@ -3,18 +3,24 @@ package com.expenses_tracker.entity;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import com.expenses_tracker.sync.ChangeVersionListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 
 @Entity
-public class Budget {
+@EntityListeners(ChangeVersionListener.class)
+@Table(indexes = @Index(name = "idx_budget_user_category_dates", columnList = "user_id, category, start_date, end_date"))
+public class Budget implements SyncTracked {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,6 +37,9 @@ public class Budget {
     @JsonIgnore
     private User user;
 
+    // Stamped on every write by ChangeVersionListener; see /api/sync
+    private Long changeVersion;
+
     // Constructors
     public Budget() {}
 
@@ -90,4 +99,14 @@ public class Budget {
     public void setUser(User user) {
         this.user = user;
     }
+
+    @Override
+    public Long getChangeVersion() {
+        return changeVersion;
+    }
+
+    @Override
+    public void setChangeVersion(Long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
 }
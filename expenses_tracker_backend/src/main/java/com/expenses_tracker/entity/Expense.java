@@ -3,18 +3,27 @@ package com.expenses_tracker.entity;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import com.expenses_tracker.sync.ChangeVersionListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
 
 @Entity
-public class Expense {
+@EntityListeners(ChangeVersionListener.class)
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_expense_bill_cycle",
+        columnNames = {"recurring_bill_id", "bill_cycle_date"}))
+public class Expense implements SyncTracked {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -23,6 +32,7 @@ public class Expense {
     private String title; // Added title field
     private String description;
     private BigDecimal amount;
+    private String currency; // ISO 4217 code the amount was entered in
     private LocalDate date;
     private String paymentMethod;
     private boolean isPinned = false;
@@ -31,12 +41,49 @@ public class Expense {
     // Category is now a plain String, no JPA relationship
     private String category;
 
+    // Amount converted to the user's preferred currency when it was written
+    private BigDecimal baseAmount;
+    private String baseCurrency;
+
+    // Set when the expense was posted for a recurring bill cycle; at most one per cycle
+    private Long recurringBillId;
+    private LocalDate billCycleDate;
+
+    // True for read-only rows served from cold archive segments
+    @Transient
+    private boolean archived;
+
+    // Set on the response when the expense was saved despite looking like a duplicate of this one
+    @Transient
+    private Long duplicateOfId;
+
+    // Set on the response when the category was filled in from the user's history
+    @Transient
+    private boolean autoCategorized;
+
     // --- Relationships ---
    @ManyToOne(fetch = FetchType.EAGER)
    @JoinColumn(name = "user_id", nullable = false)
    @JsonIgnore
    private User user;
 
+    // Stamped on every write by ChangeVersionListener; see /api/sync
+    private Long changeVersion;
+
+
+    // Rows saved without going through ExpenseService are taken to be in the user's currency
+    @PrePersist
+    void defaultCurrency() {
+        if (baseAmount == null && user != null) {
+            if (currency == null) {
+                currency = user.getPreferredCurrency();
+            }
+            if (currency != null && currency.equalsIgnoreCase(user.getPreferredCurrency())) {
+                baseAmount = amount;
+                baseCurrency = currency;
+            }
+        }
+    }
 
     // --- Getters and Setters ---
     
@@ -119,4 +166,106 @@ public class Expense {
     public void setCategory(String category) {
         this.category = category;
     }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public BigDecimal getBaseAmount() {
+        return baseAmount;
+    }
+
+    public void setBaseAmount(BigDecimal baseAmount) {
+        this.baseAmount = baseAmount;
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
+
+    public Long getRecurringBillId() {
+        return recurringBillId;
+    }
+
+    public void setRecurringBillId(Long recurringBillId) {
+        this.recurringBillId = recurringBillId;
+    }
+
+    public LocalDate getBillCycleDate() {
+        return billCycleDate;
+    }
+
+    public void setBillCycleDate(LocalDate billCycleDate) {
+        this.billCycleDate = billCycleDate;
+    }
+
+    public Long getDuplicateOfId() {
+        return duplicateOfId;
+    }
+
+    public void setDuplicateOfId(Long duplicateOfId) {
+        this.duplicateOfId = duplicateOfId;
+    }
+
+    public boolean isAutoCategorized() {
+        return autoCategorized;
+    }
+
+    public void setAutoCategorized(boolean autoCategorized) {
+        this.autoCategorized = autoCategorized;
+    }
+
+    public boolean isArchived() {
+        return archived;
+    }
+
+    public void setArchived(boolean archived) {
+        this.archived = archived;
+    }
+
+    @Override
+    public Long getChangeVersion() {
+        return changeVersion;
+    }
+
+    @Override
+    public void setChangeVersion(Long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
+
+    /**
+     * A detached field-by-field copy, for responses that must not share the
+     * instance the column store keeps
+     */
+    public Expense copy() {
+        Expense copy = new Expense();
+        copy.id = id;
+        copy.title = title;
+        copy.description = description;
+        copy.amount = amount;
+        copy.currency = currency;
+        copy.date = date;
+        copy.paymentMethod = paymentMethod;
+        copy.isPinned = isPinned;
+        copy.expenseType = expenseType;
+        copy.category = category;
+        copy.baseAmount = baseAmount;
+        copy.baseCurrency = baseCurrency;
+        copy.recurringBillId = recurringBillId;
+        copy.billCycleDate = billCycleDate;
+        copy.archived = archived;
+        copy.duplicateOfId = duplicateOfId;
+        copy.autoCategorized = autoCategorized;
+        copy.user = user;
+        copy.changeVersion = changeVersion;
+        return copy;
+    }
 }
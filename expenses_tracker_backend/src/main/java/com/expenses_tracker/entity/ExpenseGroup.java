@@ -0,0 +1,113 @@
+package com.expenses_tracker.entity;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+/**
+ * A set of users sharing expenses. Amounts within a group are all in the
+ * group's currency, taken from its creator's preferred currency.
+ */
+@Entity
+@Table(name = "expense_group")
+public class ExpenseGroup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(length = 500)
+    private String description;
+
+    @Column(nullable = false)
+    private String currency;
+
+    private Long createdBy;
+    private Timestamp createdAt;
+
+    // Filled in for responses
+    @Transient
+    private List<GroupMember> members = new ArrayList<>();
+
+    // The requesting member's balance; positive when the group owes them
+    @Transient
+    private BigDecimal myBalance;
+
+    public ExpenseGroup() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public Long getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(Long createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Timestamp createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public List<GroupMember> getMembers() {
+        return members;
+    }
+
+    public void setMembers(List<GroupMember> members) {
+        this.members = members;
+    }
+
+    public BigDecimal getMyBalance() {
+        return myBalance;
+    }
+
+    public void setMyBalance(BigDecimal myBalance) {
+        this.myBalance = myBalance;
+    }
+}
@@ -0,0 +1,72 @@
+package com.expenses_tracker.entity;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+
+/**
+ * The part of a group expense one member owes. The shares of an expense
+ * add up to its amount.
+ */
+@Entity
+public class GroupExpenseShare {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @JsonIgnore
+    private Long id;
+
+    @JsonIgnore
+    private Long expenseId;
+
+    private Long userId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    public GroupExpenseShare() {}
+
+    public GroupExpenseShare(Long expenseId, Long userId, BigDecimal amount) {
+        this.expenseId = expenseId;
+        this.userId = userId;
+        this.amount = amount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getExpenseId() {
+        return expenseId;
+    }
+
+    public void setExpenseId(Long expenseId) {
+        this.expenseId = expenseId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+}
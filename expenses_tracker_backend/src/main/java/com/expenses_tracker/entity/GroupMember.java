@@ -0,0 +1,100 @@
+package com.expenses_tracker.entity;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * A user's membership of a group and their running balance in it: what they
+ * have paid for the group minus their shares of its expenses. Balances are
+ * adjusted in place as expenses are posted, so reading one never touches the
+ * group's history, and the balances of a group always sum to zero.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_group_member_group_user",
+        columnNames = {"group_id", "user_id"}))
+public class GroupMember {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @JsonIgnore
+    private Long id;
+
+    private Long groupId;
+    private Long userId;
+
+    @Column(nullable = false)
+    private BigDecimal balance = BigDecimal.valueOf(0, 2);
+
+    private Timestamp joinedAt;
+
+    // Filled in for responses
+    @Transient
+    private String username;
+
+    public GroupMember() {}
+
+    public GroupMember(Long groupId, Long userId) {
+        this.groupId = groupId;
+        this.userId = userId;
+        this.joinedAt = new Timestamp(System.currentTimeMillis());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    public Timestamp getJoinedAt() {
+        return joinedAt;
+    }
+
+    public void setJoinedAt(Timestamp joinedAt) {
+        this.joinedAt = joinedAt;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+}
@@ -0,0 +1,60 @@
+package com.expenses_tracker.entity;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * Progress marker for a chunked batch job, updated in the same transaction as
+ * each chunk so a restarted run resumes after the last committed id.
+ */
+@Entity
+public class JobCheckpoint {
+
+    @Id
+    private String jobName;
+
+    private LocalDate runDate;
+    private long lastId;
+    private boolean completed;
+
+    public JobCheckpoint() {}
+
+    public JobCheckpoint(String jobName, LocalDate runDate) {
+        this.jobName = jobName;
+        this.runDate = runDate;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+
+    public LocalDate getRunDate() {
+        return runDate;
+    }
+
+    public void setRunDate(LocalDate runDate) {
+        this.runDate = runDate;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public void setLastId(long lastId) {
+        this.lastId = lastId;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+}
@@ -2,19 +2,25 @@ package com.expenses_tracker.entity;
 
 import java.sql.Timestamp;
 
+import com.expenses_tracker.sync.ChangeVersionListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 
 @Entity
-public class Notification {
+@EntityListeners(ChangeVersionListener.class)
+@Table(indexes = @Index(name = "idx_notification_user_read_created", columnList = "user_id, is_read, created_at"))
+public class Notification implements SyncTracked {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -30,6 +36,9 @@ public class Notification {
     @JsonIgnore
     private User user;
 
+    // Stamped on every write by ChangeVersionListener; see /api/sync
+    private Long changeVersion;
+
     // Constructors
     public Notification() {}
 
@@ -81,4 +90,14 @@ public class Notification {
     public void setUser(User user) {
         this.user = user;
     }
+
+    @Override
+    public Long getChangeVersion() {
+        return changeVersion;
+    }
+
+    @Override
+    public void setChangeVersion(Long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
 }
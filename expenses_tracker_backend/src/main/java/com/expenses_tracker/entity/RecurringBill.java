@@ -3,9 +3,11 @@ package com.expenses_tracker.entity;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import com.expenses_tracker.sync.ChangeVersionListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -14,7 +16,8 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 
 @Entity
-public class RecurringBill {
+@EntityListeners(ChangeVersionListener.class)
+public class RecurringBill implements SyncTracked {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -44,6 +47,9 @@ public class RecurringBill {
     @JsonIgnore
     private User user;
 
+    // Stamped on every write by ChangeVersionListener; see /api/sync
+    private Long changeVersion;
+
     // Constructors
     public RecurringBill() {}
 
@@ -178,4 +184,14 @@ public class RecurringBill {
     public void setPaidDate(LocalDate paidDate) {
         this.paidDate = paidDate;
     }
+
+    @Override
+    public Long getChangeVersion() {
+        return changeVersion;
+    }
+
+    @Override
+    public void setChangeVersion(Long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
 }
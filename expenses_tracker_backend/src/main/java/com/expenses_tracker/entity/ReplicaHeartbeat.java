@@ -0,0 +1,33 @@
+package com.expenses_tracker.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * Single-row heartbeat written to the primary and read back from the read
+ * replica to measure replication lag.
+ */
+@Entity
+public class ReplicaHeartbeat {
+
+    @Id
+    private Long id;
+
+    private long beatAt; // epoch millis on the primary
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public long getBeatAt() {
+        return beatAt;
+    }
+
+    public void setBeatAt(long beatAt) {
+        this.beatAt = beatAt;
+    }
+}
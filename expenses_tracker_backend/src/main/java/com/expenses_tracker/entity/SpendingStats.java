@@ -0,0 +1,106 @@
+package com.expenses_tracker.entity;
+
+import java.sql.Timestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Running count, mean and variance of the log of one user's expense amounts
+ * in one category (lower-cased). Read and written by SpendingAnomalyDetector
+ * through JDBC; mapped here so the schema is declared alongside the others.
+ * rebuiltVersion is the sync high-water mark of the rebuild that last wrote
+ * the row, or 0 if none has.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_spending_stats_user_category",
+        columnNames = {"user_id", "category"}))
+public class SpendingStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String category;
+
+    private long sampleCount;
+    private double meanLog;
+    private double varianceLog;
+    private long rebuiltVersion;
+    private Timestamp updatedAt;
+
+    public SpendingStats() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    public void setSampleCount(long sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    public double getMeanLog() {
+        return meanLog;
+    }
+
+    public void setMeanLog(double meanLog) {
+        this.meanLog = meanLog;
+    }
+
+    public double getVarianceLog() {
+        return varianceLog;
+    }
+
+    public void setVarianceLog(double varianceLog) {
+        this.varianceLog = varianceLog;
+    }
+
+    public long getRebuiltVersion() {
+        return rebuiltVersion;
+    }
+
+    public void setRebuiltVersion(long rebuiltVersion) {
+        this.rebuiltVersion = rebuiltVersion;
+    }
+
+    public Timestamp getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Timestamp updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
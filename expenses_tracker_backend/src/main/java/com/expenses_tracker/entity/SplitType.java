@@ -0,0 +1,12 @@
+package com.expenses_tracker.entity;
+
+/**
+ * How a group expense is divided among the members who share it
+ */
+public enum SplitType {
+    EQUAL,
+    PERCENTAGE,
+    EXACT,
+    // A member paying another back; the single share is the payee's
+    SETTLEMENT
+}
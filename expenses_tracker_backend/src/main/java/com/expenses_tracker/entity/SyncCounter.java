@@ -0,0 +1,33 @@
+package com.expenses_tracker.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * Single-row counter that SyncClock allocates change versions from, shared
+ * by every application instance.
+ */
+@Entity
+public class SyncCounter {
+
+    @Id
+    private Long id;
+
+    private long lastVersion; // last change version handed out
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public long getLastVersion() {
+        return lastVersion;
+    }
+
+    public void setLastVersion(long lastVersion) {
+        this.lastVersion = lastVersion;
+    }
+}
@@ -0,0 +1,16 @@
+package com.expenses_tracker.entity;
+
+/**
+ * An entity whose changes are stamped with a change version and whose
+ * deletes leave a tombstone, so clients can sync deltas via /api/sync
+ */
+public interface SyncTracked {
+
+    Long getId();
+
+    User getUser();
+
+    Long getChangeVersion();
+
+    void setChangeVersion(Long changeVersion);
+}
@@ -0,0 +1,171 @@
+package com.expenses_tracker.photo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Content-addressed storage for uploaded photos.
+ *
+ * An upload is stored under the SHA-256 of its bytes, so the same image
+ * uploaded twice (or by two users) is kept once, and a stored file never
+ * changes. Files are sharded by the first two hex digits of the hash:
+ * {@code <dir>/ab/<hash>.<ext>} for the original,
+ * {@code <dir>/ab/<hash>_<size>.jpg} for each square thumbnail, and an empty
+ * {@code <dir>/ab/<hash>.nothumb} when no thumbnail can be made of it (a
+ * format ImageIO cannot decode, such as WebP, or an oversized image).
+ */
+@Component
+public class PhotoStore {
+
+    /** Public name of a stored original: hash plus the extension of its format */
+    private static final Pattern FILE_NAME = Pattern.compile("([0-9a-f]{64})\\.(jpg|png|gif|webp)");
+
+    private final Path directory;
+    private final List<Integer> thumbnailSizes;
+    private final Counter stored;
+    private final Counter duplicates;
+
+    public PhotoStore(@Value("${expenses.photos.directory:uploads/photos}") String directory,
+                      @Value("${expenses.photos.thumbnail-sizes:64,128,256}") Integer[] thumbnailSizes,
+                      MeterRegistry registry) {
+        this.directory = Paths.get(directory);
+        this.thumbnailSizes = Arrays.stream(thumbnailSizes).sorted().toList();
+        this.stored = Counter.builder("expenses.photos.uploads").tag("outcome", "stored")
+            .description("Photo uploads, by whether the content was new").register(registry);
+        this.duplicates = Counter.builder("expenses.photos.uploads").tag("outcome", "duplicate")
+            .description("Photo uploads, by whether the content was new").register(registry);
+    }
+
+    /**
+     * Stores the upload unless identical content is already stored; returns
+     * its public file name ({@code <hash>.<ext>}), or null if it is not a
+     * JPEG, PNG, GIF or WebP image
+     */
+    public String store(MultipartFile file) throws IOException {
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "upload", ".tmp");
+        try {
+            MessageDigest sha256 = sha256();
+            byte[] header = new byte[12];
+            int headerLength;
+            try (InputStream in = file.getInputStream();
+                 OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), sha256)) {
+                headerLength = in.readNBytes(header, 0, header.length);
+                out.write(header, 0, headerLength);
+                in.transferTo(out);
+            }
+            String extension = extension(header, headerLength);
+            if (extension == null) {
+                return null;
+            }
+
+            String name = HexFormat.of().formatHex(sha256.digest()) + "." + extension;
+            Path target = original(name);
+            if (Files.exists(target)) {
+                duplicates.increment();
+                return name;
+            }
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            stored.increment();
+            return name;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Path of a stored original, or null if the name is not a stored-photo name
+     */
+    public Path original(String name) {
+        Matcher matcher = FILE_NAME.matcher(name);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String hash = matcher.group(1);
+        return directory.resolve(hash.substring(0, 2)).resolve(name);
+    }
+
+    /**
+     * Path of the thumbnail of a stored original (which may not exist yet)
+     */
+    public Path thumbnail(String name, int size) {
+        Path original = original(name);
+        String hash = name.substring(0, name.indexOf('.'));
+        return original.resolveSibling(hash + "_" + size + ".jpg");
+    }
+
+    /**
+     * Path of the marker recording that the original cannot be thumbnailed
+     */
+    public Path thumbnailFailure(String name) {
+        Path original = original(name);
+        String hash = name.substring(0, name.indexOf('.'));
+        return original.resolveSibling(hash + ".nothumb");
+    }
+
+    public List<Integer> getThumbnailSizes() {
+        return thumbnailSizes;
+    }
+
+    /**
+     * Media type for a stored file, from its extension
+     */
+    public static String contentType(Path path) {
+        String fileName = path.getFileName().toString();
+        String extension = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return switch (extension) {
+            case "png" -> "image/png";
+            case "gif" -> "image/gif";
+            case "webp" -> "image/webp";
+            default -> "image/jpeg";
+        };
+    }
+
+    // Identifies the format from its magic bytes rather than trusting the client's content type
+    private static String extension(byte[] header, int length) {
+        if (length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return "jpg";
+        }
+        if (length >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G') {
+            return "png";
+        }
+        if (length >= 6 && header[0] == 'G' && header[1] == 'I' && header[2] == 'F' && header[3] == '8') {
+            return "gif";
+        }
+        if (length >= 12 && header[0] == 'R' && header[1] == 'I' && header[2] == 'F' && header[3] == 'F'
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') {
+            return "webp";
+        }
+        return null;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.expenses_tracker.photo;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * Generates the square JPEG thumbnails of a stored photo off the request
+ * thread. The image is decoded once, subsampled while decoding when it is
+ * much larger than the biggest thumbnail, and center-cropped. A photo that
+ * cannot be decoded is marked, since stored files never change, and not
+ * tried again.
+ */
+@Component
+public class PhotoThumbnailer {
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final PhotoStore photoStore;
+    private final long maxPixels;
+
+    // Photos being worked on; requests arriving meanwhile do not start a second pass
+    private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+
+    public PhotoThumbnailer(PhotoStore photoStore,
+                            @Value("${expenses.photos.max-pixels:40000000}") long maxPixels) {
+        this.photoStore = photoStore;
+        this.maxPixels = maxPixels;
+    }
+
+    /**
+     * Writes every missing thumbnail of the photo
+     */
+    @Async
+    public void generate(String name) {
+        if (Files.exists(photoStore.thumbnailFailure(name))) {
+            return;
+        }
+        List<Integer> sizes = photoStore.getThumbnailSizes().stream()
+            .filter(size -> !Files.exists(photoStore.thumbnail(name, size)))
+            .toList();
+        if (sizes.isEmpty() || !inProgress.add(name)) {
+            return;
+        }
+        try {
+            BufferedImage square;
+            try {
+                square = decodeSquare(photoStore.original(name), sizes.get(sizes.size() - 1));
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Could not decode " + name + ": " + e.getMessage());
+                square = null;
+            }
+            if (square == null) {
+                Files.write(photoStore.thumbnailFailure(name), new byte[0]);
+                return;
+            }
+            for (int size : sizes) {
+                write(scale(square, size), photoStore.thumbnail(name, size));
+            }
+        } catch (IOException | RuntimeException e) {
+            // The original is served until a thumbnail exists
+            System.out.println("Thumbnail generation failed for " + name + ": " + e.getMessage());
+        } finally {
+            inProgress.remove(name);
+        }
+    }
+
+    /**
+     * Decodes the centered square of the image, subsampled to no less than
+     * twice the largest size; null if the format cannot be decoded or the
+     * image is too large
+     */
+    private BufferedImage decodeSquare(Path original, int largestSize) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                System.out.println("No image reader for " + original.getFileName() + "; serving the original only");
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    System.out.println("Skipping thumbnails of " + original.getFileName() + ": " + width + "x" + height);
+                    return null;
+                }
+                int side = Math.min(width, height);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(new Rectangle((width - side) / 2, (height - side) / 2, side, side));
+                int step = Math.max(1, side / (2 * largestSize));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Opaque RGB on white, so transparent PNGs and GIFs encode as JPEG
+    private static BufferedImage scale(BufferedImage source, int size) {
+        BufferedImage target = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, size, size);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, size, size, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static void write(BufferedImage image, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), "thumb", ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.expenses_tracker.ratelimit;
+
+import java.util.Map;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Applies @RateLimited costs to the authenticated user's bucket and answers
+ * 429 with Retry-After when the bucket cannot cover the call.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final UserRateLimiter limiter;
+    private final MeterRegistry registry;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitInterceptor(UserRateLimiter limiter, MeterRegistry registry, ObjectMapper objectMapper) {
+        this.limiter = limiter;
+        this.registry = registry;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (!limiter.isEnabled() || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        RateLimited limit = method.getMethodAnnotation(RateLimited.class);
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (limit == null || auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            return true;
+        }
+
+        String endpoint = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        long waitMillis = limiter.tryAcquire(auth.getName(), limit.cost());
+        if (waitMillis == 0) {
+            counter(endpoint, "allowed").increment();
+            return true;
+        }
+
+        counter(endpoint, "rejected").increment();
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf((waitMillis + 999) / 1000));
+        response.setContentType("application/json");
+        objectMapper.writeValue(response.getOutputStream(), Map.of("error", "Rate limit exceeded, try again later"));
+        return false;
+    }
+
+    private Counter counter(String endpoint, String outcome) {
+        return Counter.builder("expenses.ratelimit.requests")
+            .description("Rate-limited endpoint calls by outcome")
+            .tag("endpoint", endpoint)
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+}
@@ -0,0 +1,19 @@
+package com.expenses_tracker.ratelimit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Charges each call to the endpoint against the caller's token bucket.
+ * The cost reflects how much work the endpoint does: a plain list costs 1,
+ * a full-scan report tens of tokens. Endpoints without it are not limited.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    /** Tokens taken per call */
+    int cost() default 1;
+}
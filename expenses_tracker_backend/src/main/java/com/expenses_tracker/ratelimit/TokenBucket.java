@@ -0,0 +1,51 @@
+package com.expenses_tracker.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket. The level and the time it was last refilled are
+ * swapped together as one immutable state with compare-and-set, so
+ * concurrent requests from the same user never block each other.
+ */
+final class TokenBucket {
+
+    private record State(double tokens, long updatedAt) {
+    }
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    TokenBucket(double capacity, double tokensPerSecond) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, System.nanoTime()));
+    }
+
+    /**
+     * Takes the tokens if available; returns 0 on success, otherwise the
+     * nanoseconds until enough tokens will have refilled
+     */
+    long tryConsume(int cost) {
+        double needed = Math.min(cost, capacity);
+        while (true) {
+            State current = state.get();
+            long now = System.nanoTime();
+            double available = level(current, now);
+            if (available < needed) {
+                return (long) Math.ceil((needed - available) / tokensPerNano);
+            }
+            if (state.compareAndSet(current, new State(available - needed, now))) {
+                return 0;
+            }
+        }
+    }
+
+    double available() {
+        return level(state.get(), System.nanoTime());
+    }
+
+    private double level(State current, long now) {
+        return Math.min(capacity, current.tokens() + (now - current.updatedAt()) * tokensPerNano);
+    }
+}
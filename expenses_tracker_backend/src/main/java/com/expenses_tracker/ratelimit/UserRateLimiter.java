@@ -0,0 +1,66 @@
+package com.expenses_tracker.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * One token bucket per user, refilling at a steady rate up to a burst
+ * capacity. Buckets of idle users are dropped once they would have refilled
+ * completely anyway.
+ */
+@Component
+public class UserRateLimiter {
+
+    private final boolean enabled;
+    private final double capacity;
+    private final double refillPerSecond;
+    private final Cache<String, TokenBucket> buckets;
+
+    public UserRateLimiter(MeterRegistry registry,
+                           @Value("${expenses.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${expenses.rate-limit.capacity:100}") double capacity,
+                           @Value("${expenses.rate-limit.refill-per-second:2}") double refillPerSecond,
+                           @Value("${expenses.rate-limit.max-users:100000}") long maxUsers) {
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxUsers)
+            .expireAfterAccess(Duration.ofMillis((long) Math.ceil(capacity / refillPerSecond * 1000)))
+            .build();
+
+        Gauge.builder("expenses.ratelimit.buckets", buckets, Cache::estimatedSize)
+            .description("Users with an active rate-limit bucket")
+            .register(registry);
+        Gauge.builder("expenses.ratelimit.depleted", this, UserRateLimiter::depletedCount)
+            .description("Users whose bucket is below a tenth of capacity")
+            .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Charges the user; returns 0 when allowed, otherwise milliseconds to wait
+     */
+    public long tryAcquire(String user, int cost) {
+        long waitNanos = buckets.get(user, u -> new TokenBucket(capacity, refillPerSecond)).tryConsume(cost);
+        return waitNanos == 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+    }
+
+    private double depletedCount() {
+        return buckets.asMap().values().stream()
+            .filter(bucket -> bucket.available() < capacity / 10)
+            .count();
+    }
+}
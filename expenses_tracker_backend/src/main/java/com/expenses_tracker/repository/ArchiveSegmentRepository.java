@@ -0,0 +1,37 @@
+package com.expenses_tracker.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.expenses_tracker.entity.ArchiveSegment;
+
+@Repository
+public interface ArchiveSegmentRepository extends JpaRepository<ArchiveSegment, Long> {
+
+    Optional<ArchiveSegment> findByUserIdAndSegmentYear(Long userId, int segmentYear);
+
+    List<ArchiveSegment> findByUserId(Long userId);
+
+    /**
+     * Segments of one user whose date span overlaps the range; null bounds are open
+     */
+    @Query("SELECT s FROM ArchiveSegment s WHERE s.userId = :userId " +
+           "AND (:startDate IS NULL OR s.maxDate >= :startDate) " +
+           "AND (:endDate IS NULL OR s.minDate <= :endDate)")
+    List<ArchiveSegment> findOverlapping(@Param("userId") Long userId,
+                                         @Param("startDate") LocalDate startDate,
+                                         @Param("endDate") LocalDate endDate);
+
+    /**
+     * Segments of every user whose date span overlaps the range
+     */
+    @Query("SELECT s FROM ArchiveSegment s WHERE s.maxDate >= :startDate AND s.minDate <= :endDate")
+    List<ArchiveSegment> findOverlappingAllUsers(@Param("startDate") LocalDate startDate,
+                                                 @Param("endDate") LocalDate endDate);
+}
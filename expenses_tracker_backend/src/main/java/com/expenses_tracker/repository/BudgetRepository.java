@@ -3,7 +3,6 @@ package com.expenses_tracker.repository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -18,21 +17,20 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
     /**
      * Find all budgets for a specific user
      */
-    List<Budget> findByUserId(Long userId);
+    @Query("SELECT b FROM Budget b WHERE b.user.id = :userId")
+    List<Budget> findByUserId(@Param("userId") Long userId);
 
     /**
-     * Find active budget for a user and category within a date range
+     * One user's rows with a change version in (since, until]
      */
-    @Query("SELECT b FROM Budget b WHERE b.user.id = :userId AND b.category = :category " +
-           "AND :expenseDate BETWEEN b.startDate AND b.endDate")
-    Optional<Budget> findActiveBudgetByUserAndCategory(@Param("userId") Long userId, 
-                                                       @Param("category") String category, 
-                                                       @Param("expenseDate") LocalDate expenseDate);
+    @Query("SELECT b FROM Budget b WHERE b.user.id = :userId " +
+           "AND b.changeVersion > :since AND b.changeVersion <= :until ORDER BY b.changeVersion")
+    List<Budget> findChangedSince(@Param("userId") Long userId, @Param("since") long since, @Param("until") long until);
 
     /**
      * Calculate total spending for a user and category within a budget's date range
      */
-    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e WHERE e.user.id = :userId " +
+    @Query("SELECT COALESCE(SUM(e.baseAmount), 0) FROM Expense e WHERE e.user.id = :userId " +
            "AND e.category = :category AND e.date BETWEEN :startDate AND :endDate")
     BigDecimal calculateTotalSpendingByUserAndCategory(@Param("userId") Long userId, 
                                                        @Param("category") String category, 
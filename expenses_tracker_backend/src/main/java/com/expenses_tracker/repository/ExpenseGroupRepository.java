@@ -0,0 +1,21 @@
+package com.expenses_tracker.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.expenses_tracker.entity.ExpenseGroup;
+
+@Repository
+public interface ExpenseGroupRepository extends JpaRepository<ExpenseGroup, Long> {
+
+    /**
+     * Groups the user is a member of, by name
+     */
+    @Query("SELECT g FROM ExpenseGroup g WHERE g.id IN " +
+           "(SELECT m.groupId FROM GroupMember m WHERE m.userId = :userId) ORDER BY g.name")
+    List<ExpenseGroup> findByMemberUserId(@Param("userId") Long userId);
+}
@@ -1,12 +1,16 @@
 package com.expenses_tracker.repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.expenses_tracker.entity.Expense;
 
@@ -50,15 +54,119 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     /**
      * Find expenses by user ID
      */
-    List<Expense> findByUserId(Long userId);
+    @Query("SELECT e FROM Expense e WHERE e.user.id = :userId")
+    List<Expense> findByUserId(@Param("userId") Long userId);
 
     /**
      * Find expenses by user ID, ordered by newest first
      */
-    List<Expense> findByUserIdOrderByDateDesc(Long userId);
+    @Query("SELECT e FROM Expense e WHERE e.user.id = :userId ORDER BY e.date DESC")
+    List<Expense> findByUserIdOrderByDateDesc(@Param("userId") Long userId);
 
     /**
      * Find all expenses ordered by newest first
      */
     List<Expense> findAllByOrderByDateDesc();
+
+    /**
+     * Filters one user's expenses; null parameters match every row
+     */
+    @Query("SELECT e FROM Expense e WHERE e.user.id = :userId " +
+           "AND (:category IS NULL OR LOWER(e.category) = LOWER(:category)) " +
+           "AND (:paymentMethod IS NULL OR LOWER(e.paymentMethod) = LOWER(:paymentMethod)) " +
+           "AND (:expenseType IS NULL OR LOWER(e.expenseType) = LOWER(:expenseType)) " +
+           "AND (:startDate IS NULL OR e.date >= :startDate) " +
+           "AND (:endDate IS NULL OR e.date <= :endDate) " +
+           "ORDER BY e.date DESC")
+    List<Expense> filterUserExpenses(@Param("userId") Long userId,
+                                     @Param("category") String category,
+                                     @Param("paymentMethod") String paymentMethod,
+                                     @Param("expenseType") String expenseType,
+                                     @Param("startDate") LocalDate startDate,
+                                     @Param("endDate") LocalDate endDate);
+
+    /**
+     * Sums one user's expense amounts; null parameters match every row
+     */
+    @Query("SELECT COALESCE(SUM(e.baseAmount), 0) FROM Expense e WHERE e.user.id = :userId " +
+           "AND (:category IS NULL OR LOWER(e.category) = LOWER(:category)) " +
+           "AND (:paymentMethod IS NULL OR LOWER(e.paymentMethod) = LOWER(:paymentMethod)) " +
+           "AND (:expenseType IS NULL OR LOWER(e.expenseType) = LOWER(:expenseType)) " +
+           "AND (:startDate IS NULL OR e.date >= :startDate) " +
+           "AND (:endDate IS NULL OR e.date <= :endDate)")
+    BigDecimal sumUserExpenses(@Param("userId") Long userId,
+                               @Param("category") String category,
+                               @Param("paymentMethod") String paymentMethod,
+                               @Param("expenseType") String expenseType,
+                               @Param("startDate") LocalDate startDate,
+                               @Param("endDate") LocalDate endDate);
+
+    /**
+     * Users owning at least one expense dated before the cutoff
+     */
+    @Query("SELECT DISTINCT e.user.id FROM Expense e WHERE e.date < :cutoff")
+    List<Long> findUserIdsWithExpensesBefore(@Param("cutoff") LocalDate cutoff);
+
+    /**
+     * Date of one user's oldest expense before the cutoff, or null if there is none
+     */
+    @Query("SELECT MIN(e.date) FROM Expense e WHERE e.user.id = :userId AND e.date < :cutoff")
+    LocalDate findEarliestDateBefore(@Param("userId") Long userId, @Param("cutoff") LocalDate cutoff);
+
+    /**
+     * One user's expenses dated on or after from and before until
+     */
+    @Query("SELECT e FROM Expense e WHERE e.user.id = :userId AND e.date >= :from AND e.date < :until")
+    List<Expense> findByUserIdAndDateFromUntil(@Param("userId") Long userId, @Param("from") LocalDate from,
+                                               @Param("until") LocalDate until);
+
+    /**
+     * Owner of an expense, without loading the row
+     */
+    @Query("SELECT e.user.id FROM Expense e WHERE e.id = :id")
+    Long findUserIdById(@Param("id") Long id);
+
+    /**
+     * Flips the pinned flag in place; returns rows changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Expense e SET e.isPinned = CASE WHEN e.isPinned = true THEN false ELSE true END, " +
+           "e.changeVersion = :version WHERE e.id = :id")
+    int togglePin(@Param("id") Long id, @Param("version") long version);
+
+    /**
+     * Sets the pinned flag of the given expenses owned by the user; returns rows changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Expense e SET e.isPinned = :pinned, e.changeVersion = :version " +
+           "WHERE e.user.id = :userId AND e.id IN :ids")
+    int setPinned(@Param("userId") Long userId, @Param("ids") Collection<Long> ids,
+                  @Param("pinned") boolean pinned, @Param("version") long version);
+
+    /**
+     * Moves the given expenses owned by the user to another category; returns rows changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Expense e SET e.category = :category, e.changeVersion = :version " +
+           "WHERE e.user.id = :userId AND e.id IN :ids")
+    int recategorize(@Param("userId") Long userId, @Param("ids") Collection<Long> ids,
+                     @Param("category") String category, @Param("version") long version);
+
+    /**
+     * Deletes the given expenses owned by the user; returns rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM Expense e WHERE e.user.id = :userId AND e.id IN :ids")
+    int deleteByUserIdAndIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * One user's rows with a change version in (since, until]
+     */
+    @Query("SELECT e FROM Expense e WHERE e.user.id = :userId " +
+           "AND e.changeVersion > :since AND e.changeVersion <= :until ORDER BY e.changeVersion")
+    List<Expense> findChangedSince(@Param("userId") Long userId, @Param("since") long since, @Param("until") long until);
 }
@@ -0,0 +1,28 @@
+package com.expenses_tracker.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.expenses_tracker.entity.GroupExpense;
+
+@Repository
+public interface GroupExpenseRepository extends JpaRepository<GroupExpense, Long> {
+
+    /**
+     * A page of a group's history, newest first, starting below beforeId
+     */
+    @Query("SELECT e FROM GroupExpense e WHERE e.groupId = :groupId AND e.id < :beforeId ORDER BY e.id DESC")
+    List<GroupExpense> findPage(@Param("groupId") Long groupId, @Param("beforeId") Long beforeId, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM GroupExpense e WHERE e.groupId = :groupId")
+    int deleteByGroupId(@Param("groupId") Long groupId);
+}
@@ -0,0 +1,31 @@
+package com.expenses_tracker.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.expenses_tracker.entity.GroupExpenseShare;
+
+@Repository
+public interface GroupExpenseShareRepository extends JpaRepository<GroupExpenseShare, Long> {
+
+    @Query("SELECT s FROM GroupExpenseShare s WHERE s.expenseId IN :expenseIds")
+    List<GroupExpenseShare> findByExpenseIdIn(@Param("expenseIds") Collection<Long> expenseIds);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM GroupExpenseShare s WHERE s.expenseId = :expenseId")
+    int deleteByExpenseId(@Param("expenseId") Long expenseId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM GroupExpenseShare s WHERE s.expenseId IN " +
+           "(SELECT e.id FROM GroupExpense e WHERE e.groupId = :groupId)")
+    int deleteByGroupId(@Param("groupId") Long groupId);
+}
@@ -0,0 +1,58 @@
+package com.expenses_tracker.repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.expenses_tracker.entity.GroupMember;
+
+@Repository
+public interface GroupMemberRepository extends JpaRepository<GroupMember, Long> {
+
+    @Query("SELECT m FROM GroupMember m WHERE m.groupId = :groupId")
+    List<GroupMember> findByGroupId(@Param("groupId") Long groupId);
+
+    @Query("SELECT m FROM GroupMember m WHERE m.groupId = :groupId AND m.userId = :userId")
+    Optional<GroupMember> findByGroupIdAndUserId(@Param("groupId") Long groupId, @Param("userId") Long userId);
+
+    @Query("SELECT m FROM GroupMember m WHERE m.groupId IN :groupIds")
+    List<GroupMember> findByGroupIdIn(@Param("groupIds") Collection<Long> groupIds);
+
+    /**
+     * One membership row per group the user belongs to
+     */
+    @Query("SELECT m FROM GroupMember m WHERE m.userId = :userId")
+    List<GroupMember> findByUserId(@Param("userId") Long userId);
+
+    /**
+     * Adds delta to a member's balance in the database, so concurrent
+     * postings to the same group never overwrite each other; returns rows updated
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE GroupMember m SET m.balance = m.balance + :delta " +
+           "WHERE m.groupId = :groupId AND m.userId = :userId")
+    int adjustBalance(@Param("groupId") Long groupId, @Param("userId") Long userId, @Param("delta") BigDecimal delta);
+
+    /**
+     * Removes a member only while their balance is zero, checked in the same
+     * statement; returns rows deleted
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM GroupMember m WHERE m.groupId = :groupId AND m.userId = :userId AND m.balance = 0")
+    int deleteSettledMember(@Param("groupId") Long groupId, @Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM GroupMember m WHERE m.groupId = :groupId")
+    int deleteByGroupId(@Param("groupId") Long groupId);
+}
@@ -1,9 +1,14 @@
 package com.expenses_tracker.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.expenses_tracker.entity.Notification;
 
@@ -13,15 +18,74 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     /**
      * Find all notifications for a specific user, ordered by newest first
      */
-    List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId ORDER BY n.createdAt DESC")
+    List<Notification> findByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId);
 
     /**
      * Find all unread notifications for a specific user, ordered by newest first
      */
-    List<Notification> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(Long userId);
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.isRead = false ORDER BY n.createdAt DESC")
+    List<Notification> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(@Param("userId") Long userId);
 
     /**
      * Find all read notifications for a specific user, ordered by newest first
      */
-    List<Notification> findByUserIdAndIsReadTrueOrderByCreatedAtDesc(Long userId);
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.isRead = true ORDER BY n.createdAt DESC")
+    List<Notification> findByUserIdAndIsReadTrueOrderByCreatedAtDesc(@Param("userId") Long userId);
+
+    /**
+     * Number of unread notifications for a user
+     */
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.isRead = false")
+    long countByUserIdAndIsReadFalse(@Param("userId") Long userId);
+
+    /**
+     * Owner of a notification, without loading the row
+     */
+    @Query("SELECT n.user.id FROM Notification n WHERE n.id = :id")
+    Long findUserIdById(@Param("id") Long id);
+
+    /**
+     * Sets the read flag of one notification if it differs; returns rows changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Notification n SET n.isRead = :read, n.changeVersion = :version WHERE n.id = :id AND n.isRead <> :read")
+    int setReadById(@Param("id") Long id, @Param("read") boolean read, @Param("version") long version);
+
+    /**
+     * Sets the read flag of the given notifications owned by the user; returns rows changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Notification n SET n.isRead = :read, n.changeVersion = :version " +
+           "WHERE n.user.id = :userId AND n.id IN :ids AND n.isRead <> :read")
+    int setReadByUserIdAndIds(@Param("userId") Long userId,
+                              @Param("ids") Collection<Long> ids,
+                              @Param("read") boolean read,
+                              @Param("version") long version);
+
+    /**
+     * Marks every unread notification of a user as read; returns rows changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Notification n SET n.isRead = true, n.changeVersion = :version " +
+           "WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllReadByUserId(@Param("userId") Long userId, @Param("version") long version);
+
+    /**
+     * Deletes every notification of a user; returns rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM Notification n WHERE n.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+
+    /**
+     * One user's rows with a change version in (since, until]
+     */
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId " +
+           "AND n.changeVersion > :since AND n.changeVersion <= :until ORDER BY n.changeVersion")
+    List<Notification> findChangedSince(@Param("userId") Long userId, @Param("since") long since, @Param("until") long until);
 }
@@ -3,6 +3,8 @@ package com.expenses_tracker.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.expenses_tracker.entity.RecurringBill;
@@ -13,7 +15,15 @@ public interface RecurringBillRepository extends JpaRepository<RecurringBill, Lo
     /**
      * Find all recurring bills for a specific user
      */
-    List<RecurringBill> findByUserId(Long userId);
+    @Query("SELECT r FROM RecurringBill r WHERE r.user.id = :userId")
+    List<RecurringBill> findByUserId(@Param("userId") Long userId);
+
+    /**
+     * One user's rows with a change version in (since, until]
+     */
+    @Query("SELECT r FROM RecurringBill r WHERE r.user.id = :userId " +
+           "AND r.changeVersion > :since AND r.changeVersion <= :until ORDER BY r.changeVersion")
+    List<RecurringBill> findChangedSince(@Param("userId") Long userId, @Param("since") long since, @Param("until") long until);
 
     /**
      * Find recurring bills that are due on a specific day of the month
@@ -0,0 +1,40 @@
+package com.expenses_tracker.repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.expenses_tracker.entity.SyncTombstone;
+
+@Repository
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+    /**
+     * Deletes of one user's rows with a change version in (since, until]
+     */
+    @Query("SELECT t FROM SyncTombstone t WHERE t.userId = :userId " +
+           "AND t.changeVersion > :since AND t.changeVersion <= :until ORDER BY t.changeVersion")
+    List<SyncTombstone> findChangedSince(@Param("userId") Long userId,
+                                         @Param("since") long since,
+                                         @Param("until") long until);
+
+    /**
+     * Highest change version among tombstones older than the cutoff
+     */
+    @Query("SELECT MAX(t.changeVersion) FROM SyncTombstone t WHERE t.deletedAt < :cutoff")
+    Long findMaxVersionDeletedBefore(@Param("cutoff") Timestamp cutoff);
+
+    /**
+     * Removes tombstones older than the cutoff; returns rows deleted
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SyncTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteByDeletedAtBefore(@Param("cutoff") Timestamp cutoff);
+}
@@ -1,5 +1,7 @@
 package com.expenses_tracker.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -26,6 +28,9 @@ Optional<User> findByUsername(@Param("username") String username);
      */
     boolean existsByUsername(String username);
 
-    
-
+    /**
+     * (id, username) pairs for the given users, without loading their roles
+     */
+    @Query("SELECT u.id, u.username FROM User u WHERE u.id IN :ids")
+    List<Object[]> findUsernames(@Param("ids") Collection<Long> ids);
 }
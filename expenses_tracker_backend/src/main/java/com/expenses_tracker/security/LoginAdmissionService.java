@@ -0,0 +1,199 @@
+package com.expenses_tracker.security;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Admission control in front of password verification.
+ *
+ * BCrypt costs tens of milliseconds of CPU per attempt, so logins run on a
+ * small dedicated pool with a bounded queue instead of on request threads.
+ * When the queue is full the attempt is refused at once with 503, so a login
+ * storm cannot starve other endpoints of CPU.
+ *
+ * Before any hashing, attempts are throttled per client IP (all attempts) and
+ * per username (failed attempts) over sliding windows, answering 429. The
+ * client IP comes from the configured header only on connections from a
+ * trusted proxy; anyone else could put any address there.
+ */
+@Service
+public class LoginAdmissionService {
+
+    private final AuthenticationManager authenticationManager;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final String clientIpHeader;
+    private final List<IpAddressMatcher> trustedProxies;
+    private final SlidingWindowThrottle ipThrottle;
+    private final SlidingWindowThrottle usernameThrottle;
+    private final Counter throttledIp;
+    private final Counter throttledUsername;
+    private final Counter overloaded;
+
+    public LoginAdmissionService(AuthenticationManager authenticationManager,
+                                 MeterRegistry registry,
+                                 @Value("${expenses.auth.login.hash-threads:0}") int hashThreads,
+                                 @Value("${expenses.auth.login.max-queue:64}") int maxQueue,
+                                 @Value("${expenses.auth.login.timeout-ms:5000}") long timeoutMillis,
+                                 @Value("${expenses.auth.login.client-ip-header:}") String clientIpHeader,
+                                 @Value("${expenses.auth.login.trusted-proxies:}") String trustedProxies,
+                                 @Value("${expenses.auth.login.ip-limit:30}") int ipLimit,
+                                 @Value("${expenses.auth.login.ip-window-seconds:60}") long ipWindowSeconds,
+                                 @Value("${expenses.auth.login.username-failure-limit:5}") int usernameLimit,
+                                 @Value("${expenses.auth.login.username-window-seconds:900}") long usernameWindowSeconds) {
+        this.authenticationManager = authenticationManager;
+        this.timeoutMillis = timeoutMillis;
+        this.clientIpHeader = clientIpHeader;
+        this.trustedProxies = Arrays.stream(trustedProxies.split(","))
+            .map(String::trim).filter(s -> !s.isEmpty()).map(IpAddressMatcher::new).toList();
+        if (!clientIpHeader.isBlank() && this.trustedProxies.isEmpty()) {
+            System.out.println("expenses.auth.login.client-ip-header is set but no trusted proxies are; "
+                + "throttling by connection address");
+        }
+
+        int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(maxQueue), runnable -> {
+                Thread thread = new Thread(runnable, "login-hash-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.ipThrottle = new SlidingWindowThrottle(ipLimit, Duration.ofSeconds(ipWindowSeconds), 100_000);
+        this.usernameThrottle = new SlidingWindowThrottle(usernameLimit, Duration.ofSeconds(usernameWindowSeconds), 100_000);
+
+        Gauge.builder("expenses.auth.login.queue", executor, e -> e.getQueue().size())
+            .description("Login attempts waiting for a password hashing thread")
+            .register(registry);
+        this.throttledIp = rejected(registry, "ip");
+        this.throttledUsername = rejected(registry, "username");
+        this.overloaded = rejected(registry, "overloaded");
+    }
+
+    private static Counter rejected(MeterRegistry registry, String reason) {
+        return Counter.builder("expenses.auth.login.rejected")
+            .description("Login attempts refused before the password was checked")
+            .tag("reason", reason)
+            .register(registry);
+    }
+
+    /**
+     * Authenticates on the hashing pool after passing the throttles; throws
+     * LoginRejectedException when refused, or the AuthenticationException on bad credentials
+     */
+    public Authentication authenticate(String username, String password, HttpServletRequest request) {
+        String ip = clientIp(request);
+        String user = username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+
+        long ipRetry = ipThrottle.retryAfterMillis(ip);
+        if (ipRetry > 0) {
+            throttledIp.increment();
+            throw new LoginRejectedException(429, seconds(ipRetry), "Too many login attempts, try again later");
+        }
+        ipThrottle.record(ip);
+
+        long userRetry = usernameThrottle.retryAfterMillis(user);
+        if (userRetry > 0) {
+            throttledUsername.increment();
+            throw new LoginRejectedException(429, seconds(userRetry), "Too many failed logins for this account, try again later");
+        }
+
+        Future<Authentication> result;
+        try {
+            result = executor.submit(() -> authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(username, password)));
+        } catch (RejectedExecutionException e) {
+            overloaded.increment();
+            throw new LoginRejectedException(503, 1, "Login is busy, try again shortly");
+        }
+
+        try {
+            Authentication authentication = result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            usernameThrottle.reset(user);
+            return authentication;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AuthenticationException authenticationException) {
+                usernameThrottle.record(user);
+                throw authenticationException;
+            }
+            throw new RuntimeException("Login failed", e.getCause());
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            overloaded.increment();
+            throw new LoginRejectedException(503, 1, "Login is busy, try again shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new LoginRejectedException(503, 1, "Login interrupted");
+        }
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        String remote = request.getRemoteAddr();
+        if (clientIpHeader.isBlank() || !trusted(remote)) {
+            return remote;
+        }
+        String forwarded = request.getHeader(clientIpHeader);
+        if (forwarded == null || forwarded.isBlank()) {
+            return remote;
+        }
+        // X-Forwarded-For style lists grow to the right, and only entries added by
+        // trusted proxies can be believed, so take the last one that is not a proxy
+        String[] hops = forwarded.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!hop.isEmpty() && (i == 0 || !trusted(hop))) {
+                return hop;
+            }
+        }
+        return remote;
+    }
+
+    private boolean trusted(String address) {
+        for (IpAddressMatcher proxy : trustedProxies) {
+            try {
+                if (proxy.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                // Not an IP address
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static long seconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
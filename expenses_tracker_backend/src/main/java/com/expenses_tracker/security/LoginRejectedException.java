@@ -0,0 +1,25 @@
+package com.expenses_tracker.security;
+
+/**
+ * A login attempt refused before the password was checked, either because
+ * the client is throttled (429) or the hashing pool is saturated (503).
+ */
+public class LoginRejectedException extends RuntimeException {
+
+    private final int status;
+    private final long retryAfterSeconds;
+
+    public LoginRejectedException(int status, long retryAfterSeconds, String message) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
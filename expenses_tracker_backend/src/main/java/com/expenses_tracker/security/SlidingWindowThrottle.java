@@ -0,0 +1,67 @@
+package com.expenses_tracker.security;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Allows at most a fixed number of events per key within a sliding time window.
+ *
+ * Each key keeps the timestamps of its recent events (never more than the
+ * limit), so the window slides exactly instead of resetting at fixed
+ * boundaries. Idle keys expire once their window has passed.
+ */
+public class SlidingWindowThrottle {
+
+    private final int limit;
+    private final long windowMillis;
+    private final Cache<String, ArrayDeque<Long>> events;
+
+    public SlidingWindowThrottle(int limit, Duration window, long maxKeys) {
+        this.limit = limit;
+        this.windowMillis = window.toMillis();
+        this.events = Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterAccess(window)
+            .build();
+    }
+
+    /**
+     * Milliseconds until the key may have another event; 0 when it is under the limit
+     */
+    public long retryAfterMillis(String key) {
+        ArrayDeque<Long> times = events.getIfPresent(key);
+        if (times == null) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (times) {
+            evictExpired(times, now);
+            return times.size() < limit ? 0 : times.peekFirst() + windowMillis - now;
+        }
+    }
+
+    public void record(String key) {
+        ArrayDeque<Long> times = events.get(key, k -> new ArrayDeque<>());
+        long now = System.currentTimeMillis();
+        synchronized (times) {
+            evictExpired(times, now);
+            if (times.size() >= limit) {
+                times.pollFirst();
+            }
+            times.addLast(now);
+        }
+    }
+
+    public void reset(String key) {
+        events.invalidate(key);
+    }
+
+    private void evictExpired(ArrayDeque<Long> times, long now) {
+        while (!times.isEmpty() && times.peekFirst() <= now - windowMillis) {
+            times.pollFirst();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.expenses_tracker.security;
+
+import java.io.IOException;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.expenses_tracker.entity.ERole;
+import com.expenses_tracker.entity.Role;
+import com.expenses_tracker.entity.User;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Authenticates requests carrying "Authorization: Bearer <token>" in the
+ * stateless auth mode. The principal is rebuilt from the token claims alone,
+ * without touching the database or the HTTP session.
+ *
+ * Not a bean on purpose: Spring Boot would otherwise register it as a
+ * servlet filter in session mode as well.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final TokenService tokenService;
+
+    public TokenAuthenticationFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith(BEARER)) {
+            TokenService.TokenClaims claims = tokenService.verify(header.substring(BEARER.length()).trim());
+            CustomUserDetails principal = claims != null ? toPrincipal(claims) : null;
+            if (principal != null) {
+                UsernamePasswordAuthenticationToken authentication =
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private CustomUserDetails toPrincipal(TokenService.TokenClaims claims) {
+        User user = new User();
+        user.setId(claims.userId());
+        user.setUsername(claims.username());
+        try {
+            for (String role : claims.roles()) {
+                user.getRoles().add(new Role(ERole.valueOf(role)));
+            }
+        } catch (IllegalArgumentException e) {
+            // Role no longer exists in this build
+            return null;
+        }
+        return new CustomUserDetails(user);
+    }
+}
@@ -0,0 +1,186 @@
+package com.expenses_tracker.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Issues and verifies HS256-signed bearer tokens for the stateless auth mode.
+ *
+ * A token carries the user id, username and roles, so verifying one needs no
+ * database or session lookup and any node can serve any request. Tokens are
+ * signed with jwt.secret; secrets listed in jwt.previous-secrets are still
+ * accepted, which lets the key be rotated without logging everyone out. Each
+ * key is identified in the token header by a kid derived from its hash.
+ *
+ * Verified tokens are remembered for a short time so repeat requests skip the
+ * HMAC and JSON parsing. The expiry is checked again on every hit.
+ */
+@Service
+public class TokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /** Claims of a verified token */
+    public record TokenClaims(Long userId, String username, List<String> roles, long expiresAt) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final boolean stateless;
+    private final long expirationMillis;
+    private final String currentKeyId;
+    // kid -> key; the current key first, then previous ones still accepted
+    private final Map<String, SecretKeySpec> keys = new LinkedHashMap<>();
+    private final Cache<String, TokenClaims> verified;
+
+    public TokenService(ObjectMapper objectMapper,
+                        @Value("${expenses.auth.mode:session}") String mode,
+                        @Value("${jwt.secret}") String secret,
+                        @Value("${jwt.previous-secrets:}") List<String> previousSecrets,
+                        @Value("${jwt.expiration:3600000}") long expirationMillis,
+                        @Value("${jwt.verification-cache.max-size:100000}") long cacheSize,
+                        @Value("${jwt.verification-cache.ttl-seconds:60}") long cacheTtlSeconds) {
+        this.objectMapper = objectMapper;
+        this.stateless = "token".equalsIgnoreCase(mode.trim());
+        this.expirationMillis = expirationMillis;
+        this.currentKeyId = addKey(secret);
+        for (String previous : previousSecrets) {
+            if (!previous.isBlank()) {
+                addKey(previous.trim());
+            }
+        }
+        this.verified = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+            .build();
+        if (stateless && secret.getBytes(StandardCharsets.UTF_8).length < 32) {
+            System.err.println("WARNING: jwt.secret is shorter than 32 bytes; use a longer secret in production");
+        }
+    }
+
+    private String addKey(String secret) {
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        String kid;
+        try {
+            kid = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes), 0, 8);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        keys.putIfAbsent(kid, new SecretKeySpec(bytes, ALGORITHM));
+        return kid;
+    }
+
+    /** True when expenses.auth.mode=token */
+    public boolean isStateless() {
+        return stateless;
+    }
+
+    public long getExpirationMillis() {
+        return expirationMillis;
+    }
+
+    /**
+     * Signs a token for the user with the current key
+     */
+    public String issue(Long userId, String username, Collection<String> roles) {
+        long now = System.currentTimeMillis();
+        Map<String, Object> header = new LinkedHashMap<>();
+        header.put("alg", "HS256");
+        header.put("typ", "JWT");
+        header.put("kid", currentKeyId);
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("sub", username);
+        payload.put("uid", userId);
+        payload.put("roles", roles);
+        payload.put("iat", now / 1000);
+        payload.put("exp", (now + expirationMillis) / 1000);
+
+        try {
+            String signingInput = ENCODER.encodeToString(objectMapper.writeValueAsBytes(header))
+                + "." + ENCODER.encodeToString(objectMapper.writeValueAsBytes(payload));
+            return signingInput + "." + ENCODER.encodeToString(sign(keys.get(currentKeyId), signingInput));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not issue token", e);
+        }
+    }
+
+    /**
+     * Claims of a valid, unexpired token signed with a known key; null otherwise
+     */
+    public TokenClaims verify(String token) {
+        TokenClaims claims = verified.getIfPresent(token);
+        if (claims == null) {
+            claims = parse(token);
+            if (claims == null) {
+                return null;
+            }
+            verified.put(token, claims);
+        }
+        if (claims.expiresAt() <= System.currentTimeMillis() / 1000) {
+            verified.invalidate(token);
+            return null;
+        }
+        return claims;
+    }
+
+    private TokenClaims parse(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            JsonNode header = objectMapper.readTree(DECODER.decode(parts[0]));
+            if (!"HS256".equals(header.path("alg").asText())) {
+                return null;
+            }
+            SecretKeySpec key = keys.get(header.path("kid").asText());
+            if (key == null) {
+                return null;
+            }
+            byte[] expected = sign(key, parts[0] + "." + parts[1]);
+            if (!MessageDigest.isEqual(expected, DECODER.decode(parts[2]))) {
+                return null;
+            }
+
+            JsonNode payload = objectMapper.readTree(DECODER.decode(parts[1]));
+            List<String> roles = new ArrayList<>();
+            payload.path("roles").forEach(role -> roles.add(role.asText()));
+            if (!payload.hasNonNull("uid") || !payload.hasNonNull("sub") || !payload.hasNonNull("exp")) {
+                return null;
+            }
+            return new TokenClaims(payload.get("uid").asLong(), payload.get("sub").asText(),
+                List.copyOf(roles), payload.get("exp").asLong());
+        } catch (Exception e) {
+            // Malformed base64 or JSON
+            return null;
+        }
+    }
+
+    private byte[] sign(SecretKeySpec key, String signingInput) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(ALGORITHM);
+        mac.init(key);
+        return mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+    }
+}
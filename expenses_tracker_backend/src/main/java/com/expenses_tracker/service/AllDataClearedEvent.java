@@ -0,0 +1,8 @@
+package com.expenses_tracker.service;
+
+/**
+ * Published by UserAccountService once every user and expense is deleted,
+ * so each component can drop everything it holds
+ */
+public record AllDataClearedEvent() {
+}
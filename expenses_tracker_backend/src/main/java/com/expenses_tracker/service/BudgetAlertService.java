@@ -0,0 +1,89 @@
+package com.expenses_tracker.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.expenses_tracker.cache.BudgetIndex;
+import com.expenses_tracker.entity.Budget;
+import com.expenses_tracker.entity.Expense;
+import com.expenses_tracker.repository.BudgetRepository;
+import com.expenses_tracker.util.Money;
+
+/**
+ * Budget limit checks shared by the expense write path and the manual
+ * check-alerts endpoint. Overlapping budgets in the same category are each
+ * evaluated against their own date range.
+ */
+@Service
+public class BudgetAlertService {
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private BudgetIndex budgetIndex;
+
+    /**
+     * Checks every budget covering a newly added expense; returns alerts created
+     */
+    public int checkExpense(Expense expense) {
+        Long userId = expense.getUser().getId();
+        List<Budget> budgets = budgetIndex.covering(userId, expense.getCategory(), expense.getDate());
+        int alerts = 0;
+        for (Budget budget : budgets) {
+            if (evaluate(budget, userId, expense.getUser().getPreferredCurrency(), budgets.size() > 1)) {
+                alerts++;
+            }
+        }
+        return alerts;
+    }
+
+    /**
+     * Notifies the user when spending is over, or within 10% of, the budget limit;
+     * returns true if an alert was created
+     */
+    private boolean evaluate(Budget budget, Long userId, String currency, boolean namePeriod) {
+        Money limit = Money.of(budget.getLimitAmount(), currency);
+        Money totalSpending = Money.of(budgetRepository.calculateTotalSpendingByUserAndCategory(
+            userId, budget.getCategory(), budget.getStartDate(), budget.getEndDate()), currency);
+
+        // Tell overlapping budgets of the same category apart by their period
+        String message = alertMessage(periodName(budget, namePeriod), limit, totalSpending, currency);
+        if (message == null) {
+            return false;
+        }
+        notificationService.createNotification(userId, message);
+        return true;
+    }
+
+    static String periodName(Budget budget, boolean namePeriod) {
+        return namePeriod
+            ? budget.getCategory() + " (" + budget.getStartDate() + " to " + budget.getEndDate() + ")"
+            : budget.getCategory();
+    }
+
+    /**
+     * The exceeded or approaching-limit (over 90%) alert for a budget; null when under both
+     */
+    static String alertMessage(String name, Money limit, Money totalSpending, String currency) {
+        // Calculate remaining budget
+        Money remainingBudget = limit.minus(totalSpending);
+
+        // Check if budget exceeded (Over Limit - 100%+)
+        if (remainingBudget.isZeroOrNegative()) {
+            return String.format("🚨 Budget Alert: You have exceeded your %s budget of %s! Current spending: %s",
+                name, Money.format(limit.toBigDecimal(), currency), Money.format(totalSpending.toBigDecimal(), currency));
+        }
+        // Check if spending exceeds 90% of budget limit (Approaching limit)
+        if (totalSpending.exceedsFractionOf(limit, 9, 10)) {
+            return String.format("⚠️ Budget Alert: You have only %s left in your %s budget!",
+                Money.format(remainingBudget.toBigDecimal(), currency), name);
+        }
+        return null;
+    }
+}
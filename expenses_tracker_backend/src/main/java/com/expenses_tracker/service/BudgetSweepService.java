@@ -0,0 +1,185 @@
+package com.expenses_tracker.service;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.expenses_tracker.entity.Budget;
+import com.expenses_tracker.sync.SyncClock;
+import com.expenses_tracker.util.Money;
+
+/**
+ * Scheduled check of every active budget against its spending.
+ *
+ * Users with an active budget are walked in ascending id order, a chunk at a
+ * time. For each chunk one grouped join of budget and expense yields the
+ * spending of every active budget, one query loads the chunk's alerts from
+ * the last 24 hours (to skip repeats, as NotificationService does), and the
+ * new warning and exceeded alerts are written in a single batch insert.
+ */
+@Service
+public class BudgetSweepService {
+
+    private static final String SELECT_USERS =
+        "SELECT DISTINCT user_id FROM budget " +
+        "WHERE user_id > ? AND start_date <= ? AND end_date >= ? ORDER BY user_id LIMIT ?";
+
+    private static final String SELECT_UTILIZATION =
+        "SELECT b.id, b.user_id, b.category, b.limit_amount, b.start_date, b.end_date, u.preferred_currency, " +
+        "COALESCE(SUM(e.base_amount), 0) AS spent " +
+        "FROM budget b JOIN users u ON u.id = b.user_id " +
+        "LEFT JOIN expense e ON e.user_id = b.user_id AND e.category = b.category " +
+        "AND e.date BETWEEN b.start_date AND b.end_date " +
+        "WHERE b.user_id BETWEEN ? AND ? AND b.start_date <= ? AND b.end_date >= ? " +
+        "GROUP BY b.id, b.user_id, b.category, b.limit_amount, b.start_date, b.end_date, u.preferred_currency";
+
+    private static final String SELECT_RECENT_ALERTS =
+        "SELECT user_id, message FROM notification WHERE user_id BETWEEN ? AND ? AND created_at >= ?";
+
+    private static final String INSERT_NOTIFICATION =
+        "INSERT INTO notification (message, is_read, created_at, user_id, change_version) VALUES (?, false, ?, ?, ?)";
+
+    /** Budgets whose utilization was computed, and alerts written for them */
+    public record SweepResult(int budgetsChecked, int alertsCreated) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SyncClock syncClock;
+
+    @Autowired
+    private UnreadNotificationCounter unreadCounter;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${expenses.budget-sweep.enabled:true}")
+    private boolean enabled;
+
+    @Value("${expenses.budget-sweep.chunk-size:500}")
+    private int chunkSize;
+
+    public BudgetSweepService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${expenses.budget-sweep.cron:0 0 7 * * *}")
+    public void sweepAllUsers() {
+        if (enabled) {
+            run(LocalDate.now());
+        }
+    }
+
+    /**
+     * Checks every budget active on the given date, for all users
+     */
+    public SweepResult run(LocalDate today) {
+        long started = System.currentTimeMillis();
+        int checked = 0;
+        int alerts = 0;
+        long lastUserId = 0;
+        while (true) {
+            List<Long> userIds = jdbcTemplate.queryForList(SELECT_USERS, Long.class,
+                lastUserId, Date.valueOf(today), Date.valueOf(today), chunkSize);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            lastUserId = userIds.get(userIds.size() - 1);
+            SweepResult chunk = sweepRange(userIds.get(0), lastUserId, today);
+            checked += chunk.budgetsChecked();
+            alerts += chunk.alertsCreated();
+        }
+        System.out.println("Budget sweep: " + alerts + " alerts for " + checked + " active budgets in "
+            + (System.currentTimeMillis() - started) + " ms");
+        return new SweepResult(checked, alerts);
+    }
+
+    /**
+     * Checks one user's budgets active on the given date
+     */
+    public SweepResult sweepUser(Long userId, LocalDate today) {
+        return sweepRange(userId, userId, today);
+    }
+
+    private SweepResult sweepRange(long firstUserId, long lastUserId, LocalDate today) {
+        Map<Long, Integer> created = new HashMap<>();
+        SweepResult result = transactionTemplate.execute(status -> {
+            List<Utilization> rows = jdbcTemplate.query(SELECT_UTILIZATION, (rs, rowNum) -> new Utilization(
+                    rs.getLong("user_id"),
+                    budget(rs.getLong("id"), rs.getString("category"), rs.getBigDecimal("limit_amount"),
+                        rs.getDate("start_date").toLocalDate(), rs.getDate("end_date").toLocalDate()),
+                    rs.getString("preferred_currency"),
+                    rs.getBigDecimal("spent")),
+                firstUserId, lastUserId, Date.valueOf(today), Date.valueOf(today));
+            if (rows.isEmpty()) {
+                return new SweepResult(0, 0);
+            }
+
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            Set<String> recent = new HashSet<>();
+            jdbcTemplate.query(SELECT_RECENT_ALERTS,
+                rs -> { recent.add(rs.getLong(1) + ":" + rs.getString(2)); },
+                firstUserId, lastUserId, new Timestamp(now.getTime() - 24L * 60 * 60 * 1000));
+
+            // Overlapping budgets of one category get their period named in the alert
+            Map<String, Integer> perCategory = new HashMap<>();
+            rows.forEach(r -> perCategory.merge(r.userId + ":" + r.budget.getCategory(), 1, Integer::sum));
+
+            // JDBC writes skip the entity listener, so stamp the change version here
+            long version = syncClock.currentTransactionVersion();
+            List<Object[]> inserts = new ArrayList<>();
+            for (Utilization row : rows) {
+                boolean overlapping = perCategory.get(row.userId + ":" + row.budget.getCategory()) > 1;
+                String message = BudgetAlertService.alertMessage(
+                    BudgetAlertService.periodName(row.budget, overlapping),
+                    Money.of(row.budget.getLimitAmount(), row.currency),
+                    Money.of(row.spent, row.currency),
+                    row.currency);
+                if (message != null && recent.add(row.userId + ":" + message)) {
+                    inserts.add(new Object[]{message, now, row.userId, version});
+                    created.merge(row.userId, 1, Integer::sum);
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, inserts);
+            return new SweepResult(rows.size(), inserts.size());
+        });
+        created.forEach(unreadCounter::adjust);
+        return result;
+    }
+
+    private static Budget budget(long id, String category, BigDecimal limit, LocalDate start, LocalDate end) {
+        Budget budget = new Budget(category, limit, start, end, null);
+        budget.setId(id);
+        return budget;
+    }
+
+    private static class Utilization {
+        final long userId;
+        final Budget budget;
+        final String currency;
+        final BigDecimal spent;
+
+        Utilization(long userId, Budget budget, String currency, BigDecimal spent) {
+            this.userId = userId;
+            this.budget = budget;
+            this.currency = currency;
+            this.spent = spent;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.expenses_tracker.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.expenses_tracker.util.Money;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Dated exchange rates loaded from a local CSV file.
+ *
+ * Each line is "effective_date,currency,rate" where rate is the price of one
+ * unit of the currency in the pivot currency, e.g. "2025-01-01,USD,83.10" with
+ * an INR pivot. The rate used for a date is the latest one on or before it,
+ * or the earliest one for dates before any rate.
+ */
+@Service
+public class ExchangeRateService {
+
+    private static final MathContext PRECISION = MathContext.DECIMAL64;
+
+    private final Path ratesFile;
+    private final String pivotCurrency;
+    private volatile Map<String, NavigableMap<LocalDate, BigDecimal>> rates = new HashMap<>();
+
+    public ExchangeRateService(@Value("${expenses.fx.rates-file:exchange-rates.csv}") String ratesFile,
+                               @Value("${expenses.fx.pivot-currency:INR}") String pivotCurrency) {
+        this.ratesFile = Paths.get(ratesFile);
+        this.pivotCurrency = pivotCurrency.toUpperCase(Locale.ROOT);
+    }
+
+    @PostConstruct
+    public void reload() {
+        if (!Files.exists(ratesFile)) {
+            System.out.println("No exchange rate file at " + ratesFile.toAbsolutePath()
+                + "; only same-currency amounts can be recorded");
+            rates = new HashMap<>();
+            return;
+        }
+
+        Map<String, NavigableMap<LocalDate, BigDecimal>> loaded = new HashMap<>();
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(ratesFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("effective_date")) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                if (parts.length != 3) {
+                    throw new IllegalStateException("Expected 3 columns at " + ratesFile + ":" + lineNumber);
+                }
+                LocalDate date = LocalDate.parse(parts[0].trim());
+                String currency = parts[1].trim().toUpperCase(Locale.ROOT);
+                BigDecimal rate = new BigDecimal(parts[2].trim());
+                loaded.computeIfAbsent(currency, c -> new TreeMap<>()).put(date, rate);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read exchange rates from " + ratesFile, e);
+        }
+
+        rates = loaded;
+        System.out.println("Loaded exchange rates for " + loaded.size() + " currencies from " + ratesFile);
+    }
+
+    /**
+     * Convert an amount between currencies using the rates in effect on the given date
+     */
+    public BigDecimal convert(BigDecimal amount, String fromCurrency, String toCurrency, LocalDate date) {
+        if (amount == null) {
+            return null;
+        }
+        String from = fromCurrency.toUpperCase(Locale.ROOT);
+        String to = toCurrency.toUpperCase(Locale.ROOT);
+        if (from.equals(to)) {
+            return amount.setScale(Money.MINOR_SCALE, RoundingMode.HALF_UP);
+        }
+
+        BigDecimal inPivot = amount.multiply(rateToPivot(from, date), PRECISION);
+        return inPivot.divide(rateToPivot(to, date), PRECISION)
+            .setScale(Money.MINOR_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private BigDecimal rateToPivot(String currency, LocalDate date) {
+        if (currency.equals(pivotCurrency)) {
+            return BigDecimal.ONE;
+        }
+        NavigableMap<LocalDate, BigDecimal> history = rates.get(currency);
+        if (history == null || history.isEmpty()) {
+            throw new RuntimeException("No exchange rate for " + currency);
+        }
+        // Dates before the first recorded rate use the earliest one
+        Map.Entry<LocalDate, BigDecimal> entry = history.floorEntry(date);
+        return (entry != null ? entry : history.firstEntry()).getValue();
+    }
+}
@@ -1,14 +1,18 @@
 package com.expenses_tracker.service;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
+import com.expenses_tracker.dto.ExpenseFilter;
 import com.expenses_tracker.entity.Expense;
+import com.expenses_tracker.entity.User;
 
 public interface ExpenseService {
 
     // CREATE
-    Expense addExpense(Expense expense);
+    // Checks for a likely duplicate first, unless allowDuplicate is set, and fills a blank category
+    Expense addExpense(Expense expense, boolean allowDuplicate);
 
     // READ
     List<Expense> getAllExpenses();
@@ -28,6 +32,13 @@ public interface ExpenseService {
     // ACTION
     void togglePin(Long id);
 
+    // BULK (single statement each; return affected-row counts)
+    int recategorizeExpenses(Long userId, List<Long> ids, String category);
+
+    int deleteExpenses(Long userId, List<Long> ids);
+
+    int pinExpenses(Long userId, List<Long> ids, boolean pinned);
+
     // SEARCH
     List<Expense> searchByKeyword(String keyword);
 
@@ -39,4 +50,15 @@ public interface ExpenseService {
     List<Expense> filterByDateRange(LocalDate startDate, LocalDate endDate);
 
     List<Expense> filterByTypeAndCategory(String expenseType, String category);
+
+    // USER-SCOPED QUERIES
+    List<Expense> filterUserExpenses(Long userId, ExpenseFilter filter);
+
+    BigDecimal sumUserExpenses(Long userId, ExpenseFilter filter);
+
+    // CURRENCY
+    int rebaseUserExpenses(Long userId);
+
+    // Saves the user, first re-converting their expenses if the preferred currency changed; all or nothing
+    User saveUserWithCurrency(User user, String previousCurrency);
 }
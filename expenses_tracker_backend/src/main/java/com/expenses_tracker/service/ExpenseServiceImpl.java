@@ -2,18 +2,36 @@ package com.expenses_tracker.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.expenses_tracker.anomaly.SpendingAnomalyDetector;
+import com.expenses_tracker.archive.ExpenseArchive;
+import com.expenses_tracker.cache.ExpenseColumnStore;
+import com.expenses_tracker.categorizer.CategoryClassifier;
+import com.expenses_tracker.dto.ExpenseFilter;
+import com.expenses_tracker.duplicates.DuplicateExpenseException;
+import com.expenses_tracker.duplicates.DuplicateIndex;
 import com.expenses_tracker.entity.Budget;
 import com.expenses_tracker.entity.Expense;
+import com.expenses_tracker.entity.RecurringBill;
 import com.expenses_tracker.entity.User; // <-- 1. NEW IMPORT
 import com.expenses_tracker.repository.BudgetRepository;
 import com.expenses_tracker.repository.ExpenseRepository;
+import com.expenses_tracker.repository.RecurringBillRepository;
 import com.expenses_tracker.repository.UserRepository; // <-- 2. NEW IMPORT
+import com.expenses_tracker.sync.SyncClock;
+import com.expenses_tracker.sync.TombstoneRecorder;
+import com.expenses_tracker.util.Money;
 
 @Service
 public class ExpenseServiceImpl implements ExpenseService {
@@ -28,10 +46,43 @@ public class ExpenseServiceImpl implements ExpenseService {
     private BudgetRepository budgetRepository;
 
     @Autowired
-    private NotificationService notificationService;
+    private RecurringBillRepository recurringBillRepository;
+
+    @Autowired
+    private BudgetAlertService budgetAlertService;
+
+    @Autowired
+    private ExpenseColumnStore columnStore;
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ExpenseArchive archive;
+
+    @Autowired
+    private SyncClock syncClock;
+
+    @Autowired
+    private TombstoneRecorder tombstones;
+
+    @Autowired
+    private DuplicateIndex duplicateIndex;
+
+    @Autowired
+    private CategoryClassifier categoryClassifier;
+
+    @Autowired
+    private SpendingAnomalyDetector spendingAnomalies;
+
+    @Autowired
+    private ApplicationEventPublisher events;
 
     @Override
-    public Expense addExpense(Expense expense) {
+    public Expense addExpense(Expense expense, boolean allowDuplicate) {
         // Validate that user was set (should be set by controller from authentication)
         if (expense.getUser() == null) {
             throw new RuntimeException("User must be set to add an expense.");
@@ -49,32 +100,90 @@ public class ExpenseServiceImpl implements ExpenseService {
         if (expense.getDate() == null) {
             expense.setDate(LocalDate.now());
         }
+
+        // Convert once, at write time, so aggregates never convert per row
+        if (expense.getCurrency() == null || expense.getCurrency().isBlank()) {
+            expense.setCurrency(expense.getUser().getPreferredCurrency());
+        }
+        applyBaseAmount(expense, expense.getUser().getPreferredCurrency());
+
+        // Fill in a missing category when the user's own history makes one likely
+        boolean autoCategorized = false;
+        if (expense.getCategory() == null || expense.getCategory().isBlank()) {
+            String category = categoryClassifier.autoCategory(expense.getUser().getId(),
+                    expense.getTitle(), expense.getDescription());
+            if (category != null) {
+                expense.setCategory(category);
+                autoCategorized = true;
+            }
+        }
         
-        // Save the expense
-        Expense savedExpense = expenseRepository.save(expense);
+        // Save the expense, checked against the user's earlier ones unless detection is off
+        Expense savedExpense = duplicateIndex.getMode() == DuplicateIndex.Mode.OFF
+                ? saveNew(expense)
+                : duplicateIndex.withUserLock(expense.getUser().getId(), () -> saveChecked(expense, allowDuplicate));
+        categoryClassifier.onAdded(savedExpense);
         
         // Check for budget alerts after saving the expense
         checkBudgetAlerts(savedExpense);
+        checkSpendingAnomaly(savedExpense);
         
-        return savedExpense;
+        return flagged(savedExpense, savedExpense.getDuplicateOfId(), autoCategorized);
+    }
+
+    // Flags the saved expense, or in reject mode refuses it, when it matches an earlier one
+    private Expense saveChecked(Expense expense, boolean allowDuplicate) {
+        Long duplicateOfId = allowDuplicate ? null : duplicateIndex.findDuplicate(expense.getUser().getId(),
+                expense.getAmount(), expense.getDate(), expense.getTitle(), expense.getDescription());
+        if (duplicateOfId != null && duplicateIndex.getMode() == DuplicateIndex.Mode.REJECT) {
+            throw new DuplicateExpenseException(duplicateOfId);
+        }
+        Expense saved = saveNew(expense);
+        duplicateIndex.onAdded(saved);
+        return flagged(saved, duplicateOfId, false);
+    }
+
+    // Response-only flags go on a copy; the saved instance is the one the column store keeps
+    private static Expense flagged(Expense saved, Long duplicateOfId, boolean autoCategorized) {
+        if (duplicateOfId == null && !autoCategorized) {
+            return saved;
+        }
+        Expense response = saved.copy();
+        response.setDuplicateOfId(duplicateOfId);
+        response.setAutoCategorized(autoCategorized);
+        return response;
+    }
+
+    private Expense saveNew(Expense expense) {
+        Expense saved = expenseRepository.save(expense);
+        columnStore.onSaved(saved);
+        return saved;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Expense> getAllExpenses() {
         return expenseRepository.findAllByOrderByDateDesc();
     }
 
+    // Not @Transactional: a column store miss loads in a transaction of its own, see loadUserExpenses
     @Override
     public List<Expense> getExpensesByUserId(Long userId) {
-        return expenseRepository.findByUserIdOrderByDateDesc(userId);
+        if (columnStore.isEnabled()) {
+            return columnStore.select(userId, new ExpenseFilter(), () -> loadUserExpenses(userId));
+        }
+        return inReadOnlyTransaction(() ->
+                withArchived(expenseRepository.findByUserIdOrderByDateDesc(userId), archive.read(userId, null, null)));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Expense> getExpensesByType(String expenseType) {
         return expenseRepository.findByExpenseTypeIgnoreCase(expenseType);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Expense getExpenseById(Long id) {
         return expenseRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Expense not found with id: " + id));
@@ -83,6 +192,11 @@ public class ExpenseServiceImpl implements ExpenseService {
     @Override
     public Expense updateExpense(Long id, Expense expenseDetails) {
         Expense existing = getExpenseById(id);
+        String oldTitle = existing.getTitle();
+        String oldDescription = existing.getDescription();
+        String oldCategory = existing.getCategory();
+        BigDecimal oldBaseAmount = existing.getBaseAmount();
+        BigDecimal oldAmount = existing.getAmount();
 
         // Update allowed fields (null checks optional)
         existing.setTitle(expenseDetails.getTitle());
@@ -93,27 +207,106 @@ public class ExpenseServiceImpl implements ExpenseService {
         existing.setPaymentMethod(expenseDetails.getPaymentMethod());
         existing.setExpenseType(expenseDetails.getExpenseType());
         existing.setPinned(expenseDetails.isPinned());
+        if (expenseDetails.getCurrency() != null && !expenseDetails.getCurrency().isBlank()) {
+            existing.setCurrency(expenseDetails.getCurrency());
+        }
+        applyBaseAmount(existing, existing.getUser().getPreferredCurrency());
         
         // Note: You probably don't want to update the user on an existing expense
         // so we don't set user here.
 
-        return expenseRepository.save(existing);
+        Expense saved = expenseRepository.save(existing);
+        columnStore.onSaved(saved);
+        duplicateIndex.evict(saved.getUser().getId());
+        categoryClassifier.onUpdated(saved, oldTitle, oldDescription, oldCategory);
+        spendingAnomalies.onUpdated(saved, oldCategory, oldBaseAmount, oldAmount);
+        return saved;
     }
 
     @Override
     public void deleteExpense(Long id) {
         Expense e = getExpenseById(id);
-        expenseRepository.delete(e);
+        // The version the delete (and its tombstone) is recorded at, which the spending stats compare against
+        long deletedVersion = inTransaction(() -> {
+            expenseRepository.delete(e);
+            return syncClock.currentTransactionVersion();
+        });
+        columnStore.onDeleted(e);
+        duplicateIndex.evict(e.getUser().getId());
+        categoryClassifier.onDeleted(e);
+        spendingAnomalies.onDeleted(e, deletedVersion);
     }
 
     @Override
     public void togglePin(Long id) {
-        Expense e = getExpenseById(id);
-        e.setPinned(!e.isPinned());
-        expenseRepository.save(e);
+        if (inTransaction(() -> expenseRepository.togglePin(id, syncClock.currentTransactionVersion())) == 0) {
+            throw new RuntimeException("Expense not found with id: " + id);
+        }
+        if (columnStore.isEnabled()) {
+            columnStore.invalidate(expenseRepository.findUserIdById(id));
+        }
+    }
+
+    @Override
+    public int recategorizeExpenses(Long userId, List<Long> ids, String category) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        if (category == null || category.isBlank()) {
+            throw new RuntimeException("Category must be set to recategorize expenses.");
+        }
+        int changed = inTransaction(() ->
+                expenseRepository.recategorize(userId, ids, category, syncClock.currentTransactionVersion()));
+        categoryClassifier.evict(userId);
+        spendingAnomalies.rebuildUser(userId);
+        return invalidatingIfChanged(userId, changed);
+    }
+
+    @Override
+    public int deleteExpenses(Long userId, List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        int deleted = inTransaction(() -> {
+            tombstones.recordIds("Expense", "expense", userId, ids);
+            return expenseRepository.deleteByUserIdAndIds(userId, ids);
+        });
+        duplicateIndex.evict(userId);
+        categoryClassifier.evict(userId);
+        spendingAnomalies.rebuildUser(userId);
+        return invalidatingIfChanged(userId, deleted);
+    }
+
+    @Override
+    public int pinExpenses(Long userId, List<Long> ids, boolean pinned) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        return invalidatingIfChanged(userId, inTransaction(() ->
+                expenseRepository.setPinned(userId, ids, pinned, syncClock.currentTransactionVersion())));
+    }
+
+    // Bulk statements skip entity callbacks, so they stamp change versions and write tombstones themselves
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    private <T> T inReadOnlyTransaction(Supplier<T> work) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(status -> work.get());
+    }
+
+    // Bulk statements bypass the entity hooks that keep the column store in step; runs after commit
+    private int invalidatingIfChanged(Long userId, int changed) {
+        if (changed > 0) {
+            columnStore.invalidate(userId);
+        }
+        return changed;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Expense> searchByKeyword(String keyword) {
         // searches title OR description OR category name (case-insensitive contains)
         return expenseRepository.searchExpenses(keyword);
@@ -121,69 +314,169 @@ public class ExpenseServiceImpl implements ExpenseService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Expense> filterByCategory(String category) {
         return expenseRepository.findByCategoryIgnoreCase(category);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Expense> filterByPaymentMethod(String paymentMethod) {
         return expenseRepository.findByPaymentMethodIgnoreCase(paymentMethod);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Expense> filterByDateRange(LocalDate startDate, LocalDate endDate) {
-        return expenseRepository.findByDateBetween(startDate, endDate);
+        return withArchived(expenseRepository.findByDateBetween(startDate, endDate),
+                archive.readAllUsers(startDate, endDate));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Expense> filterByTypeAndCategory(String expenseType, String category) {
         return expenseRepository.findByExpenseTypeIgnoreCaseAndCategoryIgnoreCase(expenseType, category);
     }
 
+    @Override
+    public List<Expense> filterUserExpenses(Long userId, ExpenseFilter filter) {
+        if (columnStore.isEnabled()) {
+            return columnStore.select(userId, filter, () -> loadUserExpenses(userId));
+        }
+        return inReadOnlyTransaction(() -> {
+            List<Expense> hot = expenseRepository.filterUserExpenses(userId, blankToNull(filter.getCategory()),
+                    blankToNull(filter.getPaymentMethod()), blankToNull(filter.getExpenseType()),
+                    filter.getStartDate(), filter.getEndDate());
+            return withArchived(hot, archivedMatching(userId, filter));
+        });
+    }
+
+    @Override
+    public BigDecimal sumUserExpenses(Long userId, ExpenseFilter filter) {
+        if (columnStore.isEnabled()) {
+            return columnStore.sum(userId, filter, () -> loadUserExpenses(userId));
+        }
+        return inReadOnlyTransaction(() -> {
+            BigDecimal hot = expenseRepository.sumUserExpenses(userId, blankToNull(filter.getCategory()),
+                    blankToNull(filter.getPaymentMethod()), blankToNull(filter.getExpenseType()),
+                    filter.getStartDate(), filter.getEndDate());
+            Money.Accumulator total = new Money.Accumulator().add(hot != null ? hot : BigDecimal.ZERO);
+            for (Expense expense : archivedMatching(userId, filter)) {
+                total.add(expense.getBaseAmount() != null ? expense.getBaseAmount() : expense.getAmount());
+            }
+            return total.toBigDecimal();
+        });
+    }
+
+    @Override
+    @Transactional
+    public int rebaseUserExpenses(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        return rebase(userId, user.getPreferredCurrency());
+    }
+
+    @Override
+    @Transactional
+    public User saveUserWithCurrency(User user, String previousCurrency) {
+        // Converted before the user is saved, so a failed conversion leaves the old currency in place
+        if (!user.getPreferredCurrency().equalsIgnoreCase(previousCurrency)) {
+            rebase(user.getId(), user.getPreferredCurrency());
+            if (previousCurrency != null) {
+                convertLimitsAndBills(user.getId(), previousCurrency, user.getPreferredCurrency());
+            }
+        }
+        return userRepository.save(user);
+    }
+
+    // Budget limits and bill amounts carry no currency of their own: they are in the owner's preferred
+    // currency, so they move with it at today's rate
+    private void convertLimitsAndBills(Long userId, String from, String to) {
+        LocalDate today = LocalDate.now();
+        List<Budget> budgets = budgetRepository.findByUserId(userId);
+        for (Budget budget : budgets) {
+            budget.setLimitAmount(exchangeRateService.convert(budget.getLimitAmount(), from, to, today));
+        }
+        budgetRepository.saveAll(budgets);
+        List<RecurringBill> bills = recurringBillRepository.findByUserId(userId);
+        for (RecurringBill bill : bills) {
+            bill.setAmount(exchangeRateService.convert(bill.getAmount(), from, to, today));
+        }
+        recurringBillRepository.saveAll(bills);
+        events.publishEvent(new PreferredCurrencyChangedEvent(userId));
+    }
+
+    private int rebase(Long userId, String baseCurrency) {
+        List<Expense> expenses = expenseRepository.findByUserId(userId);
+        int rebased = 0;
+        for (Expense expense : expenses) {
+            if (!baseCurrency.equalsIgnoreCase(expense.getBaseCurrency())) {
+                applyBaseAmount(expense, baseCurrency);
+                rebased++;
+            }
+        }
+        // Flushed so the statistics rebuild, in this transaction, reads the new base amounts
+        expenseRepository.saveAllAndFlush(expenses);
+        columnStore.invalidate(userId);
+        spendingAnomalies.rebuildUser(userId);
+        return rebased;
+    }
+
+    private void applyBaseAmount(Expense expense, String baseCurrency) {
+        String currency = expense.getCurrency() != null ? expense.getCurrency() : baseCurrency;
+        expense.setCurrency(currency);
+        expense.setBaseCurrency(baseCurrency);
+        expense.setBaseAmount(exchangeRateService.convert(expense.getAmount(), currency, baseCurrency,
+                expense.getDate() != null ? expense.getDate() : LocalDate.now()));
+    }
+
+    // Column store segments are kept in step with writes, so load them from the primary, never a lagging replica.
+    // Callers run outside any transaction, so this is the request's only connection, not one nested in another
+    private List<Expense> loadUserExpenses(Long userId) {
+        List<Expense> hot = inTransaction(() -> expenseRepository.findByUserIdOrderByDateDesc(userId));
+        return withArchived(hot, archive.read(userId, null, null));
+    }
+
+    private List<Expense> archivedMatching(Long userId, ExpenseFilter filter) {
+        List<Expense> archived = archive.read(userId, filter.getStartDate(), filter.getEndDate());
+        archived.removeIf(e -> !filter.matches(e));
+        return archived;
+    }
+
+    // Archived rows are older than every hot row, but callers expect newest first throughout
+    private static List<Expense> withArchived(List<Expense> hot, List<Expense> archived) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<Expense> merged = new ArrayList<>(hot.size() + archived.size());
+        merged.addAll(hot);
+        merged.addAll(archived);
+        merged.sort(Comparator.comparing(Expense::getDate, Comparator.nullsLast(Comparator.reverseOrder())));
+        return merged;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    /**
+     * Check whether a new expense is far above the user's usual spending in its category
+     */
+    private void checkSpendingAnomaly(Expense expense) {
+        try {
+            spendingAnomalies.onAdded(expense);
+        } catch (Exception e) {
+            // Log the error but don't fail the expense creation
+            System.err.println("Error checking spending anomalies: " + e.getMessage());
+        }
+    }
+
     /**
      * Check for budget alerts after adding a new expense
      */
     private void checkBudgetAlerts(Expense expense) {
         try {
-            Long userId = expense.getUser().getId();
-            String category = expense.getCategory();
-            LocalDate expenseDate = expense.getDate();
-
-            // Find active budget for this user and category
-            Optional<Budget> activeBudget = budgetRepository.findActiveBudgetByUserAndCategory(
-                userId, category, expenseDate);
-
-            if (activeBudget.isPresent()) {
-                Budget budget = activeBudget.get();
-                
-                // Calculate total spending for this category in the budget's date range
-                BigDecimal totalSpending = budgetRepository.calculateTotalSpendingByUserAndCategory(
-                    userId, category, budget.getStartDate(), budget.getEndDate());
-
-                // Calculate remaining budget
-                BigDecimal remainingBudget = budget.getLimitAmount().subtract(totalSpending);
-                
-                // Check if budget exceeded (Over Limit - 100%+)
-                if (remainingBudget.compareTo(BigDecimal.ZERO) <= 0) {
-                    String message = String.format("🚨 Budget Alert: You have exceeded your %s budget of ₹%.2f! Current spending: ₹%.2f", 
-                        category, budget.getLimitAmount(), totalSpending);
-                    
-                    // Create immediate notification for over limit
-                    notificationService.createNotification(userId, message);
-                }
-                // Check if spending exceeds 90% of budget limit (Approaching limit)
-                else {
-                    BigDecimal threshold = budget.getLimitAmount().multiply(new BigDecimal("0.9"));
-                    
-                    if (totalSpending.compareTo(threshold) > 0) {
-                        String message = String.format("⚠️ Budget Alert: You have only ₹%.2f left in your %s budget!", 
-                            remainingBudget, category);
-                        
-                        // Create notification for approaching limit
-                        notificationService.createNotification(userId, message);
-                    }
-                }
-            }
+            budgetAlertService.checkExpense(expense);
         } catch (Exception e) {
             // Log the error but don't fail the expense creation
             System.err.println("Error checking budget alerts: " + e.getMessage());
@@ -0,0 +1,515 @@
+package com.expenses_tracker.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.expenses_tracker.dto.GroupExpenseRequest;
+import com.expenses_tracker.entity.ExpenseGroup;
+import com.expenses_tracker.entity.GroupExpense;
+import com.expenses_tracker.entity.GroupExpenseShare;
+import com.expenses_tracker.entity.GroupMember;
+import com.expenses_tracker.entity.SplitType;
+import com.expenses_tracker.entity.User;
+import com.expenses_tracker.repository.ExpenseGroupRepository;
+import com.expenses_tracker.repository.GroupExpenseRepository;
+import com.expenses_tracker.repository.GroupExpenseShareRepository;
+import com.expenses_tracker.repository.GroupMemberRepository;
+import com.expenses_tracker.repository.UserRepository;
+import com.expenses_tracker.util.Money;
+
+/**
+ * Groups, their shared expenses and the balance ledger.
+ *
+ * Each member's balance (paid minus owed) is kept on their membership row
+ * and adjusted with a relative UPDATE as an expense is posted or deleted,
+ * so balances and settle-up read one row per member however long the
+ * group's history is. Splits are computed in minor units; the cents left
+ * over by rounding go to members in a fixed order, so shares always add up
+ * to the amount and balances to zero.
+ */
+@Service
+public class GroupService {
+
+    private static final int DEFAULT_PAGE = 20;
+    private static final int MAX_PAGE = 100;
+    private static final int DELETE_PAGE = 500;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    @Autowired
+    private ExpenseGroupRepository groupRepository;
+
+    @Autowired
+    private GroupMemberRepository memberRepository;
+
+    @Autowired
+    private GroupExpenseRepository expenseRepository;
+
+    @Autowired
+    private GroupExpenseShareRepository shareRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Transactional
+    public ExpenseGroup createGroup(Long userId, String name, String description) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Group name is required");
+        }
+        User creator = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+
+        ExpenseGroup group = new ExpenseGroup();
+        group.setName(name.trim());
+        group.setDescription(description);
+        group.setCurrency(creator.getPreferredCurrency() != null ? creator.getPreferredCurrency() : "INR");
+        group.setCreatedBy(userId);
+        group.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+        group = groupRepository.save(group);
+        memberRepository.save(new GroupMember(group.getId(), userId));
+        return getGroup(group.getId(), userId);
+    }
+
+    /**
+     * The user's groups with their members and the user's balance in each
+     */
+    @Transactional(readOnly = true)
+    public List<ExpenseGroup> getUserGroups(Long userId) {
+        List<ExpenseGroup> groups = groupRepository.findByMemberUserId(userId);
+        if (groups.isEmpty()) {
+            return groups;
+        }
+        Map<Long, List<GroupMember>> membersByGroup = withUsernames(memberRepository.findByGroupIdIn(
+                groups.stream().map(ExpenseGroup::getId).toList()))
+            .stream().collect(Collectors.groupingBy(GroupMember::getGroupId));
+        for (ExpenseGroup group : groups) {
+            List<GroupMember> members = membersByGroup.getOrDefault(group.getId(), List.of());
+            group.setMembers(members);
+            group.setMyBalance(balanceOf(members, userId));
+        }
+        return groups;
+    }
+
+    @Transactional(readOnly = true)
+    public ExpenseGroup getGroup(Long groupId, Long userId) {
+        ExpenseGroup group = requireMember(groupId, userId);
+        List<GroupMember> members = withUsernames(memberRepository.findByGroupId(groupId));
+        group.setMembers(members);
+        group.setMyBalance(balanceOf(members, userId));
+        return group;
+    }
+
+    /**
+     * Deletes the group and its history; only its creator may
+     */
+    @Transactional
+    public void deleteGroup(Long groupId, Long userId) {
+        ExpenseGroup group = requireMember(groupId, userId);
+        if (!userId.equals(group.getCreatedBy())) {
+            throw new AccessDeniedException("Only the group's creator can delete it");
+        }
+        shareRepository.deleteByGroupId(groupId);
+        expenseRepository.deleteByGroupId(groupId);
+        memberRepository.deleteByGroupId(groupId);
+        groupRepository.delete(group);
+    }
+
+    /**
+     * Adds users with a zero balance; users already in the group are skipped
+     */
+    @Transactional
+    public ExpenseGroup addMembers(Long groupId, Long userId, Collection<Long> userIds) {
+        requireMember(groupId, userId);
+        Set<Long> requested = new TreeSet<>(userIds);
+        Set<Long> existingUsers = userRepository.findUsernames(requested).stream()
+            .map(row -> (Long) row[0]).collect(Collectors.toSet());
+        for (Long id : requested) {
+            if (!existingUsers.contains(id)) {
+                throw new IllegalArgumentException("User not found with id: " + id);
+            }
+        }
+        Set<Long> members = memberRepository.findByGroupId(groupId).stream()
+            .map(GroupMember::getUserId).collect(Collectors.toSet());
+        for (Long id : requested) {
+            if (!members.contains(id)) {
+                memberRepository.save(new GroupMember(groupId, id));
+            }
+        }
+        return getGroup(groupId, userId);
+    }
+
+    /**
+     * Removes a member, who may be the caller leaving; their balance must be
+     * settled first, and the creator cannot be removed
+     */
+    @Transactional
+    public void removeMember(Long groupId, Long userId, Long memberId) {
+        ExpenseGroup group = requireMember(groupId, userId);
+        if (memberId.equals(group.getCreatedBy())) {
+            throw new IllegalArgumentException("The group's creator cannot be removed");
+        }
+        if (!userId.equals(memberId) && !userId.equals(group.getCreatedBy())) {
+            throw new AccessDeniedException("Only the group's creator can remove other members");
+        }
+        if (memberRepository.deleteSettledMember(groupId, memberId) == 0) {
+            if (memberRepository.findByGroupIdAndUserId(groupId, memberId).isEmpty()) {
+                throw new IllegalArgumentException("User " + memberId + " is not a member of this group");
+            }
+            throw new IllegalArgumentException("User " + memberId + " must settle their balance before leaving");
+        }
+    }
+
+    /**
+     * Posts a shared expense and applies it to the members' balances
+     */
+    @Transactional
+    public GroupExpense addExpense(Long groupId, Long userId, GroupExpenseRequest request) {
+        requireMember(groupId, userId);
+        if (request.getSplitType() == null || request.getSplitType() == SplitType.SETTLEMENT) {
+            throw new IllegalArgumentException("splitType must be EQUAL, PERCENTAGE or EXACT");
+        }
+        long total = positiveMinor(request.getAmount());
+        Long paidBy = request.getPaidBy() != null ? request.getPaidBy() : userId;
+
+        Set<Long> members = memberRepository.findByGroupId(groupId).stream()
+            .map(GroupMember::getUserId).collect(Collectors.toCollection(HashSet::new));
+        if (!members.contains(paidBy)) {
+            throw new IllegalArgumentException("User " + paidBy + " is not a member of this group");
+        }
+        Map<Long, Long> shares = switch (request.getSplitType()) {
+            case EQUAL -> splitEqually(total, request.getParticipants().isEmpty()
+                ? members : request.getParticipants());
+            case PERCENTAGE -> splitByPercentage(total, request.getSplits());
+            default -> splitExactly(total, request.getSplits());
+        };
+        for (Long id : shares.keySet()) {
+            if (!members.contains(id)) {
+                throw new IllegalArgumentException("User " + id + " is not a member of this group");
+            }
+        }
+
+        GroupExpense expense = new GroupExpense();
+        expense.setGroupId(groupId);
+        expense.setPaidBy(paidBy);
+        expense.setDescription(request.getDescription());
+        expense.setAmount(Money.fromMinorUnits(total));
+        expense.setSplitType(request.getSplitType());
+        expense.setDate(request.getDate() != null ? request.getDate() : LocalDate.now());
+        return post(expense, userId, shares);
+    }
+
+    /**
+     * Records fromUserId paying toUserId back; either of them may record it
+     */
+    @Transactional
+    public GroupExpense recordSettlement(Long groupId, Long userId, Long fromUserId, Long toUserId, BigDecimal amount) {
+        requireMember(groupId, userId);
+        if (fromUserId == null || toUserId == null || fromUserId.equals(toUserId)) {
+            throw new IllegalArgumentException("fromUserId and toUserId must be two different members");
+        }
+        if (!userId.equals(fromUserId) && !userId.equals(toUserId)) {
+            throw new AccessDeniedException("Only the payer or the payee can record a settlement");
+        }
+        for (Long id : List.of(fromUserId, toUserId)) {
+            if (memberRepository.findByGroupIdAndUserId(groupId, id).isEmpty()) {
+                throw new IllegalArgumentException("User " + id + " is not a member of this group");
+            }
+        }
+        long minor = positiveMinor(amount);
+
+        GroupExpense settlement = new GroupExpense();
+        settlement.setGroupId(groupId);
+        settlement.setPaidBy(fromUserId);
+        settlement.setDescription("Settlement");
+        settlement.setAmount(Money.fromMinorUnits(minor));
+        settlement.setSplitType(SplitType.SETTLEMENT);
+        settlement.setDate(LocalDate.now());
+        return post(settlement, userId, Map.of(toUserId, minor));
+    }
+
+    /**
+     * Deletes an expense and reverses it on the balances; allowed to whoever
+     * paid or recorded it and to the group's creator
+     */
+    @Transactional
+    public void deleteExpense(Long groupId, Long userId, Long expenseId) {
+        ExpenseGroup group = requireMember(groupId, userId);
+        GroupExpense expense = expenseRepository.findById(expenseId)
+            .filter(e -> groupId.equals(e.getGroupId()))
+            .orElseThrow(() -> new IllegalArgumentException("Group expense not found with id: " + expenseId));
+        if (!userId.equals(expense.getPaidBy()) && !userId.equals(expense.getCreatedBy())
+                && !userId.equals(group.getCreatedBy())) {
+            throw new AccessDeniedException("Only the payer, the recorder or the group's creator can delete an expense");
+        }
+
+        reverse(expense, shareRepository.findByExpenseIdIn(List.of(expenseId)));
+    }
+
+    /**
+     * Takes a user out of every group before their account is deleted. Each
+     * expense they paid or share in is reversed and deleted, which brings
+     * their balance to zero, and then their membership goes, so the other
+     * members' balances still add up. Groups they created pass to the
+     * longest-standing remaining member, or are deleted if none is left.
+     */
+    @Transactional
+    public void deleteUser(Long userId) {
+        for (ExpenseGroup group : groupRepository.findByMemberUserId(userId)) {
+            Long groupId = group.getId();
+            long beforeId = Long.MAX_VALUE;
+            List<GroupExpense> page;
+            do {
+                page = expenseRepository.findPage(groupId, beforeId, Limit.of(DELETE_PAGE));
+                Map<Long, List<GroupExpenseShare>> shares = page.isEmpty() ? Map.of() : shareRepository
+                    .findByExpenseIdIn(page.stream().map(GroupExpense::getId).toList())
+                    .stream().collect(Collectors.groupingBy(GroupExpenseShare::getExpenseId));
+                for (GroupExpense expense : page) {
+                    List<GroupExpenseShare> expenseShares = shares.getOrDefault(expense.getId(), List.of());
+                    if (userId.equals(expense.getPaidBy())
+                            || expenseShares.stream().anyMatch(share -> userId.equals(share.getUserId()))) {
+                        reverse(expense, expenseShares);
+                    }
+                }
+                if (!page.isEmpty()) {
+                    beforeId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == DELETE_PAGE);
+
+            if (memberRepository.deleteSettledMember(groupId, userId) == 0) {
+                throw new IllegalStateException("User " + userId + " still has a balance in group " + groupId);
+            }
+            if (userId.equals(group.getCreatedBy())) {
+                Optional<GroupMember> successor = memberRepository.findByGroupId(groupId).stream()
+                    .min(Comparator.comparing(GroupMember::getId));
+                if (successor.isPresent()) {
+                    group.setCreatedBy(successor.get().getUserId());
+                    groupRepository.save(group);
+                } else {
+                    shareRepository.deleteByGroupId(groupId);
+                    expenseRepository.deleteByGroupId(groupId);
+                    groupRepository.delete(group);
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes every group and its history
+     */
+    @Transactional
+    public void clear() {
+        shareRepository.deleteAllInBatch();
+        expenseRepository.deleteAllInBatch();
+        memberRepository.deleteAllInBatch();
+        groupRepository.deleteAllInBatch();
+    }
+
+    /**
+     * A page of the group's history, newest first, with each expense's shares
+     */
+    @Transactional(readOnly = true)
+    public List<GroupExpense> getExpenses(Long groupId, Long userId, Long beforeId, Integer limit) {
+        requireMember(groupId, userId);
+        int size = limit == null ? DEFAULT_PAGE : Math.max(1, Math.min(limit, MAX_PAGE));
+        List<GroupExpense> page = expenseRepository.findPage(groupId,
+            beforeId != null ? beforeId : Long.MAX_VALUE, Limit.of(size));
+        if (!page.isEmpty()) {
+            Map<Long, List<GroupExpenseShare>> shares = shareRepository
+                .findByExpenseIdIn(page.stream().map(GroupExpense::getId).toList())
+                .stream().collect(Collectors.groupingBy(GroupExpenseShare::getExpenseId));
+            page.forEach(e -> e.setShares(shares.getOrDefault(e.getId(), List.of())));
+        }
+        return page;
+    }
+
+    /**
+     * Every member's balance, read from the ledger
+     */
+    @Transactional(readOnly = true)
+    public List<GroupMember> getBalances(Long groupId, Long userId) {
+        requireMember(groupId, userId);
+        List<GroupMember> members = withUsernames(memberRepository.findByGroupId(groupId));
+        members.sort(Comparator.comparing(GroupMember::getBalance).thenComparing(GroupMember::getUserId));
+        return members;
+    }
+
+    /**
+     * Payments that would settle the group
+     */
+    @Transactional(readOnly = true)
+    public List<SettleUp.Transfer> getSettleUp(Long groupId, Long userId) {
+        requireMember(groupId, userId);
+        Map<Long, Long> balances = new TreeMap<>();
+        for (GroupMember member : memberRepository.findByGroupId(groupId)) {
+            balances.put(member.getUserId(), Money.toMinorUnits(member.getBalance()));
+        }
+        return SettleUp.transfers(balances);
+    }
+
+    /** The group, if the user belongs to it */
+    private ExpenseGroup requireMember(Long groupId, Long userId) {
+        ExpenseGroup group = groupRepository.findById(groupId)
+            .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + groupId));
+        if (memberRepository.findByGroupIdAndUserId(groupId, userId).isEmpty()) {
+            throw new AccessDeniedException("Not a member of group " + groupId);
+        }
+        return group;
+    }
+
+    private GroupExpense post(GroupExpense expense, Long userId, Map<Long, Long> shares) {
+        expense.setCreatedBy(userId);
+        expense.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+        expense = expenseRepository.save(expense);
+
+        Map<Long, Long> deltas = new TreeMap<>();
+        deltas.merge(expense.getPaidBy(), Money.toMinorUnits(expense.getAmount()), Long::sum);
+        List<GroupExpenseShare> rows = new ArrayList<>();
+        for (Map.Entry<Long, Long> share : shares.entrySet()) {
+            if (share.getValue() > 0) {
+                rows.add(new GroupExpenseShare(expense.getId(), share.getKey(), Money.fromMinorUnits(share.getValue())));
+                deltas.merge(share.getKey(), -share.getValue(), Long::sum);
+            }
+        }
+        expense.setShares(shareRepository.saveAll(rows));
+        applyDeltas(expense.getGroupId(), deltas);
+        return expense;
+    }
+
+    // Takes the expense back off the balances, then deletes it with its shares
+    private void reverse(GroupExpense expense, List<GroupExpenseShare> shares) {
+        Map<Long, Long> deltas = new TreeMap<>();
+        deltas.merge(expense.getPaidBy(), -Money.toMinorUnits(expense.getAmount()), Long::sum);
+        for (GroupExpenseShare share : shares) {
+            deltas.merge(share.getUserId(), Money.toMinorUnits(share.getAmount()), Long::sum);
+        }
+        applyDeltas(expense.getGroupId(), deltas);
+        shareRepository.deleteByExpenseId(expense.getId());
+        expenseRepository.delete(expense);
+    }
+
+    // In user id order, so concurrent postings lock member rows in the same order
+    private void applyDeltas(Long groupId, Map<Long, Long> deltas) {
+        new TreeMap<>(deltas).forEach((memberId, delta) -> {
+            if (delta != 0 && memberRepository.adjustBalance(groupId, memberId, Money.fromMinorUnits(delta)) == 0) {
+                throw new IllegalArgumentException("User " + memberId + " is not a member of this group");
+            }
+        });
+    }
+
+    /** Equal shares; the first (total mod n) members by user id pay a cent more */
+    static Map<Long, Long> splitEqually(long total, Collection<Long> participants) {
+        List<Long> ids = new ArrayList<>(new TreeSet<>(participants));
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("An equal split needs at least one participant");
+        }
+        long base = total / ids.size();
+        long remainder = total % ids.size();
+        Map<Long, Long> shares = new TreeMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            shares.put(ids.get(i), base + (i < remainder ? 1 : 0));
+        }
+        return shares;
+    }
+
+    /**
+     * Shares rounded down to the cent, with the cents left over going to the
+     * largest fractional parts (largest remainder method)
+     */
+    static Map<Long, Long> splitByPercentage(long total, Map<Long, BigDecimal> percentages) {
+        if (percentages == null || percentages.isEmpty()) {
+            throw new IllegalArgumentException("A percentage split needs splits");
+        }
+        BigDecimal sum = BigDecimal.ZERO;
+        for (BigDecimal percent : percentages.values()) {
+            if (percent == null || percent.signum() < 0) {
+                throw new IllegalArgumentException("Percentages must not be negative");
+            }
+            sum = sum.add(percent);
+        }
+        if (sum.compareTo(HUNDRED) != 0) {
+            throw new IllegalArgumentException("Percentages must add up to 100, not " + sum.stripTrailingZeros().toPlainString());
+        }
+
+        Map<Long, Long> shares = new TreeMap<>();
+        Map<Long, BigDecimal> fractions = new HashMap<>();
+        long assigned = 0;
+        for (Map.Entry<Long, BigDecimal> split : new TreeMap<>(percentages).entrySet()) {
+            BigDecimal exact = BigDecimal.valueOf(total).multiply(split.getValue()).divide(HUNDRED);
+            long floor = exact.setScale(0, RoundingMode.FLOOR).longValueExact();
+            shares.put(split.getKey(), floor);
+            fractions.put(split.getKey(), exact.subtract(BigDecimal.valueOf(floor)));
+            assigned += floor;
+        }
+        List<Long> byFraction = new ArrayList<>(shares.keySet());
+        byFraction.sort(Comparator.comparing((Long id) -> fractions.get(id)).reversed().thenComparing(id -> id));
+        for (int i = 0; i < total - assigned; i++) {
+            shares.merge(byFraction.get(i), 1L, Long::sum);
+        }
+        return shares;
+    }
+
+    static Map<Long, Long> splitExactly(long total, Map<Long, BigDecimal> amounts) {
+        if (amounts == null || amounts.isEmpty()) {
+            throw new IllegalArgumentException("An exact split needs splits");
+        }
+        Map<Long, Long> shares = new TreeMap<>();
+        long sum = 0;
+        for (Map.Entry<Long, BigDecimal> split : amounts.entrySet()) {
+            if (split.getValue() == null || split.getValue().signum() < 0) {
+                throw new IllegalArgumentException("Split amounts must not be negative");
+            }
+            long minor = Money.toMinorUnits(split.getValue());
+            shares.put(split.getKey(), minor);
+            sum += minor;
+        }
+        if (sum != total) {
+            throw new IllegalArgumentException("Split amounts add up to " + Money.fromMinorUnits(sum)
+                + ", not " + Money.fromMinorUnits(total));
+        }
+        return shares;
+    }
+
+    private static long positiveMinor(BigDecimal amount) {
+        long minor = Money.toMinorUnits(amount);
+        if (minor <= 0) {
+            throw new IllegalArgumentException("Amount must be greater than zero");
+        }
+        return minor;
+    }
+
+    private static BigDecimal balanceOf(List<GroupMember> members, Long userId) {
+        return members.stream().filter(m -> m.getUserId().equals(userId))
+            .map(GroupMember::getBalance).findFirst().orElse(BigDecimal.ZERO);
+    }
+
+    private List<GroupMember> withUsernames(List<GroupMember> members) {
+        if (!members.isEmpty()) {
+            Map<Long, String> usernames = new HashMap<>();
+            for (Object[] row : userRepository.findUsernames(
+                    members.stream().map(GroupMember::getUserId).collect(Collectors.toSet()))) {
+                usernames.put((Long) row[0], (String) row[1]);
+            }
+            members.forEach(m -> m.setUsername(usernames.get(m.getUserId())));
+        }
+        return new ArrayList<>(members);
+    }
+}
@@ -0,0 +1,158 @@
+package com.expenses_tracker.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.expenses_tracker.sync.TombstoneRecorder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Background purge of read notifications past the retention policy: older
+ * than max-age-days, or beyond the newest max-read-per-user of a user.
+ * Unread notifications are never purged.
+ *
+ * Rows are deleted by id in bounded chunks, each its own short transaction
+ * that also leaves sync tombstones, with a pause between chunks so the purge never holds locks for long or
+ * starves foreground writes.
+ */
+@Service
+public class NotificationRetentionService {
+
+    private static final String SELECT_EXPIRED =
+        "SELECT id FROM notification WHERE is_read = true AND created_at < ? ORDER BY id LIMIT ?";
+
+    private static final String SELECT_USERS_OVER_LIMIT =
+        "SELECT user_id FROM notification WHERE is_read = true GROUP BY user_id HAVING COUNT(*) > ?";
+
+    // Everything past the newest maxReadPerUser read rows of one user
+    private static final String SELECT_OVERFLOW =
+        "SELECT id FROM notification WHERE user_id = ? AND is_read = true " +
+        "ORDER BY created_at DESC, id DESC LIMIT ? OFFSET ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TombstoneRecorder tombstones;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter purgedByAge;
+    private final Counter purgedByCount;
+
+    @Value("${expenses.notifications.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${expenses.notifications.retention.max-age-days:90}")
+    private int maxAgeDays;
+
+    @Value("${expenses.notifications.retention.max-read-per-user:200}")
+    private int maxReadPerUser;
+
+    @Value("${expenses.notifications.retention.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${expenses.notifications.retention.pause-ms:100}")
+    private long pauseMillis;
+
+    public NotificationRetentionService(MeterRegistry registry, PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.purgedByAge = Counter.builder("expenses.notifications.purged")
+            .description("Read notifications deleted by the retention policy")
+            .tag("reason", "age")
+            .register(registry);
+        this.purgedByCount = Counter.builder("expenses.notifications.purged")
+            .description("Read notifications deleted by the retention policy")
+            .tag("reason", "count")
+            .register(registry);
+    }
+
+    @Scheduled(cron = "${expenses.notifications.retention.cron:0 15 2 * * *}")
+    public void purgeOnSchedule() {
+        if (enabled) {
+            purge();
+        }
+    }
+
+    /**
+     * Applies the retention policy once; returns the number of notifications deleted
+     */
+    public long purge() {
+        long started = System.currentTimeMillis();
+        long byAge = maxAgeDays > 0 ? purgeExpired() : 0;
+        long byCount = maxReadPerUser > 0 ? purgeOverflow() : 0;
+        System.out.println("Notification retention: purged " + byAge + " by age and " + byCount + " by count in "
+            + (System.currentTimeMillis() - started) + " ms");
+        return byAge + byCount;
+    }
+
+    private long purgeExpired() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(Duration.ofDays(maxAgeDays)));
+        long total = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(SELECT_EXPIRED, Long.class, cutoff, chunkSize);
+            int deleted = deleteChunk(ids);
+            purgedByAge.increment(deleted);
+            total += deleted;
+            if (ids.size() < chunkSize || !pause()) {
+                return total;
+            }
+        }
+    }
+
+    private long purgeOverflow() {
+        long total = 0;
+        List<Long> userIds = jdbcTemplate.queryForList(SELECT_USERS_OVER_LIMIT, Long.class, maxReadPerUser);
+        for (Long userId : userIds) {
+            while (true) {
+                List<Long> ids = jdbcTemplate.queryForList(SELECT_OVERFLOW, Long.class, userId, chunkSize, maxReadPerUser);
+                int deleted = deleteChunk(ids);
+                purgedByCount.increment(deleted);
+                total += deleted;
+                if (ids.isEmpty() || !pause()) {
+                    break;
+                }
+            }
+        }
+        return total;
+    }
+
+    private int deleteChunk(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        Integer deleted = transactionTemplate.execute(status -> {
+            tombstones.recordIds("Notification", "notification", null, ids);
+            return jdbcTemplate.update("DELETE FROM notification WHERE id IN (" + placeholders + ")", ids.toArray());
+        });
+        return deleted != null ? deleted : 0;
+    }
+
+    // False when interrupted, so shutdown stops the purge between chunks
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
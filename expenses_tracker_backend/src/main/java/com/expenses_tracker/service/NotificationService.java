@@ -3,10 +3,13 @@ package com.expenses_tracker.service;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.expenses_tracker.entity.Notification;
 import com.expenses_tracker.entity.RecurringBill;
@@ -14,6 +17,9 @@ import com.expenses_tracker.entity.User;
 import com.expenses_tracker.repository.NotificationRepository;
 import com.expenses_tracker.repository.RecurringBillRepository;
 import com.expenses_tracker.repository.UserRepository;
+import com.expenses_tracker.sync.SyncClock;
+import com.expenses_tracker.sync.TombstoneRecorder;
+import com.expenses_tracker.util.Money;
 
 @Service
 public class NotificationService {
@@ -27,6 +33,18 @@ public class NotificationService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UnreadNotificationCounter unreadCounter;
+
+    @Autowired
+    private SyncClock syncClock;
+
+    @Autowired
+    private TombstoneRecorder tombstones;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     /**
      * Scheduled task that runs every minute
      * Checks for bills that need reminders based on custom reminder settings
@@ -79,8 +97,8 @@ public class NotificationService {
                         System.out.println("  ✓ No notification sent yet today. Creating notification...");
                         
                         // Create notification
-                        String message = String.format("Reminder: Your '%s' bill of ₹%.2f is due in %d day(s).", 
-                            bill.getName(), bill.getAmount(), reminderDaysBefore);
+                        String message = String.format("Reminder: Your '%s' bill of %s is due in %d day(s).", 
+                            bill.getName(), Money.format(bill.getAmount(), bill.getUser().getPreferredCurrency()), reminderDaysBefore);
                         
                         createNotification(bill.getUser(), message);
                         System.out.println("  ✅ Notification created!");
@@ -129,7 +147,9 @@ public class NotificationService {
         }
         
         Notification notification = new Notification(message, user);
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        unreadCounter.adjust(user.getId(), 1);
+        return saved;
     }
 
     /**
@@ -171,45 +191,81 @@ public class NotificationService {
      * Mark a notification as read
      */
     public void markNotificationAsRead(Long notificationId) {
-        Notification notification = notificationRepository.findById(notificationId)
-            .orElseThrow(() -> new RuntimeException("Notification not found with id: " + notificationId));
-        notification.setRead(true);
-        notificationRepository.save(notification);
+        setRead(notificationId, true);
     }
 
     /**
      * Mark a notification as unread
      */
     public void markNotificationAsUnread(Long notificationId) {
-        Notification notification = notificationRepository.findById(notificationId)
-            .orElseThrow(() -> new RuntimeException("Notification not found with id: " + notificationId));
-        notification.setRead(false);
-        notificationRepository.save(notification);
+        setRead(notificationId, false);
+    }
+
+    private void setRead(Long notificationId, boolean read) {
+        Long userId = notificationRepository.findUserIdById(notificationId);
+        if (userId == null) {
+            throw new RuntimeException("Notification not found with id: " + notificationId);
+        }
+        if (inTransaction(() -> notificationRepository.setReadById(notificationId, read,
+                syncClock.currentTransactionVersion())) > 0) {
+            unreadCounter.adjust(userId, read ? -1 : 1);
+        }
     }
 
     /**
-     * Mark all notifications as read for a user
+     * Number of unread notifications for a user, served from memory
+     */
+    public long getUnreadCount(Long userId) {
+        return unreadCounter.get(userId);
+    }
+
+    /**
+     * Mark a set of a user's notifications as read; returns how many changed
      */
-    public void markAllNotificationsAsRead(Long userId) {
-        List<Notification> unreadNotifications = notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId);
-        for (Notification notification : unreadNotifications) {
-            notification.setRead(true);
+    public int markNotificationsAsRead(Long userId, List<Long> notificationIds) {
+        if (notificationIds == null || notificationIds.isEmpty()) {
+            return 0;
         }
-        notificationRepository.saveAll(unreadNotifications);
+        int updated = inTransaction(() -> notificationRepository.setReadByUserIdAndIds(userId, notificationIds, true,
+            syncClock.currentTransactionVersion()));
+        unreadCounter.adjust(userId, -updated);
+        return updated;
+    }
+
+    /**
+     * Mark all notifications as read for a user
+     */
+    public int markAllNotificationsAsRead(Long userId) {
+        int updated = inTransaction(() -> notificationRepository.markAllReadByUserId(userId,
+            syncClock.currentTransactionVersion()));
+        unreadCounter.reset(userId);
+        return updated;
     }
 
     /**
      * Delete a notification
      */
     public void deleteNotification(Long notificationId) {
+        Long userId = notificationRepository.findUserIdById(notificationId);
         notificationRepository.deleteById(notificationId);
+        // Whether it was unread is unknown here; reload the count on next read
+        unreadCounter.evict(userId);
     }
     
     /**
      * Delete all notifications for a user
      */
-    public void deleteAllNotifications(Long userId) {
-        List<Notification> userNotifications = notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        notificationRepository.deleteAll(userNotifications);
+    public int deleteAllNotifications(Long userId) {
+        int deleted = inTransaction(() -> {
+            tombstones.recordAllOfUser("Notification", "notification", userId);
+            return notificationRepository.deleteAllByUserId(userId);
+        });
+        unreadCounter.reset(userId);
+        return deleted;
+    }
+
+    // Bulk statements skip entity callbacks, so they stamp change versions and write tombstones themselves
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
     }
 }
@@ -0,0 +1,8 @@
+package com.expenses_tracker.service;
+
+/**
+ * Published by ExpenseServiceImpl once a user's budget limits and bill
+ * amounts have been converted into a new preferred currency
+ */
+public record PreferredCurrencyChangedEvent(Long userId) {
+}
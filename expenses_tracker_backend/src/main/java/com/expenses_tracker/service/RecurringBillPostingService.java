@@ -0,0 +1,279 @@
+package com.expenses_tracker.service;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.expenses_tracker.cache.ExpenseColumnStore;
+import com.expenses_tracker.entity.JobCheckpoint;
+import com.expenses_tracker.repository.JobCheckpointRepository;
+import com.expenses_tracker.sync.SyncClock;
+
+/**
+ * Nightly job that posts an Expense for every recurring bill cycle that has
+ * come due, then advances the bill to its next cycle.
+ *
+ * Bills are walked in ascending id order, one chunk per transaction. Expense
+ * inserts, bill updates and the checkpoint commit together, so a crash loses
+ * at most the chunk in flight and a rerun resumes after the last committed id.
+ * The (recurring_bill_id, bill_cycle_date) unique key guards against a cycle
+ * ever being posted twice.
+ */
+@Service
+public class RecurringBillPostingService {
+
+    static final String JOB_NAME = "recurring-bill-posting";
+
+    private static final String SELECT_DUE_BILLS =
+        "SELECT b.id, b.user_id, b.name, b.amount, b.category, b.description, b.frequency, " +
+        "b.day_of_month_due, b.next_due_date, u.preferred_currency " +
+        "FROM recurring_bill b JOIN users u ON u.id = b.user_id " +
+        "WHERE b.id > ? AND b.next_due_date IS NOT NULL AND b.next_due_date <= ? " +
+        "ORDER BY b.id LIMIT ?";
+
+    private static final String SELECT_POSTED_CYCLES =
+        "SELECT recurring_bill_id, bill_cycle_date FROM expense " +
+        "WHERE recurring_bill_id BETWEEN ? AND ? AND bill_cycle_date >= ?";
+
+    private static final String INSERT_EXPENSE =
+        "INSERT INTO expense (title, description, amount, currency, base_amount, base_currency, date, " +
+        "payment_method, is_pinned, expense_type, category, user_id, recurring_bill_id, bill_cycle_date, " +
+        "change_version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, false, ?, ?, ?, ?, ?, ?)";
+
+    // Only advance bills nobody has rescheduled since the chunk was read
+    private static final String ADVANCE_BILL =
+        "UPDATE recurring_bill SET next_due_date = ?, is_paid = false, paid_date = NULL, change_version = ? " +
+        "WHERE id = ? AND next_due_date = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private ExpenseColumnStore columnStore;
+
+    @Autowired
+    private SyncClock syncClock;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${expenses.recurring-posting.enabled:true}")
+    private boolean enabled;
+
+    @Value("${expenses.recurring-posting.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${expenses.recurring-posting.max-catch-up-cycles:400}")
+    private int maxCatchUpCycles;
+
+    public RecurringBillPostingService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${expenses.recurring-posting.cron:0 30 1 * * *}")
+    public void postDueBills() {
+        if (enabled) {
+            run(LocalDate.now());
+        }
+    }
+
+    /**
+     * Posts every cycle due on or before the given date; returns the number of expenses created
+     */
+    public long run(LocalDate today) {
+        JobCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME)
+            .orElseGet(() -> new JobCheckpoint(JOB_NAME, today));
+        if (!today.equals(checkpoint.getRunDate())) {
+            checkpoint = new JobCheckpoint(JOB_NAME, today);
+        } else if (checkpoint.isCompleted()) {
+            System.out.println("Recurring bill posting already completed for " + today);
+            return 0;
+        }
+        if (checkpoint.getLastId() > 0) {
+            System.out.println("Resuming recurring bill posting after bill id " + checkpoint.getLastId());
+        }
+
+        long started = System.currentTimeMillis();
+        long posted = 0;
+        long bills = 0;
+        while (true) {
+            ChunkResult result = transactionTemplate.execute(new ChunkCallback(checkpoint, today));
+            if (result == null || result.billCount == 0) {
+                break;
+            }
+            posted += result.expenseCount;
+            bills += result.billCount;
+            result.userIds.forEach(columnStore::invalidate);
+        }
+
+        checkpoint.setCompleted(true);
+        checkpointRepository.save(checkpoint);
+        System.out.println("Recurring bill posting: " + posted + " expenses for " + bills + " bills in "
+            + (System.currentTimeMillis() - started) + " ms");
+        return posted;
+    }
+
+    private class ChunkCallback implements TransactionCallback<ChunkResult> {
+        private final JobCheckpoint checkpoint;
+        private final LocalDate today;
+
+        ChunkCallback(JobCheckpoint checkpoint, LocalDate today) {
+            this.checkpoint = checkpoint;
+            this.today = today;
+        }
+
+        @Override
+        public ChunkResult doInTransaction(TransactionStatus status) {
+            List<DueBill> chunk = jdbcTemplate.query(SELECT_DUE_BILLS, (rs, rowNum) -> new DueBill(
+                    rs.getLong("id"),
+                    rs.getLong("user_id"),
+                    rs.getString("name"),
+                    rs.getBigDecimal("amount"),
+                    rs.getString("category"),
+                    rs.getString("description"),
+                    rs.getString("frequency"),
+                    rs.getInt("day_of_month_due"),
+                    rs.getDate("next_due_date").toLocalDate(),
+                    rs.getString("preferred_currency")),
+                checkpoint.getLastId(), Date.valueOf(today), chunkSize);
+
+            ChunkResult result = new ChunkResult();
+            if (chunk.isEmpty()) {
+                return result;
+            }
+
+            // Cycles already posted for this id range, e.g. by a run that raced this one
+            long firstId = chunk.get(0).id;
+            long lastId = chunk.get(chunk.size() - 1).id;
+            LocalDate earliest = chunk.stream().map(b -> b.nextDueDate).min(LocalDate::compareTo).get();
+            Set<String> posted = new HashSet<>();
+            jdbcTemplate.query(SELECT_POSTED_CYCLES,
+                rs -> { posted.add(rs.getLong(1) + "@" + rs.getDate(2).toLocalDate()); },
+                firstId, lastId, Date.valueOf(earliest));
+
+            // JDBC writes skip the entity listener, so stamp the chunk's change version here
+            long version = syncClock.currentTransactionVersion();
+            List<Object[]> expenseRows = new ArrayList<>();
+            List<Object[]> billUpdates = new ArrayList<>();
+            for (DueBill bill : chunk) {
+                if (nextCycle(bill.nextDueDate, bill.frequency, bill.dayOfMonthDue) == null) {
+                    System.out.println("Bill " + bill.id + " has unknown frequency '" + bill.frequency
+                        + "'; not posted");
+                    continue;
+                }
+                LocalDate cycle = bill.nextDueDate;
+                int cycles = 0;
+                while (!cycle.isAfter(today) && cycles < maxCatchUpCycles) {
+                    if (!posted.contains(bill.id + "@" + cycle)) {
+                        expenseRows.add(bill.expenseRow(cycle, version));
+                    }
+                    cycle = nextCycle(cycle, bill.frequency, bill.dayOfMonthDue);
+                    cycles++;
+                }
+                if (cycles == maxCatchUpCycles && !cycle.isAfter(today)) {
+                    System.out.println("Bill " + bill.id + " is more than " + maxCatchUpCycles
+                        + " cycles behind; remaining cycles will post on the next run");
+                }
+                billUpdates.add(new Object[]{Date.valueOf(cycle), version, bill.id, Date.valueOf(bill.nextDueDate)});
+                result.userIds.add(bill.userId);
+            }
+
+            jdbcTemplate.batchUpdate(INSERT_EXPENSE, expenseRows);
+            jdbcTemplate.batchUpdate(ADVANCE_BILL, billUpdates);
+
+            checkpoint.setLastId(lastId);
+            checkpointRepository.save(checkpoint);
+
+            result.billCount = chunk.size();
+            result.expenseCount = expenseRows.size();
+            return result;
+        }
+    }
+
+    /**
+     * The cycle after the given one, or null for an unknown frequency; a
+     * missing frequency is monthly. Monthly and quarterly bills land on
+     * dayOfMonthDue, clamped to the length of shorter months.
+     */
+    static LocalDate nextCycle(LocalDate cycle, String frequency, int dayOfMonthDue) {
+        String normalized = frequency != null ? frequency.trim().toUpperCase(Locale.ROOT) : "MONTHLY";
+        switch (normalized) {
+            case "DAILY":
+                return cycle.plusDays(1);
+            case "WEEKLY":
+                return cycle.plusWeeks(1);
+            case "MONTHLY":
+                return plusMonthsOnDay(cycle, 1, dayOfMonthDue);
+            case "QUARTERLY":
+                return plusMonthsOnDay(cycle, 3, dayOfMonthDue);
+            case "YEARLY":
+                return cycle.plusYears(1);
+            default:
+                return null;
+        }
+    }
+
+    private static LocalDate plusMonthsOnDay(LocalDate cycle, int months, int dayOfMonthDue) {
+        LocalDate next = cycle.plusMonths(months);
+        int day = dayOfMonthDue >= 1 ? dayOfMonthDue : cycle.getDayOfMonth();
+        return next.withDayOfMonth(Math.min(day, next.lengthOfMonth()));
+    }
+
+    private static class ChunkResult {
+        int billCount;
+        int expenseCount;
+        final Set<Long> userIds = new HashSet<>();
+    }
+
+    private static class DueBill {
+        final long id;
+        final long userId;
+        final String name;
+        final BigDecimal amount;
+        final String category;
+        final String description;
+        final String frequency;
+        final int dayOfMonthDue;
+        final LocalDate nextDueDate;
+        final String currency;
+
+        DueBill(long id, long userId, String name, BigDecimal amount, String category, String description,
+                String frequency, int dayOfMonthDue, LocalDate nextDueDate, String currency) {
+            this.id = id;
+            this.userId = userId;
+            this.name = name;
+            this.amount = amount;
+            this.category = category;
+            this.description = description;
+            this.frequency = frequency;
+            this.dayOfMonthDue = dayOfMonthDue;
+            this.nextDueDate = nextDueDate;
+            this.currency = currency;
+        }
+
+        // Bill amounts are kept in the owner's preferred currency, so no conversion is needed
+        Object[] expenseRow(LocalDate cycle, long version) {
+            return new Object[]{
+                name, description, amount, currency, amount, currency, Date.valueOf(cycle),
+                "Recurring Bill", "PERSONAL", category, userId, id, Date.valueOf(cycle), version
+            };
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.expenses_tracker.service;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.expenses_tracker.dto.CategoryList;
+import com.expenses_tracker.entity.Category;
+import com.expenses_tracker.entity.ERole;
+import com.expenses_tracker.entity.Role;
+import com.expenses_tracker.entity.User;
+import com.expenses_tracker.repository.CategoryRepository;
+import com.expenses_tracker.repository.RoleRepository;
+import com.expenses_tracker.repository.UserRepository;
+
+/**
+ * Cached lookups for near-static reference data: categories, roles and user
+ * preferences. Every write to this data must go through the evicting methods
+ * here so the caches never serve stale entries.
+ */
+@Service
+public class ReferenceDataService {
+
+    public static final String CATEGORIES = "categories";
+    public static final String ROLES = "roles";
+    public static final String USER_PREFERENCES = "userPreferences";
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * All categories, ordered by id, with an ETag for conditional requests
+     */
+    @Cacheable(CATEGORIES)
+    public CategoryList getCategories() {
+        return new CategoryList(categoryRepository.findAll(Sort.by("id")));
+    }
+
+    @CacheEvict(value = CATEGORIES, allEntries = true)
+    public Category saveCategory(Category category) {
+        return categoryRepository.save(category);
+    }
+
+    @CacheEvict(value = CATEGORIES, allEntries = true)
+    public void deleteCategory(Category category) {
+        categoryRepository.delete(category);
+    }
+
+    /**
+     * Role by name; missing roles are not cached so they can be created later
+     */
+    @Cacheable(value = ROLES, unless = "#result == null")
+    public Role findRole(ERole name) {
+        return roleRepository.findByName(name).orElse(null);
+    }
+
+    /**
+     * A user's display preferences
+     */
+    @Cacheable(value = USER_PREFERENCES, key = "#userId")
+    public Map<String, Object> getPreferences(Long userId) {
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        return Map.of(
+            "darkMode", user.isDarkMode(),
+            "accessibilityMode", user.isAccessibilityMode(),
+            "preferredCurrency", user.getPreferredCurrency()
+        );
+    }
+
+    @CacheEvict(value = USER_PREFERENCES, key = "#userId")
+    public void evictPreferences(Long userId) {
+        // Eviction only
+    }
+
+    @TransactionalEventListener
+    @CacheEvict(value = USER_PREFERENCES, key = "#event.userId()")
+    public void onUserDeleted(UserDeletedEvent event) {
+        // Eviction only
+    }
+
+    @TransactionalEventListener
+    @CacheEvict(value = USER_PREFERENCES, allEntries = true)
+    public void onAllDataCleared(AllDataClearedEvent event) {
+        // Eviction only
+    }
+}
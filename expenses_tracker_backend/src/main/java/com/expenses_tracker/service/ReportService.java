@@ -7,6 +7,7 @@ import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.poi.ss.usermodel.Cell;
@@ -20,7 +21,9 @@ import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.expenses_tracker.archive.ExpenseArchive;
 import com.expenses_tracker.entity.Budget;
 import com.expenses_tracker.entity.Expense;
 import com.expenses_tracker.entity.RecurringBill;
@@ -29,9 +32,11 @@ import com.expenses_tracker.repository.BudgetRepository;
 import com.expenses_tracker.repository.ExpenseRepository;
 import com.expenses_tracker.repository.RecurringBillRepository;
 import com.expenses_tracker.repository.UserRepository;
+import com.expenses_tracker.util.Money;
 import com.opencsv.CSVWriter;
 
 @Service
+@Transactional(readOnly = true)
 public class ReportService {
 
     @Autowired
@@ -46,11 +51,16 @@ public class ReportService {
     @Autowired
     private RecurringBillRepository recurringBillRepository;
 
+    @Autowired
+    private ExpenseArchive archive;
+
     /**
      * Generate CSV report for user expenses
      */
     public byte[] generateUserCSVReport(Long userId) throws IOException {
-        List<Expense> expenses = expenseRepository.findByUserId(userId);
+        List<Expense> expenses = userExpenses(userId);
+        String currency = preferredCurrency(userId);
+        String symbol = Money.symbol(currency).trim();
 
         StringWriter stringWriter = new StringWriter();
         // Write header
@@ -63,7 +73,7 @@ public class ReportService {
             
             // Write expenses header
             csvWriter.writeNext(new String[]{
-                "Expense ID", "Title", "Description", "Amount (₹)", "Date",
+                "Expense ID", "Title", "Description", "Amount (" + symbol + ")", "Original Amount", "Date",
                 "Category", "Payment Method", "Type"
             });
 
@@ -73,7 +83,8 @@ public class ReportService {
                     expense.getId().toString(),
                     expense.getTitle(),
                     expense.getDescription(),
-                    "₹" + expense.getAmount().toString(),
+                    Money.format(baseAmount(expense), currency),
+                    Money.format(expense.getAmount(), originalCurrency(expense, currency)),
                     expense.getDate().toString(),
                     expense.getCategory(),
                     expense.getPaymentMethod(),
@@ -94,7 +105,7 @@ public class ReportService {
             
             // Write budgets header
             csvWriter.writeNext(new String[]{
-                "Budget ID", "Category", "Limit Amount (₹)", "Start Date", "End Date"
+                "Budget ID", "Category", "Limit Amount (" + symbol + ")", "Start Date", "End Date"
             });
             
             // Write budgets data
@@ -102,7 +113,7 @@ public class ReportService {
                 csvWriter.writeNext(new String[]{
                     budget.getId().toString(),
                     budget.getCategory(),
-                    "₹" + budget.getLimitAmount().toString(),
+                    Money.format(budget.getLimitAmount(), currency),
                     budget.getStartDate().toString(),
                     budget.getEndDate().toString()
                 });
@@ -121,7 +132,7 @@ public class ReportService {
             
             // Write bills header
             csvWriter.writeNext(new String[]{
-                "Bill ID", "Name", "Amount (₹)", "Category", "Frequency", "Next Due Date", "Description"
+                "Bill ID", "Name", "Amount (" + symbol + ")", "Category", "Frequency", "Next Due Date", "Description"
             });
             
             // Write bills data
@@ -129,7 +140,7 @@ public class ReportService {
                 csvWriter.writeNext(new String[]{
                     bill.getId().toString(),
                     bill.getName(),
-                    "₹" + bill.getAmount().toString(),
+                    Money.format(bill.getAmount(), currency),
                     bill.getCategory(),
                     bill.getFrequency(),
                     bill.getNextDueDate() != null ? bill.getNextDueDate().toString() : "N/A",
@@ -144,7 +155,8 @@ public class ReportService {
      * Generate Excel report for user expenses
      */
     public byte[] generateUserExcelReport(Long userId) throws IOException {
-        List<Expense> expenses = expenseRepository.findByUserId(userId);
+        List<Expense> expenses = userExpenses(userId);
+        String currency = preferredCurrency(userId);
 
         // --- FIX 1: Declare outputStream here ---
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -160,7 +172,8 @@ public class ReportService {
             headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
             // Create header row
             Row headerRow = sheet.createRow(0);
-            String[] headers = {"Expense ID", "Title", "Description", "Amount (₹)", "Date",
+            String[] headers = {"Expense ID", "Title", "Description",
+                "Amount (" + Money.symbol(currency).trim() + ")", "Original Amount", "Date",
                 "Category", "Payment Method", "Type"};
             for (int i = 0; i < headers.length; i++) {
                 Cell cell = headerRow.createCell(i);
@@ -174,11 +187,12 @@ public class ReportService {
                 row.createCell(0).setCellValue(expense.getId());
                 row.createCell(1).setCellValue(expense.getTitle());
                 row.createCell(2).setCellValue(expense.getDescription());
-                row.createCell(3).setCellValue("₹" + expense.getAmount().toString());
-                row.createCell(4).setCellValue(expense.getDate().toString());
-                row.createCell(5).setCellValue(expense.getCategory());
-                row.createCell(6).setCellValue(expense.getPaymentMethod());
-                row.createCell(7).setCellValue(expense.getExpenseType());
+                row.createCell(3).setCellValue(Money.format(baseAmount(expense), currency));
+                row.createCell(4).setCellValue(Money.format(expense.getAmount(), originalCurrency(expense, currency)));
+                row.createCell(5).setCellValue(expense.getDate().toString());
+                row.createCell(6).setCellValue(expense.getCategory());
+                row.createCell(7).setCellValue(expense.getPaymentMethod());
+                row.createCell(8).setCellValue(expense.getExpenseType());
             }
             // Auto-size columns
             for (int i = 0; i < headers.length; i++) {
@@ -195,8 +209,10 @@ public class ReportService {
      * Generate PDF report for user expenses
      */
     public byte[] generateUserPDFReport(Long userId) throws IOException {
-        List<Expense> expenses = expenseRepository.findByUserId(userId);
+        List<Expense> expenses = userExpenses(userId);
         User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+        String currency = user.getPreferredCurrency();
+        String symbol = Money.symbol(currency);
 
         // Create formatted text report with better structure
         StringBuilder pdfContent = new StringBuilder();
@@ -216,30 +232,33 @@ public class ReportService {
             LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd MMM yyyy, hh:mm a"))));
         pdfContent.append("\n\n");
 
-        // Summary Statistics
-        BigDecimal totalAmount = BigDecimal.ZERO;
-        BigDecimal personalTotal = BigDecimal.ZERO;
-        BigDecimal professionalTotal = BigDecimal.ZERO;
-        int personalCount = 0;
-        int professionalCount = 0;
+        // Summary Statistics (totals kept in minor units)
+        Money.Accumulator total = new Money.Accumulator();
+        Money.Accumulator personal = new Money.Accumulator();
+        Money.Accumulator professional = new Money.Accumulator();
 
         for (Expense expense : expenses) {
-            totalAmount = totalAmount.add(expense.getAmount());
+            long amount = Money.toMinorUnits(baseAmount(expense));
+            total.addMinor(amount);
             if ("PERSONAL".equalsIgnoreCase(expense.getExpenseType())) {
-                personalTotal = personalTotal.add(expense.getAmount());
-                personalCount++;
+                personal.addMinor(amount);
             } else {
-                professionalTotal = professionalTotal.add(expense.getAmount());
-                professionalCount++;
+                professional.addMinor(amount);
             }
         }
 
+        BigDecimal totalAmount = total.toBigDecimal();
+        BigDecimal personalTotal = personal.toBigDecimal();
+        BigDecimal professionalTotal = professional.toBigDecimal();
+        int personalCount = personal.getCount();
+        int professionalCount = professional.getCount();
+
         pdfContent.append("SUMMARY STATISTICS\n");
         pdfContent.append("───────────────────────────────────────────────────────────────────────────\n");
-        pdfContent.append(String.format("  Total Expenses        : ₹ %,.2f\n", totalAmount));
+        pdfContent.append(String.format("  Total Expenses        : %s %,.2f\n", symbol, totalAmount));
         pdfContent.append(String.format("  Total Count           : %d expenses\n", expenses.size()));
-        pdfContent.append(String.format("  Personal Expenses     : ₹ %,.2f (%d expenses)\n", personalTotal, personalCount));
-        pdfContent.append(String.format("  Professional Expenses : ₹ %,.2f (%d expenses)\n", professionalTotal, professionalCount));
+        pdfContent.append(String.format("  Personal Expenses     : %s %,.2f (%d expenses)\n", symbol, personalTotal, personalCount));
+        pdfContent.append(String.format("  Professional Expenses : %s %,.2f (%d expenses)\n", symbol, professionalTotal, professionalCount));
         pdfContent.append("\n\n");
 
         // Detailed Expenses List
@@ -260,10 +279,10 @@ public class ReportService {
                 category = category.substring(0, 12) + "...";
             }
 
-            pdfContent.append(String.format("%-4d %-25s ₹%-10.2f %-12s %-15s %-10s\n",
+            pdfContent.append(String.format("%-4d %-25s %-12s %-12s %-15s %-10s\n",
                 expense.getId(),
                 title,
-                expense.getAmount(),
+                Money.format(baseAmount(expense), currency),
                 expense.getDate().toString(),
                 category,
                 expense.getExpenseType()
@@ -278,12 +297,18 @@ public class ReportService {
                 pdfContent.append(String.format("     Description: %s\n", desc));
             }
             
+            // Show the amount as entered when it was in another currency
+            String original = originalCurrency(expense, currency);
+            if (!original.equalsIgnoreCase(currency)) {
+                pdfContent.append(String.format("     Original: %s\n", Money.format(expense.getAmount(), original)));
+            }
+            
             // Add payment method
             pdfContent.append(String.format("     Payment: %s\n\n", expense.getPaymentMethod()));
         }
 
         pdfContent.append("═══════════════════════════════════════════════════════════════════════════\n");
-        pdfContent.append(String.format("                    GRAND TOTAL: ₹ %,.2f\n", totalAmount));
+        pdfContent.append(String.format("                    GRAND TOTAL: %s %,.2f\n", symbol, totalAmount));
         pdfContent.append("═══════════════════════════════════════════════════════════════════════════\n");
         pdfContent.append("\n\n");
         pdfContent.append("                    End of Report - Thank you for using Expenses Tracker\n");
@@ -291,4 +316,26 @@ public class ReportService {
         // Convert to bytes
         return pdfContent.toString().getBytes(StandardCharsets.UTF_8);
     }
-}
\ No newline at end of file
+
+    private String preferredCurrency(Long userId) {
+        return userRepository.findById(userId)
+            .map(User::getPreferredCurrency)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    // Rows not yet backfilled are treated as already in the user's currency
+    private static BigDecimal baseAmount(Expense expense) {
+        return expense.getBaseAmount() != null ? expense.getBaseAmount() : expense.getAmount();
+    }
+
+    private static String originalCurrency(Expense expense, String fallback) {
+        return expense.getCurrency() != null ? expense.getCurrency() : fallback;
+    }
+
+    // Reports cover the whole history, including expenses moved to the archive
+    private List<Expense> userExpenses(Long userId) {
+        List<Expense> expenses = new ArrayList<>(expenseRepository.findByUserId(userId));
+        expenses.addAll(archive.read(userId, null, null));
+        return expenses;
+    }
+}
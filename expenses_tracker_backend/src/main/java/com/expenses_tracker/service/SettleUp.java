@@ -0,0 +1,96 @@
+package com.expenses_tracker.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.expenses_tracker.util.Money;
+
+/**
+ * Turns a group's balances into payments that clear them.
+ *
+ * A debtor and a creditor holding exactly the same amount are paired first,
+ * found through a hash map; the rest are sorted largest first and matched
+ * greedily, each payment clearing at least one side. That is O(n log n) for
+ * n members and at most n - 1 payments. Finding the true minimum is NP-hard
+ * (it needs zero-sum subsets); the exact pairs catch the common case where
+ * one member owes precisely what another is owed.
+ */
+public final class SettleUp {
+
+    /** One payment: fromUserId pays toUserId the amount */
+    public record Transfer(Long fromUserId, Long toUserId, BigDecimal amount) {}
+
+    private record Position(Long userId, long minor) {}
+
+    private SettleUp() {}
+
+    /**
+     * Payments that bring every balance to zero; balances are in minor units,
+     * positive when the member is owed, and must sum to zero
+     */
+    public static List<Transfer> transfers(Map<Long, Long> balances) {
+        List<Transfer> transfers = new ArrayList<>();
+
+        // Creditors by the amount they are owed, for exact pairing
+        Map<Long, Deque<Long>> creditorsByAmount = new HashMap<>();
+        for (Map.Entry<Long, Long> balance : balances.entrySet()) {
+            if (balance.getValue() > 0) {
+                creditorsByAmount.computeIfAbsent(balance.getValue(), amount -> new ArrayDeque<>())
+                    .add(balance.getKey());
+            }
+        }
+
+        List<Position> debtors = new ArrayList<>();
+        for (Map.Entry<Long, Long> balance : balances.entrySet()) {
+            if (balance.getValue() < 0) {
+                long owed = -balance.getValue();
+                Deque<Long> match = creditorsByAmount.get(owed);
+                if (match != null && !match.isEmpty()) {
+                    transfers.add(transfer(balance.getKey(), match.poll(), owed));
+                } else {
+                    debtors.add(new Position(balance.getKey(), owed));
+                }
+            }
+        }
+        List<Position> creditors = new ArrayList<>();
+        creditorsByAmount.forEach((amount, userIds) ->
+            userIds.forEach(userId -> creditors.add(new Position(userId, amount))));
+
+        // Ties broken by user id so the same balances always give the same payments
+        Comparator<Position> largestFirst = Comparator.comparingLong(Position::minor).reversed()
+            .thenComparing(Position::userId);
+        debtors.sort(largestFirst);
+        creditors.sort(largestFirst);
+
+        int d = 0;
+        int c = 0;
+        long debt = debtors.isEmpty() ? 0 : debtors.get(0).minor();
+        long credit = creditors.isEmpty() ? 0 : creditors.get(0).minor();
+        while (d < debtors.size() && c < creditors.size()) {
+            long amount = Math.min(debt, credit);
+            transfers.add(transfer(debtors.get(d).userId(), creditors.get(c).userId(), amount));
+            debt -= amount;
+            credit -= amount;
+            if (debt == 0 && ++d < debtors.size()) {
+                debt = debtors.get(d).minor();
+            }
+            if (credit == 0 && ++c < creditors.size()) {
+                credit = creditors.get(c).minor();
+            }
+        }
+        if (d < debtors.size() || c < creditors.size()) {
+            throw new IllegalStateException("Group balances do not sum to zero");
+        }
+        return transfers;
+    }
+
+    private static Transfer transfer(Long from, Long to, long minor) {
+        return new Transfer(from, to, Money.fromMinorUnits(minor));
+    }
+}
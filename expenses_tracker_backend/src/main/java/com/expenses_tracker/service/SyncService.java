@@ -0,0 +1,119 @@
+package com.expenses_tracker.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.expenses_tracker.archive.ExpenseArchive;
+import com.expenses_tracker.dto.SyncResponse;
+import com.expenses_tracker.entity.Expense;
+import com.expenses_tracker.entity.JobCheckpoint;
+import com.expenses_tracker.repository.BudgetRepository;
+import com.expenses_tracker.repository.ExpenseRepository;
+import com.expenses_tracker.repository.JobCheckpointRepository;
+import com.expenses_tracker.repository.NotificationRepository;
+import com.expenses_tracker.repository.RecurringBillRepository;
+import com.expenses_tracker.repository.SyncTombstoneRepository;
+import com.expenses_tracker.sync.SyncClock;
+
+/**
+ * Delta sync: everything a user's rows went through after a change version.
+ *
+ * Tombstones are pruned after tombstone-retention-days. The highest pruned
+ * version is kept as a floor; a client asking for changes since an older
+ * version gets a full resync instead, since deletes it missed are gone.
+ */
+@Service
+public class SyncService {
+
+    static final String PRUNE_JOB = "sync-tombstone-prune";
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private RecurringBillRepository recurringBillRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private SyncTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private ExpenseArchive archive;
+
+    @Autowired
+    private SyncClock clock;
+
+    @Value("${expenses.sync.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
+
+    /**
+     * Changes to a user's rows with a version above since, up to the current high-water mark
+     */
+    // Not read-only: a lagging replica could be missing rows below the high-water mark
+    @Transactional
+    public SyncResponse changesSince(Long userId, long since) {
+        long highWaterMark = clock.highWaterMark();
+        boolean fullResync = since <= 0 || since < tombstoneFloor() || since > highWaterMark;
+        long from = fullResync ? 0 : since;
+
+        SyncResponse response = new SyncResponse();
+        response.setSince(since);
+        response.setHighWaterMark(highWaterMark);
+        response.setFullResync(fullResync);
+
+        List<Expense> expenses = new ArrayList<>(expenseRepository.findChangedSince(userId, from, highWaterMark));
+        if (fullResync) {
+            // Archived expenses never change, so only a full resync needs them
+            expenses.addAll(archive.read(userId, null, null));
+        }
+        response.setExpenses(expenses);
+        response.setBudgets(budgetRepository.findChangedSince(userId, from, highWaterMark));
+        response.setRecurringBills(recurringBillRepository.findChangedSince(userId, from, highWaterMark));
+        response.setNotifications(notificationRepository.findChangedSince(userId, from, highWaterMark));
+        if (!fullResync) {
+            response.setDeleted(tombstoneRepository.findChangedSince(userId, from, highWaterMark));
+        }
+        return response;
+    }
+
+    @Scheduled(cron = "${expenses.sync.tombstone-prune-cron:0 45 2 * * *}")
+    @Transactional
+    public void pruneTombstones() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(Duration.ofDays(tombstoneRetentionDays)));
+        Long prunedVersion = tombstoneRepository.findMaxVersionDeletedBefore(cutoff);
+        if (prunedVersion == null) {
+            return;
+        }
+        // Raise the floor before deleting, in the same transaction
+        JobCheckpoint floor = checkpointRepository.findById(PRUNE_JOB)
+            .orElseGet(() -> new JobCheckpoint(PRUNE_JOB, LocalDate.now()));
+        floor.setRunDate(LocalDate.now());
+        floor.setLastId(Math.max(floor.getLastId(), prunedVersion));
+        floor.setCompleted(true);
+        checkpointRepository.save(floor);
+        int deleted = tombstoneRepository.deleteByDeletedAtBefore(cutoff);
+        System.out.println("Pruned " + deleted + " sync tombstones up to change version " + floor.getLastId());
+    }
+
+    private long tombstoneFloor() {
+        return checkpointRepository.findById(PRUNE_JOB).map(JobCheckpoint::getLastId).orElse(0L);
+    }
+}
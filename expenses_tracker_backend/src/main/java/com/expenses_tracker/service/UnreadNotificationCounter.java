@@ -0,0 +1,65 @@
+package com.expenses_tracker.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.expenses_tracker.repository.NotificationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Per-user unread notification counts held in memory.
+ *
+ * A user's count is loaded from the database on first read, then adjusted
+ * in place by NotificationService on every write. Writes for users not in
+ * the cache are ignored, since their next read loads a fresh count. Entries
+ * expire after a while so a count that drifted (e.g. from a write racing the
+ * initial load, or another instance) corrects itself.
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    private final NotificationRepository notificationRepository;
+    private final Cache<Long, AtomicLong> counts;
+
+    public UnreadNotificationCounter(NotificationRepository notificationRepository,
+                                     @Value("${expenses.notifications.unread-counter.max-users:100000}") long maxUsers,
+                                     @Value("${expenses.notifications.unread-counter.ttl-seconds:600}") long ttlSeconds) {
+        this.notificationRepository = notificationRepository;
+        this.counts = Caffeine.newBuilder()
+            .maximumSize(maxUsers)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .build();
+    }
+
+    public long get(Long userId) {
+        AtomicLong count = counts.get(userId, id -> new AtomicLong(notificationRepository.countByUserIdAndIsReadFalse(id)));
+        return Math.max(0, count.get());
+    }
+
+    public void adjust(Long userId, long delta) {
+        if (userId == null || delta == 0) {
+            return;
+        }
+        AtomicLong count = counts.getIfPresent(userId);
+        if (count != null) {
+            count.addAndGet(delta);
+        }
+    }
+
+    public void reset(Long userId) {
+        AtomicLong count = counts.getIfPresent(userId);
+        if (count != null) {
+            count.set(0);
+        }
+    }
+
+    public void evict(Long userId) {
+        if (userId != null) {
+            counts.invalidate(userId);
+        }
+    }
+}
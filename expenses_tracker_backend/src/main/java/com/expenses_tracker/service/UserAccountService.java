@@ -0,0 +1,49 @@
+package com.expenses_tracker.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.expenses_tracker.entity.User;
+import com.expenses_tracker.repository.ExpenseRepository;
+import com.expenses_tracker.repository.UserRepository;
+
+/**
+ * Deletes accounts and wipes all data.
+ *
+ * Rows that reference users are removed here, in the same transaction as the
+ * users. Caches, indexes, archive files and statistics belong to their own
+ * components, which listen for UserDeletedEvent and AllDataClearedEvent and
+ * act once the transaction has committed.
+ */
+@Service
+public class UserAccountService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @Transactional
+    public void deleteUser(User user) {
+        groupService.deleteUser(user.getId());
+        userRepository.delete(user);
+        events.publishEvent(new UserDeletedEvent(user.getId()));
+    }
+
+    @Transactional
+    public void clearAllData() {
+        expenseRepository.deleteAll();
+        groupService.clear();
+        userRepository.deleteAll();
+        events.publishEvent(new AllDataClearedEvent());
+    }
+}
@@ -0,0 +1,8 @@
+package com.expenses_tracker.service;
+
+/**
+ * Published by UserAccountService once a user's account is deleted, so each
+ * component can drop what it holds for that user
+ */
+public record UserDeletedEvent(Long userId) {
+}
@@ -0,0 +1,43 @@
+package com.expenses_tracker.sync;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.expenses_tracker.entity.SyncTracked;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * Stamps sync-tracked entities with the transaction's change version and
+ * records a tombstone when one is deleted. Bulk JPQL and JDBC statements
+ * skip entity callbacks and have to do both themselves.
+ */
+public class ChangeVersionListener {
+
+    // Lazy: listeners are built while the EntityManagerFactory the clock depends on is starting
+    @Autowired
+    private ObjectProvider<SyncClock> clock;
+
+    @Autowired
+    private ObjectProvider<TombstoneRecorder> tombstones;
+
+    @PrePersist
+    @PreUpdate
+    void stamp(Object entity) {
+        ((SyncTracked) entity).setChangeVersion(clock.getObject().currentTransactionVersion());
+    }
+
+    @PostRemove
+    void tombstone(Object entity) {
+        SyncTracked tracked = (SyncTracked) entity;
+        Long userId = tracked.getUser() != null ? tracked.getUser().getId() : null;
+        tombstones.getObject().record(entityType(entity), tracked.getId(), userId);
+    }
+
+    public static String entityType(Object entity) {
+        return Hibernate.getClass(entity).getSimpleName();
+    }
+}
@@ -0,0 +1,107 @@
+package com.expenses_tracker.sync;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Source of monotonically increasing change versions for delta sync.
+ *
+ * Every transaction that writes sync-tracked rows gets one version, shared
+ * by all rows it touches. Versions come from the single sync_counter row,
+ * incremented in the writing transaction itself, so every instance draws
+ * from the same sequence. The row stays locked until that transaction
+ * completes: writers holding a version commit one after another, in version
+ * order, and a rolled-back version is handed out again.
+ *
+ * The high-water mark is the counter's committed value. No transaction with
+ * a version at or below it can still be in flight, so a client that has
+ * synced up to the high-water mark can never miss a row that commits later
+ * with a lower version.
+ */
+@Component
+public class SyncClock {
+
+    static final String[] TRACKED_TABLES = {"expense", "budget", "recurring_bill", "notification"};
+
+    private static final long COUNTER_ID = 1;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Depends on the EntityManagerFactory so the schema exists before seeding
+    public SyncClock(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Migration V7 creates the counter row; a schema built from the entities starts without one
+    @PostConstruct
+    void seed() {
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sync_counter WHERE id = ?", Integer.class, COUNTER_ID);
+        if (rows != null && rows > 0) {
+            return;
+        }
+        long max = 1;
+        for (String table : TRACKED_TABLES) {
+            Long tableMax = jdbcTemplate.queryForObject("SELECT MAX(change_version) FROM " + table, Long.class);
+            max = Math.max(max, tableMax != null ? tableMax : 0);
+        }
+        Long tombstoneMax = jdbcTemplate.queryForObject("SELECT MAX(change_version) FROM sync_tombstone", Long.class);
+        max = Math.max(max, tombstoneMax != null ? tombstoneMax : 0);
+        try {
+            jdbcTemplate.update("INSERT INTO sync_counter (id, last_version) VALUES (?, ?)", COUNTER_ID, max);
+            System.out.println("Sync clock starting at change version " + max);
+        } catch (DuplicateKeyException e) {
+            // Another instance seeded it first
+        }
+    }
+
+    /**
+     * The change version of the current transaction, allocating one on first use
+     */
+    public long currentTransactionVersion() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Change versions must be allocated inside a transaction");
+        }
+        Long bound = (Long) TransactionSynchronizationManager.getResource(this);
+        if (bound != null) {
+            return bound;
+        }
+        long version = allocate();
+        TransactionSynchronizationManager.bindResource(this, version);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(SyncClock.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(SyncClock.this, version);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(SyncClock.this);
+            }
+        });
+        return version;
+    }
+
+    /**
+     * Highest version below which every transaction has completed
+     */
+    public long highWaterMark() {
+        return jdbcTemplate.queryForObject("SELECT last_version FROM sync_counter WHERE id = ?", Long.class, COUNTER_ID);
+    }
+
+    // Runs on the caller's connection, so the row lock is held until its transaction completes
+    private long allocate() {
+        jdbcTemplate.update("UPDATE sync_counter SET last_version = last_version + 1 WHERE id = ?", COUNTER_ID);
+        return jdbcTemplate.queryForObject("SELECT last_version FROM sync_counter WHERE id = ?", Long.class, COUNTER_ID);
+    }
+}
@@ -0,0 +1,69 @@
+package com.expenses_tracker.sync;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes sync tombstones for deleted rows, in the caller's transaction.
+ * Bulk deletes record theirs with a single INSERT ... SELECT issued just
+ * before the DELETE.
+ */
+@Component
+public class TombstoneRecorder {
+
+    private static final String INSERT =
+        "INSERT INTO sync_tombstone (entity_type, entity_id, user_id, change_version, deleted_at) ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SyncClock clock;
+
+    public TombstoneRecorder(JdbcTemplate jdbcTemplate, SyncClock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+    }
+
+    public void record(String entityType, Long entityId, Long userId) {
+        jdbcTemplate.update(INSERT + "VALUES (?, ?, ?, ?, ?)",
+            entityType, entityId, userId, clock.currentTransactionVersion(), now());
+    }
+
+    /**
+     * Tombstones for the given rows of a tracked table; a null userId matches any owner
+     */
+    public int recordIds(String entityType, String table, Long userId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        String sql = INSERT + "SELECT ?, id, user_id, ?, ? FROM " + table + " WHERE id IN (" + placeholders + ")";
+        Object[] args = new Object[ids.size() + (userId != null ? 4 : 3)];
+        args[0] = entityType;
+        args[1] = clock.currentTransactionVersion();
+        args[2] = now();
+        int i = 3;
+        for (Long id : ids) {
+            args[i++] = id;
+        }
+        if (userId != null) {
+            sql += " AND user_id = ?";
+            args[i] = userId;
+        }
+        return jdbcTemplate.update(sql, args);
+    }
+
+    /**
+     * Tombstones for every row of a tracked table owned by the user
+     */
+    public int recordAllOfUser(String entityType, String table, Long userId) {
+        return jdbcTemplate.update(INSERT + "SELECT ?, id, user_id, ?, ? FROM " + table + " WHERE user_id = ?",
+            entityType, clock.currentTransactionVersion(), now(), userId);
+    }
+
+    private static Timestamp now() {
+        return new Timestamp(System.currentTimeMillis());
+    }
+}
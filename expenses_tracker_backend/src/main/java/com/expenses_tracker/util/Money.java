@@ -0,0 +1,184 @@
+package com.expenses_tracker.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Immutable monetary amount held as a long count of minor units (paise,
+ * cents) plus an ISO 4217 currency code.
+ *
+ * Amount columns are persisted as DECIMAL with scale 2, so converting a stored
+ * BigDecimal to minor units is exact. Use {@link Accumulator} to total many
+ * amounts without allocating a new object per row.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int MINOR_SCALE = 2;
+
+    private final long minorUnits;
+    private final String currency;
+
+    private Money(long minorUnits, String currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    public static Money ofMinor(long minorUnits, String currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    public static Money of(BigDecimal amount, String currency) {
+        return new Money(toMinorUnits(amount), currency);
+    }
+
+    public static Money zero(String currency) {
+        return new Money(0L, currency);
+    }
+
+    /**
+     * Converts a decimal amount to minor units; null counts as zero
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        if (amount.scale() != MINOR_SCALE) {
+            amount = amount.setScale(MINOR_SCALE, RoundingMode.HALF_UP);
+        }
+        return amount.unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromMinorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, MINOR_SCALE);
+    }
+
+    /**
+     * Display symbol for a currency code, falling back to the code itself
+     */
+    public static String symbol(String currency) {
+        if (currency == null) {
+            return "";
+        }
+        switch (currency.toUpperCase(Locale.ROOT)) {
+            case "INR": return "₹";
+            case "USD": return "$";
+            case "EUR": return "€";
+            case "GBP": return "£";
+            case "JPY": return "¥";
+            default: return currency.toUpperCase(Locale.ROOT) + " ";
+        }
+    }
+
+    /**
+     * Formats an amount with its currency symbol, e.g. ₹1234.50
+     */
+    public static String format(BigDecimal amount, String currency) {
+        return symbol(currency) + String.format("%.2f", amount != null ? amount : BigDecimal.ZERO);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return fromMinorUnits(minorUnits);
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public boolean isZeroOrNegative() {
+        return minorUnits <= 0;
+    }
+
+    /**
+     * True when this amount is strictly above numerator/denominator of the
+     * given limit, compared exactly in integer arithmetic (e.g. 9/10 for 90%)
+     */
+    public boolean exceedsFractionOf(Money limit, int numerator, int denominator) {
+        requireSameCurrency(limit);
+        return Math.multiplyExact(minorUnits, (long) denominator)
+                > Math.multiplyExact(limit.minorUnits, (long) numerator);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money)) {
+            return false;
+        }
+        Money other = (Money) o;
+        return minorUnits == other.minorUnits && Objects.equals(currency, other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(minorUnits, currency);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency;
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!Objects.equals(currency, other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+        }
+    }
+
+    /**
+     * Mutable running total in minor units; not thread-safe
+     */
+    public static final class Accumulator {
+        private long total;
+        private int count;
+
+        public Accumulator add(BigDecimal amount) {
+            return addMinor(toMinorUnits(amount));
+        }
+
+        public Accumulator addMinor(long minorUnits) {
+            total = Math.addExact(total, minorUnits);
+            count++;
+            return this;
+        }
+
+        public long getMinorUnits() {
+            return total;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public BigDecimal toBigDecimal() {
+            return fromMinorUnits(total);
+        }
+
+        public Money toMoney(String currency) {
+            return new Money(total, currency);
+        }
+    }
+}
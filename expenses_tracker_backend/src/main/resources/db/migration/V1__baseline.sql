@@ -0,0 +1,96 @@
+-- Schema as first deployed (the tables in init-db/backup.sql). Databases that
+-- already hold these tables are baselined at this version and start at V2.
+
+create table users (
+    id bigint not null auto_increment,
+    accessibility_mode bit not null,
+    birthdate varchar(255),
+    dark_mode bit not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    preferred_currency varchar(255) not null,
+    profile_photo_url varchar(1000),
+    username varchar(255) not null,
+    primary key (id),
+    constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email),
+    constraint UKr43af9ap4edm43mmtq01oddj6 unique (username)
+) engine=InnoDB;
+
+create table roles (
+    id bigint not null auto_increment,
+    name enum ('ROLE_ADMIN','ROLE_USER'),
+    primary key (id)
+) engine=InnoDB;
+
+create table user_roles (
+    user_id bigint not null,
+    role_id bigint not null,
+    primary key (user_id, role_id),
+    constraint FKh8ciramu9cc9q3qcqiv4ue8a6 foreign key (role_id) references roles (id),
+    constraint FKhfh9dx7w3ubf1co1vdev94g3f foreign key (user_id) references users (id)
+) engine=InnoDB;
+
+create table category (
+    id bigint not null auto_increment,
+    description varchar(500),
+    icon varchar(255),
+    name varchar(255) not null,
+    primary key (id),
+    constraint UK46ccwnsi9409t36lurvtyljak unique (name)
+) engine=InnoDB;
+
+create table expense (
+    id bigint not null auto_increment,
+    amount decimal(38,2),
+    category varchar(255),
+    date date,
+    description varchar(255),
+    expense_type varchar(255),
+    is_pinned bit not null,
+    payment_method varchar(255),
+    title varchar(255),
+    user_id bigint not null,
+    primary key (id),
+    constraint FKekyts7i8w5cam119wj1itdom2 foreign key (user_id) references users (id)
+) engine=InnoDB;
+
+create table budget (
+    id bigint not null auto_increment,
+    category varchar(255),
+    end_date date,
+    limit_amount decimal(38,2),
+    start_date date,
+    user_id bigint not null,
+    primary key (id),
+    constraint FK5hquwcop4uwka537brlrxifl3 foreign key (user_id) references users (id)
+) engine=InnoDB;
+
+create table notification (
+    id bigint not null auto_increment,
+    created_at datetime(6),
+    is_read bit not null,
+    message varchar(255),
+    user_id bigint not null,
+    primary key (id),
+    constraint FKnk4ftb5am9ubmkv1661h15ds9 foreign key (user_id) references users (id)
+) engine=InnoDB;
+
+create table recurring_bill (
+    id bigint not null auto_increment,
+    amount decimal(38,2),
+    bill_name varchar(255),
+    category varchar(255),
+    day_of_month_due integer not null,
+    description varchar(255),
+    frequency varchar(255),
+    is_paid bit,
+    name varchar(255),
+    next_due_date date,
+    paid_date date,
+    reminder_days_before integer,
+    reminder_hour integer,
+    reminder_minute integer,
+    user_id bigint not null,
+    primary key (id),
+    constraint FK3l3d1imlc9vfr445qad7rbs2c foreign key (user_id) references users (id)
+) engine=InnoDB;
@@ -0,0 +1,61 @@
+-- Columns, tables and indexes added after the first deployment, while the
+-- schema was still maintained by ddl-auto=update. A database that update has
+-- already brought to this state is baselined with spring.flyway.baseline-version=2.
+
+-- Delta sync: change versions on tracked rows, tombstones for deletes
+alter table expense add column change_version bigint;
+alter table budget add column change_version bigint;
+alter table notification add column change_version bigint;
+alter table recurring_bill add column change_version bigint;
+
+create table sync_tombstone (
+    id bigint not null auto_increment,
+    change_version bigint,
+    deleted_at datetime(6),
+    entity_id bigint,
+    entity_type varchar(255),
+    user_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+-- Multi-currency amounts
+alter table expense add column currency varchar(255);
+alter table expense add column base_amount decimal(38,2);
+alter table expense add column base_currency varchar(255);
+
+-- Expenses posted by recurring bills, at most one per bill cycle
+alter table expense add column recurring_bill_id bigint;
+alter table expense add column bill_cycle_date date;
+alter table expense add constraint uk_expense_bill_cycle unique (recurring_bill_id, bill_cycle_date);
+
+-- Batch job progress, replica lag heartbeat, archived expense segments
+create table job_checkpoint (
+    job_name varchar(255) not null,
+    completed bit not null,
+    last_id bigint not null,
+    run_date date,
+    primary key (job_name)
+) engine=InnoDB;
+
+create table replica_heartbeat (
+    id bigint not null,
+    beat_at bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table archive_segment (
+    id bigint not null auto_increment,
+    file_name varchar(255),
+    max_date date,
+    min_date date,
+    row_count integer not null,
+    segment_year integer not null,
+    updated_at datetime(6),
+    user_id bigint,
+    primary key (id),
+    constraint uk_archive_segment_user_year unique (user_id, segment_year)
+) engine=InnoDB;
+
+create index idx_budget_user_category_dates on budget (user_id, category, start_date, end_date);
+create index idx_notification_user_read_created on notification (user_id, is_read, created_at);
+create index idx_sync_tombstone_user_version on sync_tombstone (user_id, change_version);
@@ -0,0 +1,32 @@
+-- One index per access path of the repository queries and batch jobs.
+-- QueryPlanTests fails when a repository query no longer finds an index here.
+
+-- findByUserId*, filterUserExpenses, sumUserExpenses, findByUserIdAndDateBefore:
+-- one user's rows, newest first
+create index idx_expense_user_date on expense (user_id, date);
+
+-- Budget spending (calculateTotalSpendingByUserAndCategory, BudgetSweepService),
+-- covering so the sum is read from the index alone
+create index idx_expense_user_category_date on expense (user_id, category, date, base_amount);
+
+-- Delta sync (findChangedSince)
+create index idx_expense_user_version on expense (user_id, change_version);
+create index idx_budget_user_version on budget (user_id, change_version);
+create index idx_notification_user_version on notification (user_id, change_version);
+create index idx_recurring_bill_user_version on recurring_bill (user_id, change_version);
+
+-- Date-range reads across all users (findByDateBetween, archiving)
+create index idx_expense_date on expense (date);
+create index idx_archive_segment_dates on archive_segment (max_date, min_date);
+
+-- Notification list newest first, and recent-alert lookups of the budget sweep
+create index idx_notification_user_created on notification (user_id, created_at);
+
+-- Read-notification retention walks expired rows across all users
+create index idx_notification_read_created on notification (is_read, created_at);
+
+-- Tombstone retention and the oldest still-syncable version
+create index idx_sync_tombstone_deleted on sync_tombstone (deleted_at);
+
+-- Recurring bill posting: bills due on or before a date
+create index idx_recurring_bill_next_due on recurring_bill (next_due_date);
@@ -0,0 +1,58 @@
+-- Shared group expenses. group_member.balance is the running ledger:
+-- amount paid for the group minus shares owed, adjusted on every posting.
+
+create table expense_group (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    description varchar(500),
+    currency varchar(255) not null,
+    created_by bigint,
+    created_at datetime(6),
+    primary key (id),
+    constraint fk_expense_group_created_by foreign key (created_by) references users (id)
+) engine=InnoDB;
+
+create table group_member (
+    id bigint not null auto_increment,
+    group_id bigint,
+    user_id bigint,
+    balance decimal(38,2) not null,
+    joined_at datetime(6),
+    primary key (id),
+    constraint uk_group_member_group_user unique (group_id, user_id),
+    constraint fk_group_member_group foreign key (group_id) references expense_group (id),
+    constraint fk_group_member_user foreign key (user_id) references users (id)
+) engine=InnoDB;
+
+create table group_expense (
+    id bigint not null auto_increment,
+    group_id bigint,
+    paid_by bigint,
+    description varchar(255),
+    amount decimal(38,2) not null,
+    split_type enum ('EQUAL','EXACT','PERCENTAGE','SETTLEMENT'),
+    date date,
+    created_by bigint,
+    created_at datetime(6),
+    primary key (id),
+    constraint fk_group_expense_group foreign key (group_id) references expense_group (id),
+    constraint fk_group_expense_paid_by foreign key (paid_by) references users (id)
+) engine=InnoDB;
+
+create table group_expense_share (
+    id bigint not null auto_increment,
+    expense_id bigint,
+    user_id bigint,
+    amount decimal(38,2) not null,
+    primary key (id),
+    constraint fk_group_expense_share_expense foreign key (expense_id) references group_expense (id)
+) engine=InnoDB;
+
+-- A user's groups (findByUserId); the unique key serves lookups by group
+create index idx_group_member_user on group_member (user_id, group_id);
+
+-- A group's history, newest first, paged by id
+create index idx_group_expense_group on group_expense (group_id, id);
+
+-- The shares of a page of expenses
+create index idx_group_expense_share_expense on group_expense_share (expense_id);
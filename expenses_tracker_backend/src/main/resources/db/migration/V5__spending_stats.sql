@@ -0,0 +1,17 @@
+-- Running statistics of each user's spending per category, over the log of
+-- the amount in their preferred currency: one row per (user, category),
+-- updated in place on every expense write. Rebuilt from expense by
+-- SpendingAnomalyDetector, so the table can be emptied at any time.
+
+create table spending_stats (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    category varchar(255) not null,
+    sample_count bigint not null,
+    mean_log float(53) not null,
+    variance_log float(53) not null,
+    updated_at datetime(6),
+    primary key (id),
+    -- Serves the per-write lookup and a user's listing
+    constraint uk_spending_stats_user_category unique (user_id, category)
+) engine=InnoDB;
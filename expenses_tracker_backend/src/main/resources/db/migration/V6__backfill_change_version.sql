@@ -0,0 +1,8 @@
+-- Rows written before delta sync existed count as version 1, so a full sync
+-- returns them. Every later write stamps change_version (ChangeVersionListener,
+-- or explicitly in the JDBC inserts), so this only has to run once.
+
+update expense set change_version = 1 where change_version is null;
+update budget set change_version = 1 where change_version is null;
+update recurring_bill set change_version = 1 where change_version is null;
+update notification set change_version = 1 where change_version is null;
@@ -0,0 +1,18 @@
+-- Change versions are allocated from this row rather than in each process,
+-- so several instances share one sequence. It starts at the highest version
+-- already written (V6 gave older rows version 1).
+
+create table sync_counter (
+    id bigint not null,
+    last_version bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+insert into sync_counter (id, last_version)
+select 1, coalesce(max(v), 1) from (
+    select max(change_version) as v from expense
+    union all select max(change_version) from budget
+    union all select max(change_version) from recurring_bill
+    union all select max(change_version) from notification
+    union all select max(change_version) from sync_tombstone
+) versions;
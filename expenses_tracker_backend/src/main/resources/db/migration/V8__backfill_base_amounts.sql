@@ -0,0 +1,10 @@
+-- Expenses written before multi-currency support have no currency columns.
+-- Their amounts were entered in the owner's preferred currency, so that is
+-- both their currency and their base. Every later write sets base_amount,
+-- so this only has to run once.
+
+update expense set
+    currency = coalesce(currency, (select u.preferred_currency from users u where u.id = expense.user_id)),
+    base_currency = (select u.preferred_currency from users u where u.id = expense.user_id),
+    base_amount = amount
+where base_amount is null;
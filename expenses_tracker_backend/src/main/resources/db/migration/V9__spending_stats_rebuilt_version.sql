@@ -0,0 +1,5 @@
+-- Change version a rebuild read a row's expenses at, so an incremental
+-- update it has already counted is not applied twice. Existing rows were
+-- not written by a versioned rebuild.
+
+alter table spending_stats add column rebuilt_version bigint not null default 0;
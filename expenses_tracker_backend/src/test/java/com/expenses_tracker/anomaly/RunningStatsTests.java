@@ -0,0 +1,58 @@
+package com.expenses_tracker.anomaly;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the streaming statistics against a two-pass computation, that
+ * minus undoes plus within the window, and that past it the mean follows
+ * a shift in the values.
+ */
+class RunningStatsTests {
+
+    @Test
+    void matchesTwoPassWithinWindow() {
+        Random random = new Random(7);
+        double[] values = new double[500];
+        RunningStats stats = RunningStats.EMPTY;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 3 + random.nextGaussian();
+            stats = stats.plus(values[i], values.length);
+        }
+        double mean = 0;
+        for (double v : values) {
+            mean += v / values.length;
+        }
+        double variance = 0;
+        for (double v : values) {
+            variance += (v - mean) * (v - mean) / values.length;
+        }
+        assertEquals(values.length, stats.count());
+        assertEquals(mean, stats.mean(), 1e-9);
+        assertEquals(variance, stats.variance(), 1e-9);
+
+        RunningStats removed = stats.minus(values[values.length - 1], values.length);
+        RunningStats expected = RunningStats.EMPTY;
+        for (int i = 0; i < values.length - 1; i++) {
+            expected = expected.plus(values[i], values.length);
+        }
+        assertEquals(expected.mean(), removed.mean(), 1e-9);
+        assertEquals(expected.variance(), removed.variance(), 1e-9);
+    }
+
+    @Test
+    void followsShiftPastWindow() {
+        RunningStats stats = RunningStats.EMPTY;
+        for (int i = 0; i < 1000; i++) {
+            stats = stats.plus(1 + (i % 2) * 0.1, 50);
+        }
+        for (int i = 0; i < 500; i++) {
+            stats = stats.plus(5 + (i % 2) * 0.1, 50);
+        }
+        assertEquals(5.05, stats.mean(), 0.01);
+        assertEquals(0.05, stats.standardDeviation(), 0.01);
+    }
+}
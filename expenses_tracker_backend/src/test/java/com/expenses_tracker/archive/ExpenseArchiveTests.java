@@ -0,0 +1,120 @@
+package com.expenses_tracker.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.expenses_tracker.entity.ArchiveSegment;
+import com.expenses_tracker.entity.Expense;
+import com.expenses_tracker.entity.User;
+import com.expenses_tracker.repository.ArchiveSegmentRepository;
+import com.expenses_tracker.repository.ExpenseRepository;
+import com.expenses_tracker.repository.UserRepository;
+import com.expenses_tracker.service.ExpenseService;
+
+/**
+ * Archives a user's old expenses one year at a time and checks that reads
+ * merge them back with the hot rows newest first, and that archiving into
+ * a year that already has a segment merges with it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class ExpenseArchiveTests {
+
+    private static final LocalDate CUTOFF = LocalDate.of(2023, 1, 1);
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void archiveDirectory(DynamicPropertyRegistry registry) {
+        registry.add("expenses.archive.directory", directory::toString);
+    }
+
+    @Autowired
+    private ExpenseArchive archive;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ArchiveSegmentRepository segmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void archivesByYearAndMergesOnRead() throws IOException {
+        User user = userRepository.save(new User("archive-" + System.nanoTime(), System.nanoTime() + "@example.com", "x"));
+        save(user, LocalDate.of(2021, 11, 3), "10.00");
+        save(user, LocalDate.of(2021, 2, 14), "20.00");
+        save(user, LocalDate.of(2022, 12, 31), "30.00");
+        save(user, LocalDate.of(2019, 6, 1), "40.00");
+        save(user, CUTOFF, "50.00");
+        save(user, LocalDate.of(2024, 5, 5), "60.00");
+
+        assertEquals(4, archive.archiveBefore(CUTOFF));
+        assertEquals(List.of(CUTOFF, LocalDate.of(2024, 5, 5)), dates(expenseRepository.findByUserId(user.getId())));
+        List<ArchiveSegment> segments = segmentRepository.findByUserId(user.getId());
+        assertEquals(List.of(2019, 2021, 2022),
+            segments.stream().map(ArchiveSegment::getSegmentYear).sorted().collect(Collectors.toList()));
+
+        // Within a segment rows are kept in date order
+        List<Expense> year2021 = archive.read(user.getId(), LocalDate.of(2021, 1, 1), LocalDate.of(2021, 12, 31));
+        assertEquals(List.of(LocalDate.of(2021, 2, 14), LocalDate.of(2021, 11, 3)), dates(year2021));
+        assertTrue(year2021.stream().allMatch(Expense::isArchived));
+
+        assertEquals(List.of(LocalDate.of(2024, 5, 5), CUTOFF, LocalDate.of(2022, 12, 31), LocalDate.of(2021, 11, 3),
+                LocalDate.of(2021, 2, 14), LocalDate.of(2019, 6, 1)),
+            dates(expenseService.getExpensesByUserId(user.getId())));
+
+        // A late-arriving old expense is merged into the existing segment, which moves to a new file
+        String before = segmentFile(user, 2021);
+        save(user, LocalDate.of(2021, 7, 7), "70.00");
+        assertEquals(1, archive.archiveBefore(CUTOFF));
+        assertEquals(List.of(LocalDate.of(2021, 2, 14), LocalDate.of(2021, 7, 7), LocalDate.of(2021, 11, 3)),
+            dates(archive.read(user.getId(), LocalDate.of(2021, 1, 1), LocalDate.of(2021, 12, 31))));
+        assertTrue(Files.notExists(directory.resolve(before)));
+        try (Stream<Path> files = Files.list(directory.resolve(user.getId().toString()))) {
+            assertEquals(3, files.count());
+        }
+    }
+
+    private void save(User user, LocalDate date, String amount) {
+        Expense expense = new Expense();
+        expense.setUser(user);
+        expense.setTitle("Expense on " + date);
+        expense.setAmount(new BigDecimal(amount));
+        expense.setCurrency("INR");
+        expense.setBaseAmount(new BigDecimal(amount));
+        expense.setBaseCurrency("INR");
+        expense.setDate(date);
+        expense.setCategory("Food");
+        expenseRepository.save(expense);
+    }
+
+    private String segmentFile(User user, int year) {
+        return segmentRepository.findByUserIdAndSegmentYear(user.getId(), year).orElseThrow().getFileName();
+    }
+
+    private static List<LocalDate> dates(List<Expense> expenses) {
+        return expenses.stream().map(Expense::getDate).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,114 @@
+package com.expenses_tracker.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.expenses_tracker.entity.Expense;
+
+/**
+ * Round-trips segments through write, inflate and decode, including rows
+ * with every optional field null.
+ */
+class ExpenseSegmentCodecTests {
+
+    @Test
+    void roundTripsEveryField() throws IOException {
+        Expense full = new Expense();
+        full.setId(41L);
+        full.setTitle("Électricité – März");
+        full.setDescription("Monthly bill");
+        full.setAmount(new BigDecimal("120.50"));
+        full.setCurrency("EUR");
+        full.setBaseAmount(new BigDecimal("10843.99"));
+        full.setBaseCurrency("INR");
+        full.setDate(LocalDate.of(2021, 3, 5));
+        full.setPaymentMethod("Card");
+        full.setPinned(true);
+        full.setExpenseType("Personal");
+        full.setCategory("Utilities");
+        full.setRecurringBillId(7L);
+        full.setBillCycleDate(LocalDate.of(2021, 3, 1));
+
+        Expense decoded = roundTrip(List.of(full)).get(0);
+        assertEquals(41L, decoded.getId());
+        assertEquals("Électricité – März", decoded.getTitle());
+        assertEquals("Monthly bill", decoded.getDescription());
+        assertEquals(new BigDecimal("120.50"), decoded.getAmount());
+        assertEquals("EUR", decoded.getCurrency());
+        assertEquals(new BigDecimal("10843.99"), decoded.getBaseAmount());
+        assertEquals("INR", decoded.getBaseCurrency());
+        assertEquals(LocalDate.of(2021, 3, 5), decoded.getDate());
+        assertEquals("Card", decoded.getPaymentMethod());
+        assertTrue(decoded.isPinned());
+        assertEquals("Personal", decoded.getExpenseType());
+        assertEquals("Utilities", decoded.getCategory());
+        assertEquals(7L, decoded.getRecurringBillId());
+        assertEquals(LocalDate.of(2021, 3, 1), decoded.getBillCycleDate());
+        assertTrue(decoded.isArchived());
+    }
+
+    @Test
+    void roundTripsNulls() throws IOException {
+        Expense sparse = new Expense();
+        sparse.setId(1L);
+        sparse.setAmount(new BigDecimal("3.00"));
+        sparse.setDate(LocalDate.of(1999, 12, 31));
+
+        Expense decoded = roundTrip(List.of(sparse)).get(0);
+        assertNull(decoded.getTitle());
+        assertNull(decoded.getDescription());
+        assertNull(decoded.getCurrency());
+        assertNull(decoded.getBaseCurrency());
+        assertNull(decoded.getPaymentMethod());
+        assertNull(decoded.getExpenseType());
+        assertNull(decoded.getCategory());
+        assertNull(decoded.getRecurringBillId());
+        assertNull(decoded.getBillCycleDate());
+        // Rows from before multi-currency support keep their amount as the base amount
+        assertEquals(new BigDecimal("3.00"), decoded.getBaseAmount());
+    }
+
+    @Test
+    void keepsRowOrder() throws IOException {
+        List<Expense> rows = List.of(row(3, 2020, 1), row(1, 2020, 6), row(2, 2020, 12));
+        List<Expense> decoded = roundTrip(rows);
+        assertEquals(List.of(3L, 1L, 2L), decoded.stream().map(Expense::getId).toList());
+        assertEquals(List.of(), roundTrip(List.of()));
+    }
+
+    @Test
+    void rejectsOtherData() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        }
+        byte[] inflated = ExpenseSegmentCodec.inflate(new ByteArrayInputStream(out.toByteArray()));
+        assertThrows(IOException.class, () -> ExpenseSegmentCodec.decode(inflated));
+    }
+
+    private static List<Expense> roundTrip(List<Expense> expenses) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExpenseSegmentCodec.write(expenses, out);
+        return ExpenseSegmentCodec.decode(ExpenseSegmentCodec.inflate(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    private static Expense row(long id, int year, int month) {
+        Expense expense = new Expense();
+        expense.setId(id);
+        expense.setAmount(BigDecimal.ONE);
+        expense.setDate(LocalDate.of(year, month, 1));
+        return expense;
+    }
+}
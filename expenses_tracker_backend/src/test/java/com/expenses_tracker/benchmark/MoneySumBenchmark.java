@@ -0,0 +1,102 @@
+package com.expenses_tracker.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.expenses_tracker.entity.Expense;
+import com.expenses_tracker.util.Money;
+
+/**
+ * Compares BigDecimal totals against Money accumulators over loaded rows.
+ * Run with -prof gc and divide gc.alloc.rate.norm by rows for bytes per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneySumBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    private List<Expense> expenses;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        expenses = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Expense expense = new Expense();
+            // Same shape as a DECIMAL(38,2) value read back from the database
+            expense.setAmount(BigDecimal.valueOf(100 + random.nextInt(5_000_000), 2));
+            expense.setExpenseType(i % 3 == 0 ? "PROFESSIONAL" : "PERSONAL");
+            expenses.add(expense);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalStreamReduce() {
+        return expenses.stream()
+            .map(Expense::getAmount)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalReportSummary() {
+        BigDecimal total = BigDecimal.ZERO;
+        BigDecimal personal = BigDecimal.ZERO;
+        BigDecimal professional = BigDecimal.ZERO;
+        for (Expense expense : expenses) {
+            total = total.add(expense.getAmount());
+            if ("PERSONAL".equalsIgnoreCase(expense.getExpenseType())) {
+                personal = personal.add(expense.getAmount());
+            } else {
+                professional = professional.add(expense.getAmount());
+            }
+        }
+        return total.add(personal).add(professional);
+    }
+
+    @Benchmark
+    public long moneyAccumulatorSum() {
+        Money.Accumulator total = new Money.Accumulator();
+        for (Expense expense : expenses) {
+            total.add(expense.getAmount());
+        }
+        return total.getMinorUnits();
+    }
+
+    @Benchmark
+    public long moneyReportSummary() {
+        Money.Accumulator total = new Money.Accumulator();
+        Money.Accumulator personal = new Money.Accumulator();
+        Money.Accumulator professional = new Money.Accumulator();
+        for (Expense expense : expenses) {
+            long amount = Money.toMinorUnits(expense.getAmount());
+            total.addMinor(amount);
+            if ("PERSONAL".equalsIgnoreCase(expense.getExpenseType())) {
+                personal.addMinor(amount);
+            } else {
+                professional.addMinor(amount);
+            }
+        }
+        return total.getMinorUnits() + personal.getMinorUnits() + professional.getMinorUnits();
+    }
+}
@@ -0,0 +1,111 @@
+package com.expenses_tracker.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.expenses_tracker.config.ColumnarExpenseHttpMessageConverter;
+import com.expenses_tracker.entity.Expense;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+/**
+ * Serialization time and payload size of an expense list response in each
+ * negotiable encoding. Payload sizes are printed once per trial.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="ResponseEncodingBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseEncodingBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    @Param({"json", "columnar", "cbor", "smile"})
+    private String encoding;
+
+    private List<Expense> expenses;
+    private ObjectWriter writer;
+    private ColumnarExpenseHttpMessageConverter columnar;
+    private ByteArrayOutputStream buffer;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] categories = {"Food", "Travel", "Rent", "Utilities", "Shopping", "Health"};
+        String[] methods = {"Cash", "Credit Card", "UPI", "Debit Card"};
+        Random random = new Random(42);
+        expenses = new ArrayList<>(rows);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            Expense expense = new Expense();
+            expense.setId((long) i + 1);
+            expense.setTitle("Expense " + i);
+            expense.setDescription(i % 4 == 0 ? null : "Note for expense " + i);
+            BigDecimal amount = BigDecimal.valueOf(100 + random.nextInt(5_000_000), 2);
+            expense.setAmount(amount);
+            expense.setCurrency("INR");
+            expense.setBaseAmount(amount);
+            expense.setBaseCurrency("INR");
+            expense.setDate(start.plusDays(random.nextInt(700)));
+            expense.setCategory(categories[random.nextInt(categories.length)]);
+            expense.setPaymentMethod(methods[random.nextInt(methods.length)]);
+            expense.setExpenseType(i % 3 == 0 ? "PROFESSIONAL" : "PERSONAL");
+            expense.setChangeVersion((long) i + 1);
+            expenses.add(expense);
+        }
+
+        ObjectMapper mapper = switch (encoding) {
+            case "cbor" -> CBORMapper.builder().findAndAddModules().build();
+            case "smile" -> SmileMapper.builder().findAndAddModules().build();
+            default -> JsonMapper.builder().findAndAddModules().build();
+        };
+        // Match Spring Boot's defaults: ISO dates rather than arrays
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, Expense.class));
+        columnar = new ColumnarExpenseHttpMessageConverter(mapper.getFactory());
+        buffer = new ByteArrayOutputStream(4 << 20);
+
+        System.out.printf("%n%s payload for %d rows: %d bytes%n", encoding, rows, encode());
+    }
+
+    @Benchmark
+    public int serialize() throws IOException {
+        return encode();
+    }
+
+    private int encode() throws IOException {
+        buffer.reset();
+        if ("columnar".equals(encoding)) {
+            columnar.write(expenses, buffer);
+        } else {
+            writer.writeValue(buffer, expenses);
+        }
+        return buffer.size();
+    }
+}
@@ -0,0 +1,156 @@
+package com.expenses_tracker.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares startup of the plain fat jar with the fast-start setup (Spring AOT
+ * plus an AppCDS archive, as built by Dockerfile.faststart).
+ *
+ * Each variant is launched several times; the time from process start until
+ * /actuator/health answers 200 and the resident set size at that point are
+ * reported as medians. The extracted layout and CDS archive are created next
+ * to the jar on first use.
+ * <pre>
+ *   mvn -Pfaststart package -DskipTests
+ *   mvn -Pbenchmark test-compile exec:exec \
+ *     -Dbenchmark.main=com.expenses_tracker.benchmark.StartupBenchmark \
+ *     -Djmh.args="target/expenses_tracker-0.0.1-SNAPSHOT.jar 5 -Dspring.profiles.active=h2 \
+ *       -Dspring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+ * </pre>
+ * Arguments: fat jar built with -Pfaststart, runs per variant, then JVM
+ * options passed to every launch (e.g. to point at a test database).
+ */
+public class StartupBenchmark {
+
+    private static final int PORT = 18083;
+
+    // The CDS archive only works with the JVM that recorded it
+    private static final String JAVA = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Paths.get(args.length > 0 ? args[0] : "target/expenses_tracker-0.0.1-SNAPSHOT.jar").toAbsolutePath();
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        List<String> jvmOptions = args.length > 2 ? Arrays.asList(args).subList(2, args.length) : List.of();
+
+        Path extracted = jar.resolveSibling("faststart");
+        Path appJar = extracted.resolve(jar.getFileName());
+        Path archive = extracted.resolve("app.jsa");
+        if (!Files.exists(archive)) {
+            prepare(jar, extracted, appJar, jvmOptions);
+        }
+
+        List<String> baseline = command(List.of(), jvmOptions, jar);
+        List<String> fastStart = command(List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true"),
+            jvmOptions, appJar);
+
+        // One untimed launch each so the OS file cache is warm for both
+        measure(baseline, jar.getParent());
+        measure(fastStart, extracted);
+
+        report("fat jar", baseline, jar.getParent(), runs);
+        report("AOT + CDS", fastStart, extracted, runs);
+        System.exit(0);
+    }
+
+    /**
+     * Same steps as Dockerfile.faststart: extract the jar, then a training run
+     * that exits once the context is refreshed and dumps the loaded classes
+     */
+    private static void prepare(Path jar, Path extracted, Path appJar, List<String> jvmOptions) throws Exception {
+        System.out.println("Extracting " + jar + " and recording the CDS archive...");
+        run(List.of(JAVA, "-Djarmode=tools", "-jar", jar.toString(), "extract", "--force",
+            "--destination", extracted.toString()), jar.getParent());
+        List<String> training = new ArrayList<>(List.of(JAVA, "-XX:ArchiveClassesAtExit=app.jsa",
+            "-Dspring.aot.enabled=true", "-Dspring.context.exit=onRefresh"));
+        training.addAll(jvmOptions);
+        training.addAll(List.of("-jar", appJar.getFileName().toString()));
+        run(training, extracted);
+    }
+
+    private static List<String> command(List<String> variantOptions, List<String> jvmOptions, Path jar) {
+        List<String> command = new ArrayList<>(List.of(JAVA));
+        command.addAll(variantOptions);
+        command.addAll(jvmOptions);
+        command.addAll(List.of("-Dserver.port=" + PORT, "-jar", jar.getFileName().toString()));
+        return command;
+    }
+
+    private static void report(String name, List<String> command, Path workDir, int runs) throws Exception {
+        long[] millis = new long[runs];
+        long[] rssKb = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long[] result = measure(command, workDir);
+            millis[i] = result[0];
+            rssKb[i] = result[1];
+        }
+        Arrays.sort(millis);
+        Arrays.sort(rssKb);
+        System.out.printf("%-10s time-to-ready median=%d ms (min %d, max %d)  RSS median=%s%n",
+            name, millis[runs / 2], millis[0], millis[runs - 1],
+            rssKb[runs / 2] > 0 ? (rssKb[runs / 2] / 1024) + " MB" : "n/a");
+    }
+
+    private static long[] measure(List<String> command, Path workDir) throws Exception {
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + "/actuator/health"))
+            .timeout(Duration.ofSeconds(2)).build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).directory(workDir.toFile())
+            .redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ": " + command);
+                }
+                try {
+                    if (http.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        break;
+                    }
+                } catch (IOException notYetListening) {
+                    // keep polling
+                }
+                Thread.sleep(20);
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            return new long[]{millis, rssKb(process.pid())};
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    // Linux only; 0 elsewhere
+    private static long rssKb(long pid) {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/" + pid + "/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (Exception e) {
+            // not available
+        }
+        return 0;
+    }
+
+    private static void run(List<String> command, Path workDir) throws Exception {
+        Process process = new ProcessBuilder(command).directory(workDir.toFile()).redirectErrorStream(true)
+            .redirectOutput(new File(workDir.toFile(), "faststart-prepare.log")).start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Failed (see faststart-prepare.log): " + command);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.expenses_tracker.benchmark;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load generator for comparing the platform-thread and
+ * virtual-thread server modes under the same load.
+ *
+ * Start the server twice against the same database and run this against each:
+ * <pre>
+ *   # platform threads (default)
+ *   mvn spring-boot:run
+ *   # virtual threads + DB limiter
+ *   mvn -Pjava21 spring-boot:run -Dspring-boot.run.profiles=virtual
+ *
+ *   mvn -Pbenchmark test-compile exec:exec \
+ *     -Dbenchmark.main=com.expenses_tracker.benchmark.ThreadModelLoadBenchmark \
+ *     -Djmh.args="http://localhost:8083 admin admin123 /api/expenses/total 2000 60"
+ * </pre>
+ * Arguments: base URL, username, password, path, concurrent clients, seconds.
+ * Reports throughput, latency percentiles and failures (timeouts, 5xx).
+ */
+public class ThreadModelLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = arg(args, 0, "http://localhost:8083");
+        String username = arg(args, 1, "admin");
+        String password = arg(args, 2, "admin123");
+        String path = arg(args, 3, "/api/expenses/total");
+        int clients = Integer.parseInt(arg(args, 4, "2000"));
+        int seconds = Integer.parseInt(arg(args, 5, "60"));
+
+        HttpClient http = HttpClient.newBuilder()
+            .cookieHandler(new CookieManager())
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newFixedThreadPool(32))
+            .build();
+
+        HttpResponse<String> login = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                    "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+        if (login.statusCode() != 200) {
+            throw new IllegalStateException("Login failed: " + login.statusCode() + " " + login.body());
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(30))
+            .GET()
+            .build();
+
+        // Warm up the JIT, caches and pool before measuring
+        runFor(http, request, Math.min(clients, 50), 10, new ConcurrentLinkedQueue<>(), new AtomicLong());
+
+        ConcurrentLinkedQueue<long[]> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong failures = new AtomicLong();
+        long started = System.nanoTime();
+        runFor(http, request, clients, seconds, latencies, failures);
+        double elapsed = (System.nanoTime() - started) / 1e9;
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("clients=%d duration=%.1fs requests=%d failures=%d throughput=%.1f req/s%n",
+            clients, elapsed, all.length, failures.get(), all.length / elapsed);
+        if (all.length > 0) {
+            System.out.printf("latency ms: p50=%.1f p90=%.1f p99=%.1f max=%.1f%n",
+                percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), all[all.length - 1] / 1e6);
+        }
+        System.exit(0);
+    }
+
+    private static void runFor(HttpClient http, HttpRequest request, int clients, int seconds,
+                               ConcurrentLinkedQueue<long[]> latencies, AtomicLong failures)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService workers = Executors.newFixedThreadPool(clients);
+        for (int c = 0; c < clients; c++) {
+            workers.submit(() -> {
+                List<Long> mine = new ArrayList<>();
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 500) {
+                            failures.incrementAndGet();
+                            continue;
+                        }
+                        mine.add(System.nanoTime() - start);
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                }
+                latencies.add(mine.stream().mapToLong(Long::longValue).toArray());
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static String arg(String[] args, int index, String fallback) {
+        return args.length > index ? args[index] : fallback;
+    }
+}
@@ -0,0 +1,67 @@
+package com.expenses_tracker.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.expenses_tracker.entity.Budget;
+
+/**
+ * Checks point queries against a linear scan over random, heavily
+ * overlapping budgets, including after copy-on-write updates.
+ */
+class BudgetIntervalTreeTests {
+
+    private static final LocalDate BASE = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void coveringMatchesLinearScan() {
+        Random random = new Random(42);
+        List<Budget> budgets = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            budgets.add(budget(id, random.nextInt(365), random.nextInt(90)));
+        }
+
+        BudgetIntervalTree tree = BudgetIntervalTree.of(budgets);
+        assertMatches(tree, budgets);
+
+        // Move some budgets and drop others
+        for (long id = 1; id <= 300; id += 7) {
+            Budget moved = budget(id, random.nextInt(365), random.nextInt(30));
+            budgets.removeIf(b -> b.getId().equals(moved.getId()));
+            budgets.add(moved);
+            tree = tree.with(moved);
+        }
+        for (long id = 3; id <= 300; id += 11) {
+            long removed = id;
+            budgets.removeIf(b -> b.getId() == removed);
+            tree = tree.without(removed);
+        }
+        assertMatches(tree, budgets);
+    }
+
+    private static void assertMatches(BudgetIntervalTree tree, List<Budget> budgets) {
+        for (int day = -5; day < 460; day++) {
+            LocalDate date = BASE.plusDays(day);
+            List<Long> expected = budgets.stream()
+                .filter(b -> !date.isBefore(b.getStartDate()) && !date.isAfter(b.getEndDate()))
+                .map(Budget::getId).sorted().collect(Collectors.toList());
+            List<Long> actual = tree.covering(date).stream()
+                .map(Budget::getId).sorted().collect(Collectors.toList());
+            assertEquals(expected, actual, "budgets covering " + date);
+        }
+    }
+
+    private static Budget budget(long id, int startDay, int length) {
+        Budget budget = new Budget("Food", BigDecimal.TEN, BASE.plusDays(startDay), BASE.plusDays(startDay + length), null);
+        budget.setId(id);
+        return budget;
+    }
+}
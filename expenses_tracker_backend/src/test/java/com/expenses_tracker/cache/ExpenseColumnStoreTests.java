@@ -0,0 +1,140 @@
+package com.expenses_tracker.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.expenses_tracker.dto.ExpenseFilter;
+import com.expenses_tracker.entity.Expense;
+import com.expenses_tracker.entity.User;
+
+/**
+ * Checks that segments are loaded once, kept in step by onSaved and
+ * onDeleted, and dropped by invalidate; inside a transaction none of these
+ * take effect until it commits.
+ */
+class ExpenseColumnStoreTests {
+
+    private static final Long USER_ID = 7L;
+
+    private final ExpenseColumnStore store = new ExpenseColumnStore(true, 1 << 20);
+    private final List<Expense> database = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Supplier<List<Expense>> loader = () -> {
+        loads.incrementAndGet();
+        return new ArrayList<>(database);
+    };
+
+    @Test
+    void invalidateReloads() {
+        database.add(expense(1, "10.00"));
+        assertEquals(1, select().size());
+        assertEquals(1, select().size());
+        assertEquals(1, loads.get());
+
+        database.add(expense(2, "5.00"));
+        store.invalidate(USER_ID);
+        assertEquals(2, select().size());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void writesApplyToLoadedSegment() {
+        database.add(expense(1, "10.00"));
+        assertEquals(new BigDecimal("10.00"), sum());
+
+        store.onSaved(expense(2, "2.50"));
+        store.onSaved(expense(1, "1.00"));
+        assertEquals(new BigDecimal("3.50"), sum());
+
+        store.onDeleted(expense(2, "2.50"));
+        assertEquals(new BigDecimal("1.00"), sum());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void changesWaitForCommit() {
+        database.add(expense(1, "10.00"));
+        select();
+        TransactionTemplate transaction = new TransactionTemplate(new NoOpTransactionManager());
+
+        transaction.executeWithoutResult(status -> {
+            store.onSaved(expense(2, "2.50"));
+            store.invalidate(USER_ID);
+            // Still the committed state until the transaction completes
+            assertEquals(new BigDecimal("10.00"), sum());
+            assertEquals(1, loads.get());
+        });
+        database.add(expense(2, "2.50"));
+        assertEquals(new BigDecimal("12.50"), sum());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void rolledBackChangesAreDiscarded() {
+        database.add(expense(1, "10.00"));
+        select();
+        TransactionTemplate transaction = new TransactionTemplate(new NoOpTransactionManager());
+
+        transaction.executeWithoutResult(status -> {
+            store.onSaved(expense(2, "2.50"));
+            store.onDeleted(expense(1, "10.00"));
+            store.invalidate(USER_ID);
+            status.setRollbackOnly();
+        });
+        assertEquals(new BigDecimal("10.00"), sum());
+        assertEquals(1, loads.get());
+    }
+
+    private List<Expense> select() {
+        return store.select(USER_ID, new ExpenseFilter(), loader);
+    }
+
+    private BigDecimal sum() {
+        return store.sum(USER_ID, new ExpenseFilter(), loader);
+    }
+
+    private static Expense expense(long id, String amount) {
+        User user = new User();
+        user.setId(USER_ID);
+        Expense expense = new Expense();
+        expense.setId(id);
+        expense.setUser(user);
+        expense.setDate(LocalDate.of(2024, 3, 1));
+        expense.setBaseAmount(new BigDecimal(amount));
+        expense.setCategory("Food");
+        return expense;
+    }
+
+    // Runs transaction synchronizations without any resource behind them
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
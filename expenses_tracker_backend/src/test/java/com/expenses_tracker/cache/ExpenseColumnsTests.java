@@ -0,0 +1,126 @@
+package com.expenses_tracker.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.expenses_tracker.dto.ExpenseFilter;
+import com.expenses_tracker.entity.Expense;
+import com.expenses_tracker.util.Money;
+
+/**
+ * Checks select and sum against ExpenseFilter.matches, the in-memory form of
+ * the repository filter query, over random rows and after upserts and removes.
+ */
+class ExpenseColumnsTests {
+
+    private static final LocalDate BASE = LocalDate.of(2024, 1, 1);
+    private static final String[] CATEGORIES = {"Food", "food ", "Travel", "Rent", null};
+    private static final String[] PAYMENT_METHODS = {"Card", "CASH", "upi", null};
+    private static final String[] TYPES = {"Personal", "Business", null};
+
+    @Test
+    void selectAndSumMatchFilter() {
+        Random random = new Random(7);
+        List<Expense> expenses = new ArrayList<>();
+        for (long id = 1; id <= 400; id++) {
+            expenses.add(expense(random, id));
+        }
+
+        ExpenseColumns columns = new ExpenseColumns(expenses);
+        assertMatches(columns, expenses, random);
+
+        // Overwrite some rows and remove others
+        for (long id = 1; id <= 400; id += 5) {
+            Expense updated = expense(random, id);
+            expenses.removeIf(e -> e.getId().equals(updated.getId()));
+            expenses.add(updated);
+            columns.upsert(updated);
+        }
+        for (long id = 2; id <= 400; id += 9) {
+            long removed = id;
+            expenses.removeIf(e -> e.getId() == removed);
+            columns.remove(removed);
+        }
+        for (long id = 401; id <= 450; id++) {
+            Expense added = expense(random, id);
+            expenses.add(added);
+            columns.upsert(added);
+        }
+        assertMatches(columns, expenses, random);
+    }
+
+    @Test
+    void unknownValueMatchesNothing() {
+        ExpenseColumns columns = new ExpenseColumns(List.of(expense(new Random(1), 1)));
+        ExpenseFilter filter = new ExpenseFilter();
+        filter.setCategory("Nowhere");
+        assertEquals(List.of(), columns.select(filter));
+        assertEquals(0L, columns.sumMinorUnits(filter));
+    }
+
+    private static void assertMatches(ExpenseColumns columns, List<Expense> expenses, Random random) {
+        for (int i = 0; i < 200; i++) {
+            ExpenseFilter filter = filter(random);
+            List<Expense> expected = expenses.stream().filter(filter::matches).collect(Collectors.toList());
+
+            List<Expense> actual = columns.select(filter);
+            assertEquals(ids(expected), ids(actual), "rows matching " + describe(filter));
+            for (int row = 1; row < actual.size(); row++) {
+                assertTrue(!actual.get(row).getDate().isAfter(actual.get(row - 1).getDate()),
+                    "newest first for " + describe(filter));
+            }
+
+            long expectedSum = expected.stream().mapToLong(e -> Money.toMinorUnits(e.getBaseAmount())).sum();
+            assertEquals(expectedSum, columns.sumMinorUnits(filter), "sum matching " + describe(filter));
+        }
+    }
+
+    private static ExpenseFilter filter(Random random) {
+        ExpenseFilter filter = new ExpenseFilter();
+        filter.setCategory(pick(random, "FOOD", "travel", "Rent", "", null, null));
+        filter.setPaymentMethod(pick(random, "card", "Cash", "UPI", null, null));
+        filter.setExpenseType(pick(random, "personal", "BUSINESS", null, null));
+        if (random.nextBoolean()) {
+            filter.setStartDate(BASE.plusDays(random.nextInt(365)));
+        }
+        if (random.nextBoolean()) {
+            filter.setEndDate(BASE.plusDays(random.nextInt(365)));
+        }
+        return filter;
+    }
+
+    private static Expense expense(Random random, long id) {
+        Expense expense = new Expense();
+        expense.setId(id);
+        expense.setDate(BASE.plusDays(random.nextInt(365)));
+        expense.setBaseAmount(BigDecimal.valueOf(random.nextInt(100000), 2));
+        expense.setCategory(pick(random, CATEGORIES));
+        expense.setPaymentMethod(pick(random, PAYMENT_METHODS));
+        expense.setExpenseType(pick(random, TYPES));
+        return expense;
+    }
+
+    @SafeVarargs
+    private static <T> T pick(Random random, T... values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static List<Long> ids(List<Expense> expenses) {
+        return expenses.stream().map(Expense::getId).sorted(Comparator.naturalOrder()).collect(Collectors.toList());
+    }
+
+    private static String describe(ExpenseFilter filter) {
+        return filter.getCategory() + "/" + filter.getPaymentMethod() + "/" + filter.getExpenseType()
+            + " " + filter.getStartDate() + ".." + filter.getEndDate();
+    }
+}
@@ -0,0 +1,69 @@
+package com.expenses_tracker.categorizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the primitive count map against a HashMap, and that the model
+ * learns, forgets and stays under its feature cap.
+ */
+class CategoryModelTests {
+
+    @Test
+    void countMapMatchesHashMap() {
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            // Few keys and mixed signs, so removals and probe chains are exercised
+            long key = random.nextInt(5_000) * 0x9E3779B97F4A7C15L;
+            int delta = random.nextInt(5) - 2;
+            int value = Math.max(0, expected.getOrDefault(key, 0) + delta);
+            if (value > 0) {
+                expected.put(key, value);
+            } else {
+                expected.remove(key);
+            }
+            assertEquals(value, map.addTo(key, delta));
+        }
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+    }
+
+    @Test
+    void learnsAndForgetsCategories() {
+        CategoryModel model = new CategoryModel(2000);
+        for (int i = 0; i < 5; i++) {
+            model.train("Uber ride", "to office", "Transport");
+            model.train("Barfi", "sweets from the shop", "Food");
+        }
+        List<CategorySuggestion> suggestions = model.predict("uber", null, 3);
+        assertEquals("Transport", suggestions.get(0).category());
+        assertTrue(suggestions.get(0).probability() > 0.8, "probability: " + suggestions.get(0).probability());
+        assertTrue(model.predict("unseen words", null, 3).isEmpty());
+
+        for (int i = 0; i < 5; i++) {
+            model.untrain("Uber ride", "to office", "Transport");
+            model.train("Uber ride", "to office", "business");
+        }
+        assertEquals("business", model.predict("Uber ride", null, 3).get(0).category(), "first-seen spelling");
+    }
+
+    @Test
+    void staysUnderFeatureCap() {
+        CategoryModel model = new CategoryModel(500);
+        for (int i = 0; i < 10_000; i++) {
+            model.train("shop item" + i, null, "Category " + i % 7);
+        }
+        long bytes = model.estimatedBytes();
+        assertTrue(bytes < 64 * 1024, "bytes: " + bytes);
+        assertEquals("Category 2", model.predict("item9998", null, 1).get(0).category());
+    }
+}
@@ -0,0 +1,133 @@
+package com.expenses_tracker.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Routes between two independent H2 databases standing in for a primary and
+ * a replica. Nothing replicates between them, so lag is simulated by copying
+ * (or not copying) the heartbeat row across.
+ */
+class ReplicaRoutingDataSourceTests {
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicationLagMonitor monitor;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica = h2("replica");
+        for (DataSource dataSource : new DataSource[]{primary, replica}) {
+            JdbcTemplate template = new JdbcTemplate(dataSource);
+            template.execute("DROP TABLE IF EXISTS replica_heartbeat");
+            template.execute("DROP TABLE IF EXISTS marker");
+            template.execute("CREATE TABLE replica_heartbeat (id BIGINT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+            template.execute("CREATE TABLE marker (name VARCHAR(20))");
+        }
+        new JdbcTemplate(primary).update("INSERT INTO marker VALUES ('primary')");
+        new JdbcTemplate(replica).update("INSERT INTO marker VALUES ('replica')");
+
+        monitor = new ReplicationLagMonitor(primary, replica, 2000);
+        route(monitor);
+    }
+
+    private void route(ReplicationLagMonitor lagMonitor) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(lagMonitor);
+        routing.setTargetDataSources(Map.of(
+            ReplicaRoutingDataSource.PRIMARY, primary,
+            ReplicaRoutingDataSource.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private TransactionTemplate readOnlyVia(ReplicationLagMonitor lagMonitor) {
+        route(lagMonitor);
+        return readOnly;
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaOnceCaughtUp() {
+        monitor.check();
+        replicate();
+        monitor.check();
+
+        assertTrue(monitor.isReplicaUsable());
+        assertEquals("replica", readOnly.execute(status -> marker()));
+        assertEquals("primary", readWrite.execute(status -> marker()));
+        assertEquals("primary", marker());
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaLags() throws InterruptedException {
+        monitor.check();
+        replicate();
+        monitor.check();
+        assertTrue(monitor.isReplicaUsable());
+
+        // Primary keeps beating but the replica stops receiving them
+        monitor = monitorWithMaxLag(50);
+        monitor.check();
+        Thread.sleep(120);
+        monitor.check();
+
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals("primary", readOnlyVia(monitor).execute(status -> marker()));
+    }
+
+    @Test
+    void staysOnPrimaryUntilFirstHeartbeatIsConfirmed() {
+        new JdbcTemplate(replica).update("INSERT INTO replica_heartbeat VALUES (1, ?)", System.currentTimeMillis());
+        monitor.check();
+
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals("primary", readOnly.execute(status -> marker()));
+    }
+
+    private ReplicationLagMonitor monitorWithMaxLag(long maxLagMillis) {
+        ReplicationLagMonitor lagging = new ReplicationLagMonitor(primary, replica, maxLagMillis);
+        lagging.check();
+        replicate();
+        lagging.check();
+        return lagging;
+    }
+
+    private void replicate() {
+        Long beat = new JdbcTemplate(primary).queryForObject("SELECT beat_at FROM replica_heartbeat WHERE id = 1", Long.class);
+        JdbcTemplate target = new JdbcTemplate(replica);
+        if (target.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1", beat) == 0) {
+            target.update("INSERT INTO replica_heartbeat VALUES (1, ?)", beat);
+        }
+    }
+
+    private String marker() {
+        return jdbc.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
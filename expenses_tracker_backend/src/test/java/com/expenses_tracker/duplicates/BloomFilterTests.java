@@ -0,0 +1,43 @@
+package com.expenses_tracker.duplicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that every added fingerprint is found and that unrelated ones are
+ * reported present at about the rate the filter was sized for.
+ */
+class BloomFilterTests {
+
+    private static final LocalDate BASE = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void noFalseNegativesAndBoundedFalsePositives() {
+        int items = 20_000;
+        BloomFilter filter = new BloomFilter(items, 0.01);
+        for (int i = 0; i < items; i++) {
+            filter.add(fingerprint(i).hash64());
+        }
+        for (int i = 0; i < items; i++) {
+            assertTrue(filter.mightContain(fingerprint(i).hash64()), "missing item " + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = items; i < 2 * items; i++) {
+            if (filter.mightContain(fingerprint(i).hash64())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < items * 0.02, "false positives: " + falsePositives);
+    }
+
+    // Amount, day and title all vary, as they do in a user's history
+    private static ExpenseFingerprint fingerprint(int i) {
+        return ExpenseFingerprint.of(BigDecimal.valueOf(100 + i % 997, 2), BASE.plusDays(i % 365),
+            "Expense " + (i / 7), null);
+    }
+}
@@ -0,0 +1,171 @@
+package com.expenses_tracker.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.repository.Repository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.expenses_tracker.entity.ERole;
+
+/**
+ * Runs every query method declared by the repositories against a database
+ * built by the Flyway migrations (H2 in MySQL mode), EXPLAINs the SQL that
+ * Hibernate issued, and fails when a table is read without an index lookup.
+ *
+ * Starting with ddl-auto=validate also checks that the migrations still match
+ * the entities. Queries that scan by design are listed in SCANS_ALLOWED.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+    "spring.datasource.url=jdbc:h2:mem:queryplans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.expenses_tracker.repository.QueryPlanTests$RecordingInspector"
+})
+class QueryPlanTests {
+
+    private static final Map<String, String> SCANS_ALLOWED = Map.ofEntries(
+        Map.entry("ExpenseRepository.findAllByOrderByDateDesc", "admin listing of every expense"),
+        Map.entry("ExpenseRepository.searchExpenses", "leading-wildcard LIKE cannot use an index"),
+        Map.entry("ExpenseRepository.findByExpenseTypeIgnoreCase", "admin-wide case-insensitive filter"),
+        Map.entry("ExpenseRepository.findByCategoryIgnoreCase", "admin-wide case-insensitive filter"),
+        Map.entry("ExpenseRepository.findByPaymentMethodIgnoreCase", "admin-wide case-insensitive filter"),
+        Map.entry("ExpenseRepository.findByExpenseTypeIgnoreCaseAndCategoryIgnoreCase", "admin-wide case-insensitive filter"),
+        Map.entry("CategoryRepository.findByNameIgnoreCase", "small reference table, case-insensitive"),
+        Map.entry("CategoryRepository.existsByNameIgnoreCase", "small reference table, case-insensitive"),
+        Map.entry("RoleRepository.findByName", "two-row reference table"),
+        Map.entry("RecurringBillRepository.findByDayOfMonthDue", "not called; bill posting selects by next_due_date"));
+
+    // Names each table access in an H2 plan; without ": condition" it reads every row
+    private static final Pattern TABLE_ACCESS = Pattern.compile("/\\* (public\\.[\\w.]+)(: [^*]*)? \\*/");
+
+    /** Collects the SQL Hibernate prepares, per thread */
+    public static class RecordingInspector implements StatementInspector {
+        static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.get().add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void repositoryQueriesUseIndexes() {
+        Map<String, Set<String>> statements = new TreeMap<>();
+        for (Object repository : context.getBeansOfType(Repository.class).values()) {
+            for (Class<?> type : repository.getClass().getInterfaces()) {
+                if (type.getPackage() == getClass().getPackage()) {
+                    for (Method method : type.getDeclaredMethods()) {
+                        statements.put(type.getSimpleName() + "." + method.getName(), run(repository, method));
+                    }
+                }
+            }
+        }
+
+        List<String> problems = new ArrayList<>();
+        statements.forEach((query, sqls) -> {
+            assertFalse(sqls.isEmpty(), query + " issued no SQL");
+            for (String sql : sqls) {
+                String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+                Matcher access = TABLE_ACCESS.matcher(plan);
+                while (access.find()) {
+                    if (access.group(2) == null && !SCANS_ALLOWED.containsKey(query)) {
+                        problems.add(query + " reads all of " + access.group(1) + ":\n" + plan);
+                    }
+                }
+            }
+        });
+        if (!problems.isEmpty()) {
+            fail(String.join("\n\n", problems));
+        }
+        assertEquals(Set.of(), SCANS_ALLOWED.keySet().stream()
+            .filter(query -> !statements.containsKey(query)).collect(Collectors.toSet()),
+            "SCANS_ALLOWED names a query that no longer exists");
+    }
+
+    /** Invokes one query method with placeholder arguments, rolled back; returns the SQL it issued */
+    private Set<String> run(Object repository, Method method) {
+        Object[] args = new Object[method.getParameterCount()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = argument(method, method.getParameterTypes()[i]);
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return transaction.execute(status -> {
+            status.setRollbackOnly();
+            RecordingInspector.STATEMENTS.get().clear();
+            try {
+                method.invoke(repository, args);
+            } catch (InvocationTargetException | IllegalAccessException e) {
+                throw new IllegalStateException(method + " failed", e);
+            }
+            return new LinkedHashSet<>(RecordingInspector.STATEMENTS.get());
+        });
+    }
+
+    private static Object argument(Method method, Class<?> type) {
+        if (type == Long.class || type == long.class) {
+            return 1L;
+        } else if (type == Integer.class || type == int.class) {
+            return 1;
+        } else if (type == Boolean.class || type == boolean.class) {
+            return false;
+        } else if (type == String.class) {
+            return "Food";
+        } else if (type == LocalDate.class) {
+            return LocalDate.now();
+        } else if (type == Timestamp.class) {
+            return new Timestamp(System.currentTimeMillis());
+        } else if (type == BigDecimal.class) {
+            return BigDecimal.ONE;
+        } else if (type == Limit.class) {
+            return Limit.of(20);
+        } else if (type == ERole.class) {
+            return ERole.ROLE_USER;
+        } else if (Collection.class.isAssignableFrom(type)) {
+            return List.of(1L, 2L);
+        }
+        throw new IllegalArgumentException("No placeholder for " + type.getSimpleName() + " in " + method);
+    }
+}
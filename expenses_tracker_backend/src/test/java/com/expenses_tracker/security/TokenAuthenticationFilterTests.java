@@ -0,0 +1,60 @@
+package com.expenses_tracker.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Runs the filter on mock requests and checks what ends up in the security
+ * context.
+ */
+class TokenAuthenticationFilterTests {
+
+    private final TokenService tokenService = TokenServiceTests.service(TokenServiceTests.SECRET, List.of());
+    private final TokenAuthenticationFilter filter = new TokenAuthenticationFilter(tokenService);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticatesValidToken() throws Exception {
+        Authentication authentication = filter(tokenService.issue(42L, "alice", List.of("ROLE_USER", "ROLE_ADMIN")));
+        assertNotNull(authentication);
+        CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+        assertEquals("alice", principal.getUsername());
+        assertEquals(2, authentication.getAuthorities().size());
+    }
+
+    @Test
+    void rejectsUnknownRole() throws Exception {
+        assertNull(filter(tokenService.issue(42L, "alice", List.of("ROLE_USER", "ROLE_SUPERUSER"))));
+    }
+
+    @Test
+    void ignoresInvalidToken() throws Exception {
+        String token = tokenService.issue(42L, "alice", List.of("ROLE_USER"));
+        assertNull(filter(token.substring(0, token.length() - 2)));
+    }
+
+    private Authentication filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/expenses");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        // The request always continues down the chain; only authentication differs
+        assertNotNull(chain.getRequest());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
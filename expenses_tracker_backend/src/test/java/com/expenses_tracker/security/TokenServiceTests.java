@@ -0,0 +1,159 @@
+package com.expenses_tracker.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Issues and verifies tokens with fixed secrets, and forges tokens by hand
+ * to check that each way of tampering with one is rejected.
+ */
+class TokenServiceTests {
+
+    static final String SECRET = "test-secret-0123456789-0123456789";
+    static final String OLD_SECRET = "old-secret-0123456789-0123456789-";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    static TokenService service(String secret, List<String> previousSecrets) {
+        return new TokenService(MAPPER, "token", secret, previousSecrets, 3600000, 1000, 600);
+    }
+
+    @Test
+    void roundTrip() {
+        TokenService service = service(SECRET, List.of());
+        TokenService.TokenClaims claims = service.verify(service.issue(42L, "alice", List.of("ROLE_USER")));
+        assertNotNull(claims);
+        assertEquals(42L, claims.userId());
+        assertEquals("alice", claims.username());
+        assertEquals(List.of("ROLE_USER"), claims.roles());
+    }
+
+    @Test
+    void rejectsTamperedPayloadOrSignature() {
+        TokenService service = service(SECRET, List.of());
+        String[] parts = service.issue(42L, "alice", List.of("ROLE_USER")).split("\\.");
+
+        String payload = ENCODER.encodeToString(json(claims(1L, "admin", List.of("ROLE_ADMIN"), future())));
+        assertNull(service.verify(parts[0] + "." + payload + "." + parts[2]));
+
+        char last = parts[2].charAt(0);
+        String signature = (last == 'A' ? 'B' : 'A') + parts[2].substring(1);
+        assertNull(service.verify(parts[0] + "." + parts[1] + "." + signature));
+        assertNull(service.verify(parts[0] + "." + parts[1] + "."));
+        assertNull(service.verify("not-a-token"));
+    }
+
+    @Test
+    void rejectsOtherAlgorithms() {
+        TokenService service = service(SECRET, List.of());
+        String kid = kidOf(service);
+        Map<String, Object> claims = claims(42L, "alice", List.of("ROLE_USER"), future());
+
+        assertNull(service.verify(forge(header("none", kid), claims, SECRET).replaceAll("[^.]*$", "")));
+        assertNull(service.verify(forge(header("none", kid), claims, SECRET)));
+        assertNull(service.verify(forge(header("HS512", kid), claims, SECRET)));
+        assertNull(service.verify(forge(header("hs256", kid), claims, SECRET)));
+        assertNotNull(service.verify(forge(header("HS256", kid), claims, SECRET)));
+    }
+
+    @Test
+    void rejectsUnknownKeyId() {
+        TokenService service = service(SECRET, List.of());
+        Map<String, Object> claims = claims(42L, "alice", List.of("ROLE_USER"), future());
+        assertNull(service.verify(forge(header("HS256", "0000000000000000"), claims, SECRET)));
+
+        // Signed with a key this service never had, under its own kid
+        String foreign = service("some-other-secret-0123456789-0123", List.of()).issue(42L, "alice", List.of("ROLE_USER"));
+        assertNull(service.verify(foreign));
+    }
+
+    @Test
+    void acceptsPreviousSecret() {
+        String oldToken = service(OLD_SECRET, List.of()).issue(42L, "alice", List.of("ROLE_USER"));
+        assertNull(service(SECRET, List.of()).verify(oldToken));
+
+        TokenService rotated = service(SECRET, List.of(OLD_SECRET));
+        assertNotNull(rotated.verify(oldToken));
+        assertNotNull(rotated.verify(rotated.issue(42L, "alice", List.of("ROLE_USER"))));
+    }
+
+    @Test
+    void rejectsExpiredTokenStillInCache() throws InterruptedException {
+        TokenService service = service(SECRET, List.of());
+        long expiresAt = System.currentTimeMillis() / 1000 + 1;
+        String token = forge(header("HS256", kidOf(service)), claims(42L, "alice", List.of("ROLE_USER"), expiresAt), SECRET);
+        assertNotNull(service.verify(token));
+
+        // The verification cache keeps entries for ten minutes here, far past the expiry
+        Thread.sleep(expiresAt * 1000 - System.currentTimeMillis() + 50);
+        assertNull(service.verify(token));
+        assertNull(service.verify(forge(header("HS256", kidOf(service)),
+            claims(42L, "alice", List.of("ROLE_USER"), System.currentTimeMillis() / 1000 - 1), SECRET)));
+    }
+
+    static long future() {
+        return System.currentTimeMillis() / 1000 + 3600;
+    }
+
+    static Map<String, Object> header(String alg, String kid) {
+        Map<String, Object> header = new LinkedHashMap<>();
+        header.put("alg", alg);
+        header.put("typ", "JWT");
+        header.put("kid", kid);
+        return header;
+    }
+
+    static Map<String, Object> claims(Long userId, String username, List<String> roles, long expiresAt) {
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", username);
+        claims.put("uid", userId);
+        claims.put("roles", roles);
+        claims.put("exp", expiresAt);
+        return claims;
+    }
+
+    /** Builds and signs a token by hand, with whatever header and claims */
+    static String forge(Map<String, Object> header, Map<String, Object> claims, String secret) {
+        String signingInput = ENCODER.encodeToString(json(header)) + "." + ENCODER.encodeToString(json(claims));
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return signingInput + "." + ENCODER.encodeToString(mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** The kid the service puts on the tokens it issues */
+    static String kidOf(TokenService service) {
+        String header = service.issue(1L, "x", List.of()).split("\\.")[0];
+        try {
+            return MAPPER.readTree(Base64.getUrlDecoder().decode(header)).get("kid").asText();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] json(Object value) {
+        try {
+            return MAPPER.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
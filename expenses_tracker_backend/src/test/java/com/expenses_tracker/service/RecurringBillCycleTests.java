@@ -0,0 +1,32 @@
+package com.expenses_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the cycle arithmetic of bill posting, including month-end clamping
+ * and frequencies the job does not know.
+ */
+class RecurringBillCycleTests {
+
+    @Test
+    void monthlyAndQuarterlyClampToMonthEnd() {
+        LocalDate jan31 = LocalDate.of(2025, 1, 31);
+        assertEquals(LocalDate.of(2025, 2, 28), RecurringBillPostingService.nextCycle(jan31, "MONTHLY", 31));
+        assertEquals(LocalDate.of(2025, 3, 31),
+            RecurringBillPostingService.nextCycle(LocalDate.of(2025, 2, 28), "MONTHLY", 31));
+        assertEquals(LocalDate.of(2025, 4, 30), RecurringBillPostingService.nextCycle(jan31, "QUARTERLY", 31));
+        assertEquals(LocalDate.of(2025, 7, 31),
+            RecurringBillPostingService.nextCycle(LocalDate.of(2025, 4, 30), "quarterly", 31));
+        assertEquals(LocalDate.of(2025, 2, 28), RecurringBillPostingService.nextCycle(jan31, null, 31));
+    }
+
+    @Test
+    void unknownFrequencyHasNoNextCycle() {
+        assertNull(RecurringBillPostingService.nextCycle(LocalDate.of(2025, 1, 1), "FORTNIGHTLY", 1));
+    }
+}
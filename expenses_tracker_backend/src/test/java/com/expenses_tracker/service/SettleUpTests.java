@@ -0,0 +1,60 @@
+package com.expenses_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.expenses_tracker.util.Money;
+
+/**
+ * Checks that the suggested payments clear random zero-sum balances with at
+ * most n - 1 payments, and that exactly matching amounts are paired directly.
+ */
+class SettleUpTests {
+
+    @Test
+    void transfersClearEveryBalance() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            Map<Long, Long> balances = new TreeMap<>();
+            long sum = 0;
+            int members = 2 + random.nextInt(300);
+            for (long id = 1; id < members; id++) {
+                long balance = random.nextInt(200_001) - 100_000;
+                balances.put(id, balance);
+                sum += balance;
+            }
+            balances.put((long) members, -sum);
+
+            List<SettleUp.Transfer> transfers = SettleUp.transfers(balances);
+            long nonZero = balances.values().stream().filter(b -> b != 0).count();
+            assertTrue(transfers.size() <= Math.max(0, nonZero - 1), "too many transfers: " + transfers.size());
+
+            Map<Long, Long> remaining = new HashMap<>(balances);
+            for (SettleUp.Transfer transfer : transfers) {
+                long amount = Money.toMinorUnits(transfer.amount());
+                assertTrue(amount > 0);
+                remaining.merge(transfer.fromUserId(), amount, Long::sum);
+                remaining.merge(transfer.toUserId(), -amount, Long::sum);
+            }
+            remaining.values().forEach(balance -> assertEquals(0L, balance));
+        }
+    }
+
+    @Test
+    void matchingAmountsPayEachOtherDirectly() {
+        Map<Long, Long> balances = Map.of(1L, 5_000L, 2L, -5_000L, 3L, 700L, 4L, 300L, 5L, -1_000L);
+
+        List<SettleUp.Transfer> transfers = SettleUp.transfers(balances);
+
+        assertEquals(3, transfers.size());
+        assertTrue(transfers.contains(new SettleUp.Transfer(2L, 1L, Money.fromMinorUnits(5_000))));
+    }
+}
@@ -28,12 +28,7 @@ const BudgetList = () => {
       const budgetsData = response.data;
       setBudgets(budgetsData);
       
-      // Check for budget alerts
-      try {
-        await budgetAPI.checkBudgetAlerts(user.id);
-      } catch (err) {
-        console.error('Error checking budget alerts:', err);
-      }
+      // Budget alerts come from the scheduled server-side sweep and from adding expenses
       
       // Fetch actual spending for each budget
       const spendingData = {};
@@ -2,6 +2,8 @@ import React, { useState, useEffect } from 'react';
 import { expenseAPI } from '../../services/api';
 import { X } from 'lucide-react';
 
+const CATEGORIES = ['Food', 'Transport', 'Entertainment', 'Shopping', 'Bills', 'Healthcare', 'Education', 'Business', 'Other'];
+
 const ExpenseForm = ({ expense, onClose, userId }) => {
   const [formData, setFormData] = useState({
     title: '',
@@ -15,6 +17,7 @@ const ExpenseForm = ({ expense, onClose, userId }) => {
   });
   const [customCategory, setCustomCategory] = useState('');
   const [showCustomCategory, setShowCustomCategory] = useState(false);
+  const [categoryPicked, setCategoryPicked] = useState(false);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState('');
 
@@ -33,6 +36,30 @@ const ExpenseForm = ({ expense, onClose, userId }) => {
     }
   }, [expense]);
 
+  // Preselects the category the user's history suggests, until they pick one themselves
+  const suggestCategory = async () => {
+    if (expense || categoryPicked || !formData.title.trim()) {
+      return;
+    }
+    try {
+      const response = await expenseAPI.suggestCategory(formData.title, formData.description);
+      const best = response.data[0];
+      if (!best) {
+        return;
+      }
+      const known = CATEGORIES.find((c) => c.toLowerCase() === best.category.toLowerCase());
+      if (known) {
+        setShowCustomCategory(false);
+        setFormData((current) => ({ ...current, category: known }));
+      } else {
+        setShowCustomCategory(true);
+        setCustomCategory(best.category);
+      }
+    } catch (err) {
+      // Suggestions are optional; keep the current category
+    }
+  };
+
   const handleSubmit = async (e) => {
     e.preventDefault();
     setLoading(true);
@@ -48,7 +75,16 @@ const ExpenseForm = ({ expense, onClose, userId }) => {
       if (expense) {
         await expenseAPI.updateExpense(expense.id, expenseData);
       } else {
-        await expenseAPI.createExpense(expenseData);
+        try {
+          await expenseAPI.createExpense(expenseData);
+        } catch (err) {
+          // The server refuses likely duplicates until they are confirmed
+          if (err.response?.status !== 409
+              || !window.confirm(`${err.response.data.error}. Add it anyway?`)) {
+            throw err;
+          }
+          await expenseAPI.createExpense(expenseData, true);
+        }
       }
       onClose();
     } catch (err) {
@@ -77,6 +113,7 @@ const ExpenseForm = ({ expense, onClose, userId }) => {
                 type="text"
                 value={formData.title}
                 onChange={(e) => setFormData({ ...formData, title: e.target.value })}
+                onBlur={suggestCategory}
                 required
               />
             </div>
@@ -118,6 +155,7 @@ const ExpenseForm = ({ expense, onClose, userId }) => {
               <select
                 value={showCustomCategory ? 'Custom' : formData.category}
                 onChange={(e) => {
+                  setCategoryPicked(true);
                   if (e.target.value === 'Custom') {
                     setShowCustomCategory(true);
                   } else {
@@ -126,15 +164,9 @@ const ExpenseForm = ({ expense, onClose, userId }) => {
                   }
                 }}
               >
-                <option value="Food">Food</option>
-                <option value="Transport">Transport</option>
-                <option value="Entertainment">Entertainment</option>
-                <option value="Shopping">Shopping</option>
-                <option value="Bills">Bills</option>
-                <option value="Healthcare">Healthcare</option>
-                <option value="Education">Education</option>
-                <option value="Business">Business</option>
-                <option value="Other">Other</option>
+                {CATEGORIES.map((c) => (
+                  <option key={c} value={c}>{c}</option>
+                ))}
                 <option value="Custom">Custom...</option>
               </select>
               {showCustomCategory && (
@@ -142,7 +174,10 @@ const ExpenseForm = ({ expense, onClose, userId }) => {
                   type="text"
                   placeholder="Enter custom category"
                   value={customCategory}
-                  onChange={(e) => setCustomCategory(e.target.value)}
+                  onChange={(e) => {
+                    setCategoryPicked(true);
+                    setCustomCategory(e.target.value);
+                  }}
                   style={{ marginTop: '10px' }}
                   required
                 />
@@ -83,7 +83,10 @@ const GroupList = () => {
               </div>
               <div className="stat">
                 <DollarSign size={16} />
-                <span>₹0.00</span>
+                <span title="Your balance; negative when you owe the group">
+                  {group.currency === 'INR' ? '₹' : `${group.currency} `}
+                  {Number(group.myBalance || 0).toFixed(2)}
+                </span>
               </div>
             </div>
             <div className="group-actions" style={{ display: 'flex', gap: '10px', marginTop: '15px' }}>
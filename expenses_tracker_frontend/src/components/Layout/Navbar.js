@@ -31,8 +31,8 @@ const Navbar = () => {
 
   const fetchUnreadCount = async () => {
     try {
-      const response = await notificationAPI.getUnreadNotifications(user.id);
-      setUnreadCount(response.data.length);
+      const response = await notificationAPI.getUnreadCount(user.id);
+      setUnreadCount(response.data.count);
     } catch (error) {
       console.error('Error fetching notification count:', error);
     }
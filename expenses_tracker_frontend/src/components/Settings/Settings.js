@@ -97,6 +97,11 @@ const Settings = () => {
     }
   };
 
+  // Content-addressed photos come as a 256px thumbnail (the avatar is 120px, 2x for HiDPI);
+  // older uploads are still served from /uploads by the backend
+  const photoSrc = (url) =>
+    url.startsWith('/api/photos/') ? `${url}?size=256` : `http://localhost:8083${url}`;
+
   const handlePhotoUpload = () => {
     // Create file input element
     const input = document.createElement('input');
@@ -170,7 +175,7 @@ const Settings = () => {
             <div className="profile-photo">
               {userInfo.profilePhotoUrl ? (
                 <img 
-                  src={`http://localhost:8083${userInfo.profilePhotoUrl}`} 
+                  src={photoSrc(userInfo.profilePhotoUrl)} 
                   alt="Profile" 
                   className="profile-photo-img"
                 />
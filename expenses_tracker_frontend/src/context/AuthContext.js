@@ -1,5 +1,5 @@
 import React, { createContext, useState, useContext, useEffect } from 'react';
-import { authAPI } from '../services/api';
+import { authAPI, TOKEN_KEY } from '../services/api';
 
 const AuthContext = createContext(null);
 
@@ -27,6 +27,9 @@ export const AuthProvider = ({ children }) => {
     try {
       setError(null);
       const response = await authAPI.login(credentials);
+      if (response.data.token) {
+        localStorage.setItem(TOKEN_KEY, response.data.token);
+      }
       await checkAuth(); // Fetch user details after login
       return response.data;
     } catch (err) {
@@ -48,12 +51,14 @@ export const AuthProvider = ({ children }) => {
 
   const logout = () => {
     setUser(null);
+    localStorage.removeItem(TOKEN_KEY);
     // Session will be invalidated on server side
   };
 
   const deleteAccount = async () => {
     try {
       await authAPI.deleteAccount();
+      localStorage.removeItem(TOKEN_KEY);
       setUser(null);
     } catch (err) {
       throw err;
@@ -13,6 +13,17 @@ const api = axios.create({
   },
 });
 
+// Bearer token issued by the server in stateless auth mode; absent in session mode
+export const TOKEN_KEY = "authToken";
+
+api.interceptors.request.use((config) => {
+  const token = localStorage.getItem(TOKEN_KEY);
+  if (token) {
+    config.headers.Authorization = `Bearer ${token}`;
+  }
+  return config;
+});
+
 // Auth API
 export const authAPI = {
   register: (userData) => api.post("/auth/register", userData),
@@ -45,7 +56,8 @@ export const expenseAPI = {
   getAllExpenses: () => api.get("/expenses"),
   getExpenseById: (id) => api.get(`/expenses/${id}`),
   getExpensesByType: (type) => api.get(`/expenses/type/${type}`),
-  createExpense: (expenseData) => api.post("/expenses", expenseData),
+  createExpense: (expenseData, allowDuplicate = false) =>
+    api.post("/expenses", expenseData, { params: allowDuplicate ? { allowDuplicate } : {} }),
   updateExpense: (id, expenseData) => api.put(`/expenses/${id}`, expenseData),
   deleteExpense: (id) => api.delete(`/expenses/${id}`),
   togglePin: (id) => api.post(`/expenses/${id}/togglePin`),
@@ -62,6 +74,14 @@ export const expenseAPI = {
     api.get(
       `/expenses/filter/type-category?expenseType=${type}&category=${category}`
     ),
+  bulkRecategorize: (ids, category) =>
+    api.post("/expenses/bulk/recategorize", { ids, category }),
+  bulkDelete: (ids) => api.post("/expenses/bulk/delete", { ids }),
+  bulkPin: (ids, pinned = true) =>
+    api.post("/expenses/bulk/pin", { ids, pinned }),
+  findDuplicates: () => api.get("/expenses/duplicates"),
+  suggestCategory: (title, description) =>
+    api.get("/expenses/suggest-category", { params: { title, description } }),
 };
 
 // Budget API
@@ -95,16 +115,24 @@ export const recurringBillAPI = {
   markAsUnpaid: (id) => api.post(`/recurring-bills/${id}/mark-unpaid`),
 };
 
+// Delta sync API: pass the previous highWaterMark as since (0 for everything)
+export const syncAPI = {
+  getChanges: (since = 0) => api.get(`/sync?since=${since}`),
+};
+
 // Notification API
 export const notificationAPI = {
   getNotifications: (userId) => api.get(`/notifications/${userId}`),
   getUnreadNotifications: (userId) =>
     api.get(`/notifications/${userId}/unread`),
+  getUnreadCount: (userId) => api.get(`/notifications/${userId}/unread-count`),
   markAsRead: (notificationId) =>
     api.post(`/notifications/${notificationId}/mark-read`),
   markAsUnread: (notificationId) =>
     api.post(`/notifications/${notificationId}/mark-unread`),
   markAllAsRead: (userId) => api.post(`/notifications/${userId}/mark-all-read`),
+  markManyAsRead: (userId, notificationIds) =>
+    api.post(`/notifications/user/${userId}/mark-read`, notificationIds),
   deleteNotification: (notificationId) =>
     api.delete(`/notifications/${notificationId}`),
   deleteAllNotifications: (userId) =>
@@ -130,6 +158,24 @@ export const reportAPI = {
     }),
 };
 
+// Groups API (shared expenses; balances are positive when the group owes you)
+export const groupAPI = {
+  getUserGroups: () => api.get("/groups"),
+  getGroup: (groupId) => api.get(`/groups/${groupId}`),
+  createGroup: (groupData) => api.post("/groups", groupData),
+  deleteGroup: (groupId) => api.delete(`/groups/${groupId}`),
+  addMembers: (groupId, userIds) => api.post(`/groups/${groupId}/members`, userIds),
+  removeMember: (groupId, userId) => api.delete(`/groups/${groupId}/members/${userId}`),
+  addExpense: (groupId, expenseData) => api.post(`/groups/${groupId}/expenses`, expenseData),
+  getExpenses: (groupId, beforeId, limit = 20) =>
+    api.get(`/groups/${groupId}/expenses`, { params: { beforeId, limit } }),
+  deleteExpense: (groupId, expenseId) => api.delete(`/groups/${groupId}/expenses/${expenseId}`),
+  getBalances: (groupId) => api.get(`/groups/${groupId}/balances`),
+  getSettleUp: (groupId) => api.get(`/groups/${groupId}/settle-up`),
+  recordSettlement: (groupId, fromUserId, toUserId, amount) =>
+    api.post(`/groups/${groupId}/settlements`, { fromUserId, toUserId, amount }),
+};
+
 // Data API (for testing/seeding)
 export const dataAPI = {
   initSampleData: () => api.post("/data/init"),